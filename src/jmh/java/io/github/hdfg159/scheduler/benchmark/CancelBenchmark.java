@@ -0,0 +1,74 @@
+package io.github.hdfg159.scheduler.benchmark;
+
+import io.github.hdfg159.scheduler.SchedulerManager;
+import io.github.hdfg159.scheduler.factory.Triggers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SchedulerManager.cancel 延迟(包括从队列中移除),每次迭代预先放入待取消触发器,每次调用取消一个,结果为一批({@link #BATCH_SIZE} 次)取消总耗时
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, batchSize = CancelBenchmark.BATCH_SIZE)
+@Measurement(iterations = 5, batchSize = CancelBenchmark.BATCH_SIZE)
+public class CancelBenchmark {
+	static final int BATCH_SIZE = 10_000;
+
+	private final SchedulerManager manager = SchedulerManager.INSTANCE;
+
+	/**
+	 * 队列中其他(不取消)触发器数量
+	 */
+	@Param({"1000", "100000"})
+	private int pending;
+
+	private String[] names;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void fill() {
+		LocalDateTime time = LocalDateTime.now().plusDays(1);
+		for (int i = 0; i < pending; i++) {
+			manager.schedule(Triggers.once("pending-" + i, time.plusSeconds(i), trigger -> {}));
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void prepare() {
+		LocalDateTime time = LocalDateTime.now().plusDays(1);
+		names = new String[BATCH_SIZE];
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			names[i] = "cancel-" + i;
+			manager.schedule(Triggers.once(names[i], time.plusNanos(i * 1_000_000L), trigger -> {}));
+		}
+		index = 0;
+	}
+
+	@Benchmark
+	public boolean cancel() {
+		return manager.cancel(names[index++]);
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdown() {
+		manager.shutdown();
+	}
+}
@@ -0,0 +1,88 @@
+package io.github.hdfg159.scheduler.benchmark;
+
+import io.github.hdfg159.scheduler.trigger.CronExpression;
+import io.github.hdfg159.scheduler.trigger.impl.CronTrigger;
+import io.github.hdfg159.scheduler.trigger.impl.DayTrigger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 启动时大量日历触发器计算下次执行时间开销,结果为每个触发器的平均耗时
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CronBenchmark {
+	static final int TRIGGERS = 100_000;
+	private static final int[] WORKDAYS = {1, 2, 3, 4, 5};
+
+	private final ZoneId zone = ZoneId.of("America/New_York");
+	private final String[] expressions = new String[TRIGGERS];
+	private final LocalTime[] times = new LocalTime[TRIGGERS];
+	private final CronExpression[] crons = new CronExpression[TRIGGERS];
+	private long now;
+
+	@Setup
+	public void setUp() {
+		for (int i = 0; i < TRIGGERS; i++) {
+			int minute = i % 60;
+			int hour = i / 60 % 24;
+			expressions[i] = "0 " + minute + " " + hour + " * * MON-FRI";
+			times[i] = LocalTime.of(hour, minute);
+			crons[i] = new CronExpression(expressions[i], zone);
+		}
+		now = System.currentTimeMillis();
+	}
+
+	/**
+	 * 解析 cron 表达式并且计算第一次执行时间
+	 */
+	@Benchmark
+	@OperationsPerInvocation(TRIGGERS)
+	public void createCronTriggers(Blackhole blackhole) {
+		for (int i = 0; i < TRIGGERS; i++) {
+			blackhole.consume(new CronTrigger("cron", expressions[i], zone, trigger -> {}));
+		}
+	}
+
+	/**
+	 * 同样执行时间的日调度触发器
+	 */
+	@Benchmark
+	@OperationsPerInvocation(TRIGGERS)
+	public void createDayTriggers(Blackhole blackhole) {
+		for (int i = 0; i < TRIGGERS; i++) {
+			blackhole.consume(new DayTrigger("day", WORKDAYS, times[i], trigger -> {}));
+		}
+	}
+
+	/**
+	 * 已经解析的 cron 表达式计算下次执行时间
+	 */
+	@Benchmark
+	@OperationsPerInvocation(TRIGGERS)
+	public void cronNext(Blackhole blackhole) {
+		long from = now;
+		for (int i = 0; i < TRIGGERS; i++) {
+			blackhole.consume(crons[i].next(from));
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package io.github.hdfg159.scheduler.benchmark;
+
+import io.github.hdfg159.scheduler.SchedulerManager;
+import io.github.hdfg159.scheduler.factory.Triggers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 端到端触发延迟:放入立即到期的触发器,到任务开始执行的时间,队列中预先放入不同数量的未到期触发器
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FireLatencyBenchmark {
+	private final SchedulerManager manager = SchedulerManager.INSTANCE;
+
+	/**
+	 * 队列中未到期触发器数量
+	 */
+	@Param({"1000", "100000", "1000000"})
+	private int pending;
+
+	private long counter;
+
+	@Setup(Level.Trial)
+	public void fill() {
+		LocalDateTime time = LocalDateTime.now().plusDays(1);
+		for (int i = 0; i < pending; i++) {
+			manager.schedule(Triggers.once("pending-" + i, time.plusNanos(i * 1_000_000L), trigger -> {}));
+		}
+	}
+
+	@Benchmark
+	public void fire() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		manager.schedule(Triggers.once("fire-" + counter++, LocalDateTime.now(), trigger -> started.countDown()));
+		started.await();
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdown() {
+		manager.shutdown();
+	}
+}
@@ -0,0 +1,86 @@
+package io.github.hdfg159.scheduler.benchmark;
+
+import io.github.hdfg159.scheduler.SchedulerManager;
+import io.github.hdfg159.scheduler.factory.Triggers;
+import io.github.hdfg159.scheduler.queue.TriggerQueue;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SchedulerManager.schedule 多线程竞争下吞吐量
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ScheduleBenchmark {
+	static final int BATCH = 10_000;
+
+	private final SchedulerManager manager = SchedulerManager.INSTANCE;
+	private final AtomicLong counter = new AtomicLong();
+	private final LocalDateTime farFuture = LocalDateTime.now().plusDays(1);
+
+	@Benchmark
+	@Threads(1)
+	public boolean scheduleSingleThread() {
+		return schedule();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public boolean scheduleContended() {
+		return schedule();
+	}
+
+	/**
+	 * 批量加入调度,结果为每个触发器的吞吐量
+	 */
+	@Benchmark
+	@Threads(1)
+	@OperationsPerInvocation(BATCH)
+	public List<Boolean> scheduleAll() {
+		List<Trigger> triggers = new ArrayList<>(BATCH);
+		for (int i = 0; i < BATCH; i++) {
+			triggers.add(newTrigger());
+		}
+		return manager.scheduleAll(triggers);
+	}
+
+	private boolean schedule() {
+		return manager.schedule(newTrigger());
+	}
+
+	private Trigger newTrigger() {
+		// 每次使用不同执行时间,避免全部比较退化为 id 比较
+		long id = counter.incrementAndGet();
+		return Triggers.once("schedule-" + id, farFuture.plusNanos(id * 1_000_000L), trigger -> {});
+	}
+
+	@TearDown(Level.Iteration)
+	public void clear() {
+		manager.getTaskQueues().forEach(TriggerQueue::clear);
+		manager.getWaitingJob().clear();
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdown() {
+		manager.shutdown();
+	}
+}
@@ -0,0 +1,32 @@
+package io.github.hdfg159.scheduler.benchmark;
+
+import io.github.hdfg159.scheduler.util.Sequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 有序 ID 生成 多线程吞吐量
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SequenceBenchmark {
+	@Benchmark
+	@Threads(1)
+	public long nextIdSingleThread() {
+		return Sequence.SEQUENCE.nextId();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public long nextIdContended() {
+		return Sequence.SEQUENCE.nextId();
+	}
+}
@@ -0,0 +1,77 @@
+package io.github.hdfg159.scheduler.benchmark;
+
+import io.github.hdfg159.scheduler.thread.NormalThreadPoolExecutor;
+import io.github.hdfg159.scheduler.thread.ThreadPool;
+import io.github.hdfg159.scheduler.thread.WorkStealingThreadPoolExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程池执行大量短时间 CPU 任务吞吐量(单线程提交,模拟取任务线程分发),结果为每个任务提交到执行完成的平均耗时
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ThreadPoolBenchmark {
+	static final int TASKS = 10_000;
+
+	@Param({"normal", "workStealing"})
+	private String pool;
+
+	/**
+	 * 每个任务 CPU 消耗(Blackhole token)
+	 */
+	@Param({"100"})
+	private long tokens;
+
+	private ThreadPool threadPool;
+	private ExecutorService executor;
+
+	@Setup
+	public void setUp() {
+		threadPool = "workStealing".equals(pool) ? new WorkStealingThreadPoolExecutor() : new NormalThreadPoolExecutor();
+		threadPool.initialize(new Properties());
+		executor = threadPool.threadPool();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TASKS)
+	public void execute() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(TASKS);
+		long consume = tokens;
+		Runnable task = () -> {
+			Blackhole.consumeCPU(consume);
+			latch.countDown();
+		};
+		for (int i = 0; i < TASKS; i++) {
+			executor.execute(task);
+		}
+		latch.await();
+	}
+
+	@TearDown
+	public void shutdown() {
+		threadPool.shutdown();
+	}
+}
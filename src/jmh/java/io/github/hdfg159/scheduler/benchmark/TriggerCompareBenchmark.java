@@ -0,0 +1,52 @@
+package io.github.hdfg159.scheduler.benchmark;
+
+import io.github.hdfg159.scheduler.factory.Triggers;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 触发器 compareTo/getDelay 开销(延迟队列每次上浮下沉都会调用)
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TriggerCompareBenchmark {
+	private Trigger first;
+	private Trigger second;
+	private Trigger sameTime;
+
+	@Setup
+	public void setUp() {
+		LocalDateTime time = LocalDateTime.now().plusHours(1);
+		first = Triggers.once("first", time, trigger -> {});
+		second = Triggers.once("second", time.plusSeconds(1), trigger -> {});
+		sameTime = Triggers.once("same-time", time, trigger -> {});
+	}
+
+	@Benchmark
+	public int compareToDifferentTime() {
+		return first.compareTo(second);
+	}
+
+	@Benchmark
+	public int compareToSameTime() {
+		return first.compareTo(sameTime);
+	}
+
+	@Benchmark
+	public long getDelay() {
+		return first.getDelay(TimeUnit.MILLISECONDS);
+	}
+}
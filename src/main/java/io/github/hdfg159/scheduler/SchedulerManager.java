@@ -1,56 +1,157 @@
 package io.github.hdfg159.scheduler;
 
+import io.github.hdfg159.scheduler.cluster.ClusterCoordinator;
+import io.github.hdfg159.scheduler.cluster.LeaseStore;
+import io.github.hdfg159.scheduler.cluster.impl.FileLeaseStore;
+import io.github.hdfg159.scheduler.event.ExecutionEventSink;
+import io.github.hdfg159.scheduler.event.ExecutionEventType;
+import io.github.hdfg159.scheduler.event.impl.LoggingExecutionEventSink;
+import io.github.hdfg159.scheduler.metrics.DispatchMetrics;
+import io.github.hdfg159.scheduler.metrics.SchedulerMetrics;
+import io.github.hdfg159.scheduler.queue.TriggerQueue;
+import io.github.hdfg159.scheduler.queue.impl.DelayTriggerQueue;
+import io.github.hdfg159.scheduler.store.TriggerStore;
+import io.github.hdfg159.scheduler.store.impl.NoopTriggerStore;
+import io.github.hdfg159.scheduler.thread.CostTaskRouter;
 import io.github.hdfg159.scheduler.thread.NormalThreadPoolExecutor;
 import io.github.hdfg159.scheduler.thread.SlowThreadPoolExecutor;
+import io.github.hdfg159.scheduler.thread.TaskRouter;
 import io.github.hdfg159.scheduler.thread.ThreadPool;
+import io.github.hdfg159.scheduler.trigger.AbstractTrigger;
 import io.github.hdfg159.scheduler.trigger.Trigger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.ObjectName;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
- * 定时调度 组件
+ * 定时调度 组件<br>
+ * 每个实例有独立的队列、线程池和配置,通过 {@link #builder()} 创建;{@link #INSTANCE} 为默认实例,读取 scheduler.properties<br>
+ * 取任务线程在第一次加入调度时启动
  *
  * @author hdfg159
  * @version 1.0
  */
-public enum SchedulerManager {
+public class SchedulerManager {
+	private static final String SCHEDULER_PROPERTIES = "scheduler.properties";
 	/**
-	 * 实例
+	 * 调度器名称配置,非默认实例线程名称、JMX 名称使用
 	 */
-	INSTANCE;
-
+	private static final String PROPERTIES_NAME = "scheduler.name";
 	/**
-	 * 慢任务执行时间 阈值(毫秒)
+	 * 默认实例名称
 	 */
-	private static final long MAX_LIMIT_TIME = 100L;
-	private static final String SCHEDULER_PROPERTIES = "scheduler.properties";
+	private static final String DEFAULT_NAME = "default";
+	/**
+	 * 调度器名称允许的字符
+	 */
+	private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9._-]+");
+	/**
+	 * 未设置名称的实例序号
+	 */
+	private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
 	private static final String CLASS_NORMAL_THREAD_POOL_EXECUTOR = "scheduler.threadPool.class";
 	private static final String CLASS_SLOW_THREAD_POOL_EXECUTOR = "scheduler.slowThreadPool.class";
-	private static final String PROPERTIES_SLOW_MAX_LIMIT_TIME = "scheduler.maxLimitTime";
+	private static final String CLASS_TASK_ROUTER = "scheduler.router.class";
+	/**
+	 * 命名线程池实现类配置前缀,scheduler.pool.&lt;name&gt;.class
+	 */
+	private static final String CLASS_NAMED_THREAD_POOL_PREFIX = "scheduler.pool.";
+	private static final String CLASS_NAMED_THREAD_POOL_SUFFIX = ".class";
+	private static final String CLASS_TRIGGER_QUEUE = "scheduler.queue.class";
+	private static final String PROPERTIES_DISPATCHER_SHARDS = "scheduler.dispatcher.shards";
+	/**
+	 * 默认取任务分片数量
+	 */
+	private static final int DISPATCHER_SHARDS = 1;
+	private static final String PROPERTIES_DISPATCHER_BATCH_SIZE = "scheduler.dispatcher.batchSize";
+	/**
+	 * 默认每次最多取出到期触发器数量
+	 */
+	private static final int DISPATCHER_BATCH_SIZE = 256;
+	private static final String CLASS_EXECUTION_EVENT_SINK = "scheduler.executionEvent.class";
+	private static final String CLASS_TRIGGER_STORE = "scheduler.store.class";
+	private static final String PROPERTIES_METRICS_JMX = "scheduler.metrics.jmx";
+	private static final String PROPERTIES_METRICS_TRIGGER_COST_TIME = "scheduler.metrics.triggerCostTime";
+	private static final String PROPERTIES_THREAD_POOL_PRESTART = "scheduler.threadPool.prestart";
+	private static final String PROPERTIES_CLUSTER_ENABLED = "scheduler.cluster.enabled";
+	private static final String CLASS_LEASE_STORE = "scheduler.cluster.leaseStore.class";
+	/**
+	 * 统计 JMX 名称
+	 */
+	private static final String METRICS_OBJECT_NAME = "io.github.hdfg159.scheduler:type=SchedulerMetrics";
 
 	/**
 	 * 取队列任务线程名称
 	 */
 	private static final String THREAD_NAME_SCHEDULER_TAKE_TASK = "scheduler-take-task";
 	private static final Logger log = LoggerFactory.getLogger(SchedulerManager.class);
+	/**
+	 * 默认实例
+	 */
+	public static final SchedulerManager INSTANCE = new SchedulerManager(DEFAULT_NAME, new Properties(), true);
+
+	/**
+	 * 调度器名称
+	 */
+	private final String name;
+	/**
+	 * 创建时指定的配置,覆盖配置文件
+	 */
+	private final Properties overrides;
+	/**
+	 * 是否读取 scheduler.properties
+	 */
+	private final boolean loadDefaults;
 	/**
 	 * 是否运行定时任务调度
 	 */
-	private static boolean isWork = true;
+	private volatile boolean isWork = true;
 	/**
-	 * 延迟任务队列
+	 * 取任务线程是否已经启动
 	 */
-	private final DelayQueue<Trigger> taskQueue = new DelayQueue<>();
+	private volatile boolean started = false;
+	/**
+	 * 是否已经关闭
+	 */
+	private volatile boolean closed = false;
+	/**
+	 * 启动和关闭互斥
+	 */
+	private final Object lifecycleLock = new Object();
+	/**
+	 * 延迟任务队列(按触发器名称分片)
+	 */
+	private final TriggerQueue[] taskQueues;
 	/**
 	 * 正在等待运行的任务
 	 */
@@ -64,9 +165,53 @@ public enum SchedulerManager {
 	 */
 	private final ThreadPool slowTaskExecutor;
 	/**
-	 * 取任务线程
+	 * 全部线程池 [名称:线程池]
+	 */
+	private final Map<String, ThreadPool> threadPools = new LinkedHashMap<>();
+	/**
+	 * 线程池路由
 	 */
-	private final Thread takeTaskThread;
+	private final TaskRouter taskRouter;
+	/**
+	 * 任务分发
+	 */
+	private final TaskDispatcher taskDispatcher;
+	/**
+	 * 取任务线程(每个分片一个)
+	 */
+	private final Thread[] takeTaskThreads;
+	/**
+	 * 每次最多取出到期触发器数量
+	 */
+	private final int batchSize;
+	/**
+	 * 调度统计
+	 */
+	private final SchedulerMetrics metrics = new SchedulerMetrics();
+	/**
+	 * 执行事件输出
+	 */
+	private final ExecutionEventSink executionEventSink;
+	/**
+	 * 触发器持久化存储
+	 */
+	private final TriggerStore triggerStore;
+	/**
+	 * 集群协调,未开启集群模式时为 null
+	 */
+	private final ClusterCoordinator clusterCoordinator;
+	/**
+	 * 注册的任务 [任务标识:任务]
+	 */
+	private final Map<String, io.github.hdfg159.scheduler.function.Consumer<Trigger>> jobs = new ConcurrentHashMap<>();
+	/**
+	 * 恢复后等待注册任务的触发器 [任务标识:触发器]
+	 */
+	private final Map<String, List<Trigger>> recoveredTriggers = new ConcurrentHashMap<>();
+	/**
+	 * 停止调度后执行完成或者跳过的触发器重新加入调度被拒绝,关闭时交给关闭结果
+	 */
+	private final Queue<Trigger> stoppedTriggers = new ConcurrentLinkedQueue<>();
 	/**
 	 * 配置文件
 	 */
@@ -74,48 +219,245 @@ public enum SchedulerManager {
 	/**
 	 * 中断取任务线程监听
 	 */
-	private Consumer<DelayQueue<Trigger>> takeQueueInterruptListener;
+	private Consumer<TriggerQueue> takeQueueInterruptListener;
 
 	/**
-	 * 默认构造器
+	 * 创建调度器
+	 *
+	 * @param name
+	 * 		名称
+	 * @param overrides
+	 * 		覆盖配置文件的配置
+	 * @param loadDefaults
+	 * 		是否读取 scheduler.properties
 	 */
-	SchedulerManager() {
+	private SchedulerManager(String name, Properties overrides, boolean loadDefaults) {
+		this.name = name;
+		this.overrides = overrides;
+		this.loadDefaults = loadDefaults;
 		config = initProperties();
+		int shards = Optional.ofNullable(config.getProperty(PROPERTIES_DISPATCHER_SHARDS))
+				.map(Integer::parseInt)
+				.orElse(DISPATCHER_SHARDS);
+		if (shards <= 0) {
+			throw new IllegalArgumentException("dispatcher shards must be > 0");
+		}
+
+		batchSize = Optional.ofNullable(config.getProperty(PROPERTIES_DISPATCHER_BATCH_SIZE))
+				.map(Integer::parseInt)
+				.orElse(DISPATCHER_BATCH_SIZE);
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("dispatcher batch size must be > 0");
+		}
+
+		String executionEventSinkClassName = config.getProperty(CLASS_EXECUTION_EVENT_SINK);
+		executionEventSink = initExecutionEventSink(executionEventSinkClassName, LoggingExecutionEventSink::new);
+
+		String triggerQueueClassName = config.getProperty(CLASS_TRIGGER_QUEUE);
+		taskQueues = new TriggerQueue[shards];
+		for (int i = 0; i < shards; i++) {
+			taskQueues[i] = initTriggerQueue(triggerQueueClassName, () -> {
+				DelayTriggerQueue queue = new DelayTriggerQueue();
+				queue.initialize(config);
+				return queue;
+			});
+		}
+
 		String normalThreadPoolClassName = config.getProperty(CLASS_NORMAL_THREAD_POOL_EXECUTOR);
 		taskExecutor = initTaskExecutor(normalThreadPoolClassName, () -> {
 			NormalThreadPoolExecutor executor = new NormalThreadPoolExecutor();
-			executor.initialize();
+			executor.initialize(config);
 			return executor;
 		});
 
 		String slowThreadPoolClassName = config.getProperty(CLASS_SLOW_THREAD_POOL_EXECUTOR);
 		slowTaskExecutor = initTaskExecutor(slowThreadPoolClassName, () -> {
 			SlowThreadPoolExecutor executor = new SlowThreadPoolExecutor();
-			executor.initialize();
+			executor.initialize(config);
 			return executor;
 		});
 
-		takeTaskThread = new Thread(new TakeQueueTask());
-		takeTaskThread.setName(THREAD_NAME_SCHEDULER_TAKE_TASK);
-		// 设置为非守护进程
-		takeTaskThread.setDaemon(false);
-		takeTaskThread.start();
+		threadPools.put(TaskRouter.POOL_NORMAL, taskExecutor);
+		threadPools.put(TaskRouter.POOL_SLOW, slowTaskExecutor);
+		initNamedTaskExecutors();
+
+		String taskRouterClassName = config.getProperty(CLASS_TASK_ROUTER);
+		taskRouter = initTaskRouter(taskRouterClassName, () -> {
+			CostTaskRouter router = new CostTaskRouter();
+			router.initialize(config, threadPools);
+			return router;
+		});
+
+		if (Boolean.parseBoolean(config.getProperty(PROPERTIES_CLUSTER_ENABLED, "false"))) {
+			String leaseStoreClassName = config.getProperty(CLASS_LEASE_STORE);
+			LeaseStore leaseStore = initLeaseStore(leaseStoreClassName, () -> {
+				FileLeaseStore store = new FileLeaseStore();
+				store.initialize(config);
+				return store;
+			});
+			// 第一次加入调度时加入集群
+			clusterCoordinator = new ClusterCoordinator(leaseStore, config);
+		} else {
+			clusterCoordinator = null;
+		}
+
+		taskDispatcher = new TaskDispatcher(this, taskRouter, config);
+
+		String triggerStoreClassName = config.getProperty(CLASS_TRIGGER_STORE);
+		triggerStore = initTriggerStore(triggerStoreClassName, () -> {
+			NoopTriggerStore store = new NoopTriggerStore();
+			store.initialize(config);
+			return store;
+		});
+		recoveredTriggers.putAll(triggerStore.recover().stream().collect(Collectors.groupingBy(Trigger::getJobKey)));
+
+		takeTaskThreads = new Thread[shards];
+
+		initMetrics();
 	}
 
 	/**
-	 * 初始化读取配置文件
+	 * 创建调度器
+	 *
+	 * @return Builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * 启动取任务线程(第一次加入调度时),注册统计 JMX,集群模式下加入集群;创建调度器只创建线程池等对象并恢复持久化触发器,不启动任何线程,没有触发器时取任务线程无限期等待不唤醒
+	 */
+	private void start() {
+		if (started) {
+			return;
+		}
+		synchronized (lifecycleLock) {
+			if (started || closed) {
+				return;
+			}
+
+			registerMetrics();
+			if (clusterCoordinator != null) {
+				clusterCoordinator.start();
+			}
+			// 默认执行线程在任务执行时才创建
+			if (Boolean.parseBoolean(config.getProperty(PROPERTIES_THREAD_POOL_PRESTART, "false"))) {
+				threadPools.values().forEach(ThreadPool::prestart);
+			}
+			String threadName = DEFAULT_NAME.equals(name) ? THREAD_NAME_SCHEDULER_TAKE_TASK : "scheduler-" + name + "-take-task";
+			for (int i = 0; i < takeTaskThreads.length; i++) {
+				Thread takeTaskThread = new Thread(new TakeQueueTask(taskQueues[i]));
+				// 单分片保持原线程名称
+				takeTaskThread.setName(takeTaskThreads.length == 1 ? threadName : threadName + "-" + i);
+				// 设置为非守护进程
+				takeTaskThread.setDaemon(false);
+				takeTaskThread.start();
+				takeTaskThreads[i] = takeTaskThread;
+			}
+			started = true;
+			log.info("scheduler started:[{}],shards:[{}]", name, takeTaskThreads.length);
+		}
+	}
+
+	/**
+	 * 初始化调度统计
+	 */
+	private void initMetrics() {
+		metrics.triggerCostTimeEnabled(Boolean.parseBoolean(config.getProperty(PROPERTIES_METRICS_TRIGGER_COST_TIME, "false")))
+				.gauge("queue.size", () -> Arrays.stream(taskQueues).mapToLong(TriggerQueue::size).sum())
+				.gauge("waitingJob.size", waitingJob::size);
+		if (clusterCoordinator != null) {
+			metrics.gauge("cluster.nodes", () -> clusterCoordinator.getActiveNodes().size());
+		}
+		threadPools.forEach((name, threadPool) ->
+				metrics.gauge("pool." + name + ".active", () -> activeCount(threadPool.threadPool()))
+						.gauge("pool." + name + ".queue", () -> queueSize(threadPool.threadPool())));
+	}
+
+	/**
+	 * 注册统计 JMX,启动时注册,关闭时注销
+	 */
+	private void registerMetrics() {
+		if (!Boolean.parseBoolean(config.getProperty(PROPERTIES_METRICS_JMX, "true"))) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, metricsObjectName());
+		} catch (Exception e) {
+			log.error("register metrics mbean error", e);
+		}
+	}
+
+	/**
+	 * 统计 JMX 名称,非默认实例加上名称
+	 *
+	 * @return ObjectName
+	 *
+	 * @throws Exception
+	 * 		名称错误
+	 */
+	private ObjectName metricsObjectName() throws Exception {
+		return new ObjectName(DEFAULT_NAME.equals(name) ? METRICS_OBJECT_NAME : METRICS_OBJECT_NAME + ",name=" + name);
+	}
+
+	/**
+	 * 线程池正在执行任务线程数,无法获取时返回 -1
+	 *
+	 * @param executorService
+	 * 		线程池
+	 *
+	 * @return long
+	 */
+	private static long activeCount(ExecutorService executorService) {
+		if (executorService instanceof ThreadPoolExecutor) {
+			return ((ThreadPoolExecutor) executorService).getActiveCount();
+		}
+		if (executorService instanceof ForkJoinPool) {
+			return ((ForkJoinPool) executorService).getActiveThreadCount();
+		}
+		return -1L;
+	}
+
+	/**
+	 * 线程池等待执行任务数量,无法获取时返回 -1
+	 *
+	 * @param executorService
+	 * 		线程池
+	 *
+	 * @return long
+	 */
+	private static long queueSize(ExecutorService executorService) {
+		if (executorService instanceof ThreadPoolExecutor) {
+			return ((ThreadPoolExecutor) executorService).getQueue().size();
+		}
+		if (executorService instanceof ForkJoinPool) {
+			ForkJoinPool pool = (ForkJoinPool) executorService;
+			return pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+		}
+		return -1L;
+	}
+
+	/**
+	 * 初始化读取配置文件,再覆盖创建时指定的配置
 	 *
 	 * @return Properties
 	 */
 	private Properties initProperties() {
 		Properties properties = new Properties();
 
-		try (InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(SCHEDULER_PROPERTIES)) {
-			if (inputStream != null) {
-				properties.load(inputStream);
+		if (loadDefaults) {
+			try (InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(SCHEDULER_PROPERTIES)) {
+				if (inputStream != null) {
+					properties.load(inputStream);
+				}
+			} catch (IOException e) {
+				log.error("load properties error", e);
 			}
-		} catch (IOException e) {
-			log.error("load properties error", e);
+		}
+		properties.putAll(overrides);
+		if (!DEFAULT_NAME.equals(name)) {
+			properties.setProperty(PROPERTIES_NAME, name);
 		}
 		return properties;
 	}
@@ -128,7 +470,7 @@ public enum SchedulerManager {
 						Object instance = clazz.getDeclaredConstructor().newInstance();
 						if (instance instanceof ThreadPool) {
 							ThreadPool threadPool = (ThreadPool) instance;
-							threadPool.initialize();
+							threadPool.initialize(config);
 							return threadPool;
 						}
 					} catch (Exception e) {
@@ -139,7 +481,127 @@ public enum SchedulerManager {
 				.orElseGet(threadPoolSupplier);
 	}
 
-	public Consumer<DelayQueue<Trigger>> getTakeQueueInterruptListener() {
+	/**
+	 * 初始化命名线程池(scheduler.pool.&lt;name&gt;.class),用于触发器分组路由
+	 */
+	private void initNamedTaskExecutors() {
+		config.stringPropertyNames().stream()
+				.filter(key -> key.startsWith(CLASS_NAMED_THREAD_POOL_PREFIX) && key.endsWith(CLASS_NAMED_THREAD_POOL_SUFFIX))
+				.sorted()
+				.forEach(key -> {
+					String name = key.substring(CLASS_NAMED_THREAD_POOL_PREFIX.length(), key.length() - CLASS_NAMED_THREAD_POOL_SUFFIX.length());
+					if (name.isEmpty() || threadPools.containsKey(name)) {
+						log.error("illegal thread pool name:[{}]", name);
+						return;
+					}
+					ThreadPool threadPool = initTaskExecutor(config.getProperty(key), () -> null);
+					if (threadPool != null) {
+						threadPools.put(name, threadPool);
+					}
+				});
+	}
+
+	private TaskRouter initTaskRouter(String clazzName, Supplier<TaskRouter> taskRouterSupplier) {
+		return Optional.ofNullable(clazzName)
+				.map(className -> {
+					try {
+						Class<?> clazz = Class.forName(className);
+						Object instance = clazz.getDeclaredConstructor().newInstance();
+						if (instance instanceof TaskRouter) {
+							TaskRouter router = (TaskRouter) instance;
+							router.initialize(config, threadPools);
+							return router;
+						}
+					} catch (Exception e) {
+						log.error("init task router error,exception:[{}]", e.getClass().getName(), e);
+					}
+					return null;
+				})
+				.orElseGet(taskRouterSupplier);
+	}
+
+	private TriggerStore initTriggerStore(String clazzName, Supplier<TriggerStore> triggerStoreSupplier) {
+		return Optional.ofNullable(clazzName)
+				.map(className -> {
+					try {
+						Class<?> clazz = Class.forName(className);
+						Object instance = clazz.getDeclaredConstructor().newInstance();
+						if (instance instanceof TriggerStore) {
+							TriggerStore store = (TriggerStore) instance;
+							store.initialize(config);
+							return store;
+						}
+					} catch (Exception e) {
+						log.error("init trigger store error,exception:[{}]", e.getClass().getName(), e);
+					}
+					return null;
+				})
+				.orElseGet(triggerStoreSupplier);
+	}
+
+	private TriggerQueue initTriggerQueue(String clazzName, Supplier<TriggerQueue> triggerQueueSupplier) {
+		return Optional.ofNullable(clazzName)
+				.map(className -> {
+					try {
+						Class<?> clazz = Class.forName(className);
+						Object instance = clazz.getDeclaredConstructor().newInstance();
+						if (instance instanceof TriggerQueue) {
+							TriggerQueue triggerQueue = (TriggerQueue) instance;
+							triggerQueue.initialize(config);
+							return triggerQueue;
+						}
+					} catch (Exception e) {
+						log.error("init trigger queue error,exception:[{}]", e.getClass().getName(), e);
+					}
+					return null;
+				})
+				.orElseGet(triggerQueueSupplier);
+	}
+
+	private LeaseStore initLeaseStore(String clazzName, Supplier<LeaseStore> leaseStoreSupplier) {
+		return Optional.ofNullable(clazzName)
+				.map(className -> {
+					try {
+						Class<?> clazz = Class.forName(className);
+						Object instance = clazz.getDeclaredConstructor().newInstance();
+						if (instance instanceof LeaseStore) {
+							LeaseStore leaseStore = (LeaseStore) instance;
+							leaseStore.initialize(config);
+							return leaseStore;
+						}
+					} catch (Exception e) {
+						log.error("init lease store error,exception:[{}]", e.getClass().getName(), e);
+					}
+					return null;
+				})
+				.orElseGet(leaseStoreSupplier);
+	}
+
+	private ExecutionEventSink initExecutionEventSink(String clazzName, Supplier<ExecutionEventSink> executionEventSinkSupplier) {
+		return Optional.ofNullable(clazzName)
+				.map(className -> {
+					try {
+						Class<?> clazz = Class.forName(className);
+						Object instance = clazz.getDeclaredConstructor().newInstance();
+						if (instance instanceof ExecutionEventSink) {
+							ExecutionEventSink executionEventSink = (ExecutionEventSink) instance;
+							executionEventSink.initialize(config);
+							return executionEventSink;
+						}
+					} catch (Exception e) {
+						log.error("init execution event sink error,exception:[{}]", e.getClass().getName(), e);
+					}
+					return null;
+				})
+				.orElseGet(executionEventSinkSupplier);
+	}
+
+	/**
+	 * 获取中断取任务线程监听
+	 *
+	 * @return {@code Consumer<TriggerQueue>} 参数类型由 {@code DelayQueue<Trigger>} 改为 {@link TriggerQueue}
+	 */
+	public Consumer<TriggerQueue> getTakeQueueInterruptListener() {
 		return takeQueueInterruptListener;
 	}
 
@@ -147,15 +609,24 @@ public enum SchedulerManager {
 	 * 设置中断取任务线程监听
 	 *
 	 * @param takeQueueInterruptListener
-	 * 		监听消费
+	 * 		监听消费,参数类型由 {@code DelayQueue<Trigger>} 改为 {@link TriggerQueue}
 	 *
 	 * @return SchedulerManager
 	 */
-	public SchedulerManager setTakeQueueInterruptListener(Consumer<DelayQueue<Trigger>> takeQueueInterruptListener) {
+	public SchedulerManager setTakeQueueInterruptListener(Consumer<TriggerQueue> takeQueueInterruptListener) {
 		this.takeQueueInterruptListener = takeQueueInterruptListener;
 		return this;
 	}
 
+	/**
+	 * 调度器名称
+	 *
+	 * @return String
+	 */
+	public String getName() {
+		return name;
+	}
+
 	/**
 	 * 是否正在运行
 	 *
@@ -176,12 +647,95 @@ public enum SchedulerManager {
 	}
 
 	/**
-	 * 获取延迟任务队列
+	 * 获取延迟任务队列,分片模式下为第一个分片
+	 *
+	 * @return TriggerQueue 返回值类型由 {@code DelayQueue<Trigger>} 改为 {@link TriggerQueue},按照配置可能是时间轮实现
+	 */
+	public TriggerQueue getTaskQueue() {
+		return taskQueues[0];
+	}
+
+	/**
+	 * 获取触发器所在分片的延迟任务队列
+	 *
+	 * @param triggerName
+	 * 		触发器名称
+	 *
+	 * @return TriggerQueue
+	 */
+	public TriggerQueue getTaskQueue(String triggerName) {
+		return taskQueues[shardIndex(triggerName)];
+	}
+
+	/**
+	 * 获取所有分片的延迟任务队列
+	 *
+	 * @return {@code List<TriggerQueue>}
+	 */
+	public List<TriggerQueue> getTaskQueues() {
+		return Collections.unmodifiableList(Arrays.asList(taskQueues));
+	}
+
+	/**
+	 * 按照触发器名称哈希计算分片
+	 *
+	 * @param triggerName
+	 * 		触发器名称
 	 *
-	 * @return {@code DelayQueue<Trigger>}
+	 * @return int 分片下标
 	 */
-	public DelayQueue<Trigger> getTaskQueue() {
-		return taskQueue;
+	private int shardIndex(String triggerName) {
+		if (taskQueues.length == 1) {
+			return 0;
+		}
+		int hash = triggerName.hashCode();
+		return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % taskQueues.length;
+	}
+
+	/**
+	 * 注册任务,设置任务标识的触发器通过标识关联任务;持久化恢复的同一标识的触发器在注册后加入调度
+	 *
+	 * @param jobKey
+	 * 		任务标识
+	 * @param job
+	 * 		任务
+	 */
+	public void registerJob(String jobKey, io.github.hdfg159.scheduler.function.Consumer<Trigger> job) {
+		if (jobKey == null || job == null) {
+			throw new IllegalArgumentException("job key and job not allow null");
+		}
+		jobs.put(jobKey, job);
+
+		List<Trigger> triggers = recoveredTriggers.remove(jobKey);
+		if (triggers != null) {
+			for (Trigger trigger : triggers) {
+				trigger.job(job);
+				boolean schedule = schedule(trigger);
+				log.info("recover trigger:[{}],job key:[{}],result:[{}]", trigger.getName(), jobKey, schedule);
+			}
+		}
+	}
+
+	/**
+	 * 获取恢复后等待注册任务的触发器
+	 *
+	 * @return {@code Map<String, List<Trigger>>} [任务标识:触发器]
+	 */
+	public Map<String, List<Trigger>> getRecoveredTriggers() {
+		return Collections.unmodifiableMap(recoveredTriggers);
+	}
+
+	public TriggerStore getTriggerStore() {
+		return triggerStore;
+	}
+
+	/**
+	 * 获取集群协调
+	 *
+	 * @return {@code Optional<ClusterCoordinator>} 未开启集群模式时为空
+	 */
+	public Optional<ClusterCoordinator> getClusterCoordinator() {
+		return Optional.ofNullable(clusterCoordinator);
 	}
 
 	/**
@@ -194,13 +748,221 @@ public enum SchedulerManager {
 	}
 
 	/**
-	 * 关闭任务调度
+	 * 获取批量分发统计
+	 *
+	 * @return DispatchMetrics
+	 */
+	public DispatchMetrics getDispatchMetrics() {
+		return metrics.getDispatchMetrics();
+	}
+
+	/**
+	 * 获取执行事件输出
+	 *
+	 * @return ExecutionEventSink
+	 */
+	public ExecutionEventSink getExecutionEventSink() {
+		return executionEventSink;
+	}
+
+	/**
+	 * 获取调度统计
+	 *
+	 * @return SchedulerMetrics
+	 */
+	public SchedulerMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * 关闭任务调度,不等待执行中的任务,线程池中已经分发的任务继续执行
 	 */
 	public void shutdown() {
-		takeTaskThread.interrupt();
+		stop(0L, false, false, false);
+	}
+
+	/**
+	 * 关闭任务调度:立即停止加入调度,等待已经分发的任务执行完成,超过等待时间后撤销还未开始执行的任务
+	 *
+	 * @param timeout
+	 * 		最长等待时间
+	 *
+	 * @return ShutdownReport 未执行和仍在执行的触发器,已经关闭时为空结果
+	 */
+	public ShutdownReport shutdown(Duration timeout) {
+		return shutdown(timeout, false);
+	}
+
+	/**
+	 * 关闭任务调度:立即停止加入调度,等待已经分发的任务执行完成,超过等待时间后撤销还未开始执行的任务<br>
+	 * 默认返回的触发器仍然保留在持久化存储中,重启后可以恢复;结果交给其他正在运行的调度器时需要从存储中移除,避免使用同一存储的调度器重复恢复
+	 *
+	 * @param timeout
+	 * 		最长等待时间
+	 * @param removeFromStore
+	 * 		是否从持久化存储中移除返回的触发器
+	 *
+	 * @return ShutdownReport 未执行和仍在执行的触发器,已经关闭时为空结果
+	 */
+	public ShutdownReport shutdown(Duration timeout, boolean removeFromStore) {
+		if (timeout == null || timeout.isNegative()) {
+			throw new IllegalArgumentException("shutdown timeout must >= 0");
+		}
+		return stop(timeout.toNanos(), false, true, removeFromStore);
+	}
+
+	/**
+	 * 立即关闭任务调度:撤销还未开始执行的任务,中断正在执行的任务;已经关闭时只中断仍在执行的任务
+	 *
+	 * @return ShutdownReport 未执行和仍在执行的触发器,已经关闭时为空结果
+	 */
+	public ShutdownReport shutdownNow() {
+		return stop(0L, true, true, false);
+	}
+
+	/**
+	 * 关闭任务调度
+	 *
+	 * @param timeoutNanos
+	 * 		等待执行中的任务时间(纳秒)
+	 * @param interrupt
+	 * 		是否中断正在执行的任务
+	 * @param export
+	 * 		是否撤销未执行的任务并导出
+	 * @param removeFromStore
+	 * 		是否从持久化存储中移除导出的触发器
+	 *
+	 * @return ShutdownReport 不导出时为 null
+	 */
+	private ShutdownReport stop(long timeoutNanos, boolean interrupt, boolean export, boolean removeFromStore) {
+		synchronized (lifecycleLock) {
+			if (closed) {
+				if (interrupt) {
+					// 等待超时后中断仍在执行的任务
+					threadPools.values().forEach(threadPool -> threadPool.threadPool().shutdownNow());
+				}
+				return export ? ShutdownReport.EMPTY : null;
+			}
+			closed = true;
+			// 先停止加入调度,之后的重新加入调度交给关闭结果
+			isWork = false;
+		}
+		long deadline = System.nanoTime() + timeoutNanos;
+		for (Thread takeTaskThread : takeTaskThreads) {
+			if (takeTaskThread != null) {
+				takeTaskThread.interrupt();
+			}
+		}
+
+		List<Trigger> pending = new ArrayList<>(taskDispatcher.shutdown());
+		threadPools.values().forEach(ThreadPool::shutdown);
+		ShutdownReport report = null;
+		if (export) {
+			if (interrupt) {
+				pending.addAll(taskDispatcher.revoke());
+				threadPools.values().forEach(threadPool -> threadPool.threadPool().shutdownNow());
+			}
+			boolean terminated = awaitTermination(deadline);
+			// 等待超时后仍在线程池中等待的任务
+			pending.addAll(taskDispatcher.revoke());
+			pending.addAll(drainTaskQueues());
+			Trigger stopped;
+			while ((stopped = stoppedTriggers.poll()) != null) {
+				pending.add(stopped);
+			}
+			// 暂存一次执行的触发器同时在调度队列中
+			report = new ShutdownReport(new ArrayList<>(new LinkedHashSet<>(pending)), taskDispatcher.running(), terminated);
+			log.info("scheduler shutdown:[{}],{}", name, report);
+			if (removeFromStore) {
+				// 交给其他调度器的触发器从存储中移除,使用同一存储的调度器不会再恢复一次
+				report.getPendingTriggers().forEach(trigger -> triggerStore.cancel(trigger.getName()));
+				report.getRunningTriggers().forEach(trigger -> triggerStore.cancel(trigger.getName()));
+			}
+		}
+
+		triggerStore.close();
+		if (clusterCoordinator != null) {
+			clusterCoordinator.shutdown();
+		}
+		try {
+			ObjectName objectName = metricsObjectName();
+			if (ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			}
+		} catch (Exception e) {
+			log.error("unregister metrics mbean error", e);
+		}
+		return report;
+	}
+
+	/**
+	 * 等待取任务线程退出和线程池中的任务执行完成
+	 *
+	 * @param deadline
+	 * 		截止时间(System.nanoTime)
+	 *
+	 * @return boolean true:全部执行完成,false:超过截止时间
+	 */
+	private boolean awaitTermination(long deadline) {
+		try {
+			for (Thread takeTaskThread : takeTaskThreads) {
+				long remaining = deadline - System.nanoTime();
+				if (takeTaskThread != null && remaining > 0) {
+					TimeUnit.NANOSECONDS.timedJoin(takeTaskThread, remaining);
+				}
+			}
+			boolean terminated = true;
+			for (ThreadPool threadPool : threadPools.values()) {
+				terminated &= threadPool.threadPool().awaitTermination(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+			}
+			return terminated;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * 取出调度队列中全部触发器,与加入调度后的检查配合,停止调度后加入的触发器只会在这里取出或者加入调度失败
+	 *
+	 * @return {@code List<Trigger>}
+	 */
+	private List<Trigger> drainTaskQueues() {
+		List<Trigger> triggers = new ArrayList<>();
+		for (TriggerQueue taskQueue : taskQueues) {
+			for (Trigger trigger : taskQueue) {
+				if (taskQueue.remove(trigger)) {
+					waitingJob.remove(trigger.getName(), trigger);
+					triggers.add(trigger);
+				}
+			}
+		}
+		return triggers;
+	}
+
+	/**
+	 * 重新读取配置文件,更新可以运行时修改的配置(慢任务执行时间阈值等)
+	 */
+	public void reload() {
+		Properties properties = initProperties();
+		taskRouter.reload(properties);
+		config = properties;
+	}
 
-		taskExecutor.shutdown();
-		slowTaskExecutor.shutdown();
+	public TaskRouter getTaskRouter() {
+		return taskRouter;
+	}
+
+	/**
+	 * 获取线程池
+	 *
+	 * @param name
+	 * 		名称
+	 *
+	 * @return {@code Optional<ThreadPool>}
+	 */
+	public Optional<ThreadPool> getThreadPool(String name) {
+		return Optional.ofNullable(threadPools.get(name));
 	}
 
 	/**
@@ -216,6 +978,103 @@ public enum SchedulerManager {
 			return false;
 		}
 
+		checkSchedule(trigger);
+		String triggerName = trigger.getName();
+		Trigger putVal = waitingJob.putIfAbsent(triggerName, trigger);
+		if (putVal != null) {
+			if (executionEventSink.isEnabled(ExecutionEventType.EXIST)) {
+				executionEventSink.onEvent(ExecutionEventType.EXIST, trigger, 0L);
+			}
+			return false;
+		}
+
+		start();
+		TriggerQueue taskQueue = getTaskQueue(triggerName);
+		boolean isAddSuccess = taskQueue.add(trigger);
+		if (!isAddSuccess) {
+			waitingJob.remove(triggerName);
+			return false;
+		}
+		if (!isWork && taskQueue.remove(trigger)) {
+			// 加入时刚好停止调度并且关闭时没有取出
+			waitingJob.remove(triggerName, trigger);
+			return false;
+		}
+		bind(trigger);
+		triggerStore.schedule(trigger);
+
+		if (executionEventSink.isEnabled(ExecutionEventType.SCHEDULE)) {
+			executionEventSink.onEvent(ExecutionEventType.SCHEDULE, trigger, trigger.getDeadline());
+		}
+		return true;
+	}
+
+	/**
+	 * 批量加入调度任务,每个分片队列只加锁一次;不输出每个触发器的加入调度事件,只输出一条汇总日志
+	 *
+	 * @param triggers
+	 * 		触发器
+	 *
+	 * @return {@code List<Boolean>} 与参数顺序对应的加入结果,同名触发器已经在等待执行时为 false
+	 */
+	public List<Boolean> scheduleAll(Collection<? extends Trigger> triggers) {
+		if (triggers == null) {
+			throw new IllegalArgumentException("triggers not allow null");
+		}
+		List<Boolean> results = new ArrayList<>(triggers.size());
+		if (!isWork) {
+			triggers.forEach(trigger -> results.add(false));
+			return results;
+		}
+		// 先全部检查,避免部分加入后抛出异常
+		triggers.forEach(this::checkSchedule);
+
+		List<List<Trigger>> shardTriggers = new ArrayList<>(taskQueues.length);
+		List<List<Integer>> shardIndexes = new ArrayList<>(taskQueues.length);
+		for (int i = 0; i < taskQueues.length; i++) {
+			shardTriggers.add(new ArrayList<>());
+			shardIndexes.add(new ArrayList<>());
+		}
+		for (Trigger trigger : triggers) {
+			Trigger putVal = waitingJob.putIfAbsent(trigger.getName(), trigger);
+			if (putVal == null) {
+				int shard = shardIndex(trigger.getName());
+				shardIndexes.get(shard).add(results.size());
+				shardTriggers.get(shard).add(trigger);
+			}
+			results.add(putVal == null);
+		}
+
+		start();
+		List<Trigger> scheduled = new ArrayList<>(triggers.size());
+		for (int i = 0; i < taskQueues.length; i++) {
+			List<Trigger> shard = shardTriggers.get(i);
+			int added = shard.isEmpty() ? 0 : taskQueues[i].addAll(shard);
+			for (int j = 0; j < shard.size(); j++) {
+				Trigger trigger = shard.get(j);
+				// 加入时刚好停止调度并且关闭时没有取出的同样失败
+				if (j < added && (isWork || !taskQueues[i].remove(trigger))) {
+					scheduled.add(trigger);
+					continue;
+				}
+				waitingJob.remove(trigger.getName(), trigger);
+				results.set(shardIndexes.get(i).get(j), false);
+			}
+		}
+		scheduled.forEach(this::bind);
+		triggerStore.scheduleAll(scheduled);
+
+		log.info("schedule all triggers:[{}/{}]", scheduled.size(), results.size());
+		return results;
+	}
+
+	/**
+	 * 加入调度前检查,通过任务标识关联任务
+	 *
+	 * @param trigger
+	 * 		触发器
+	 */
+	private void checkSchedule(Trigger trigger) {
 		if (trigger == null) {
 			throw new IllegalArgumentException("trigger not allow null");
 		}
@@ -225,22 +1084,94 @@ public enum SchedulerManager {
 			throw new IllegalArgumentException("trigger must have a name");
 		}
 
-		Trigger putVal = waitingJob.putIfAbsent(triggerName, trigger);
-		if (putVal != null) {
-			log.info("exist trigger name:[{}]", triggerName);
-			return false;
+		String jobKey = trigger.getJobKey();
+		if (trigger.getJob() == null && jobKey != null) {
+			io.github.hdfg159.scheduler.function.Consumer<Trigger> job = jobs.get(jobKey);
+			if (job == null) {
+				throw new IllegalArgumentException("job not registered:" + jobKey);
+			}
+			trigger.job(job);
 		}
+	}
 
-		boolean isAddSuccess = taskQueue.add(trigger);
-		if (!isAddSuccess) {
-			waitingJob.remove(triggerName);
+	/**
+	 * 修改等待执行的触发器的执行时间,在队列中调整位置,不重新创建触发器
+	 *
+	 * @param triggerName
+	 * 		名称
+	 * @param deadline
+	 * 		新的执行时间毫秒时间戳
+	 *
+	 * @return boolean true:修改成功,false:触发器不在等待执行(不存在、已经取消或者已经取出执行)
+	 */
+	public boolean reschedule(String triggerName, long deadline) {
+		Trigger trigger = waitingJob.get(triggerName);
+		if (trigger == null || trigger.isCancel()) {
 			return false;
 		}
+		if (!getTaskQueue(triggerName).reschedule(trigger, deadline)) {
+			return false;
+		}
+		afterUpdate(trigger);
+		return true;
+	}
+
+	/**
+	 * 修改等待执行的触发器的执行时间,在队列中调整位置,不重新创建触发器
+	 *
+	 * @param triggerName
+	 * 		名称
+	 * @param executeTime
+	 * 		新的执行时间
+	 *
+	 * @return boolean true:修改成功,false:触发器不在等待执行(不存在、已经取消或者已经取出执行)
+	 */
+	public boolean reschedule(String triggerName, LocalDateTime executeTime) {
+		if (executeTime == null) {
+			throw new IllegalArgumentException("execute time not allow null");
+		}
+		return reschedule(triggerName, executeTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+	}
 
-		log.info("schedule trigger:[{}][{}],execute time:[{}]", triggerName, trigger.getId(), trigger.getExecuteTime());
+	/**
+	 * 修改等待执行的触发器(执行间隔、执行时间等),修改期间触发器不会被取出执行,修改后按照新的执行时间在队列中调整位置<br>
+	 * 触发器 ID 和错误重试次数保持不变;正在执行的触发器不在等待执行,需要等待再次加入调度后修改
+	 *
+	 * @param triggerName
+	 * 		名称
+	 * @param mutator
+	 * 		修改操作(不能修改名称)
+	 *
+	 * @return boolean true:修改成功,false:触发器不在等待执行(不存在、已经取消或者已经取出执行)
+	 */
+	public boolean update(String triggerName, Consumer<Trigger> mutator) {
+		if (mutator == null) {
+			throw new IllegalArgumentException("mutator not allow null");
+		}
+		Trigger trigger = waitingJob.get(triggerName);
+		if (trigger == null || trigger.isCancel()) {
+			return false;
+		}
+		if (!getTaskQueue(triggerName).update(trigger, mutator)) {
+			return false;
+		}
+		afterUpdate(trigger);
 		return true;
 	}
 
+	/**
+	 * 修改触发器后保存
+	 *
+	 * @param trigger
+	 * 		触发器
+	 */
+	private void afterUpdate(Trigger trigger) {
+		triggerStore.schedule(trigger);
+		if (executionEventSink.isEnabled(ExecutionEventType.SCHEDULE)) {
+			executionEventSink.onEvent(ExecutionEventType.SCHEDULE, trigger, trigger.getDeadline());
+		}
+	}
+
 	/**
 	 * 取消等待执行的任务调度
 	 *
@@ -258,10 +1189,80 @@ public enum SchedulerManager {
 		Trigger trigger = triggerOptional.get();
 		trigger.cancel(true);
 
-		waitingJob.remove(triggerName);
+		// 只移除当前实例,并且立即从队列中移除,不再等到执行时间
+		waitingJob.remove(triggerName, trigger);
+		getTaskQueue(triggerName).remove(trigger);
+		metrics.removeTriggerCostTime(triggerName);
+		if (trigger.getJobKey() != null) {
+			triggerStore.cancel(triggerName);
+		}
 		return true;
 	}
 
+	/**
+	 * 批量取消等待执行的任务调度
+	 *
+	 * @param triggerNames
+	 * 		名称
+	 *
+	 * @return {@code List<Boolean>} 与参数顺序对应的取消结果
+	 */
+	public List<Boolean> cancelAll(Collection<String> triggerNames) {
+		if (triggerNames == null) {
+			throw new IllegalArgumentException("trigger names not allow null");
+		}
+		List<Boolean> results = new ArrayList<>(triggerNames.size());
+		for (String triggerName : triggerNames) {
+			results.add(cancel(triggerName));
+		}
+		return results;
+	}
+
+	/**
+	 * 取消名称以指定前缀开头的等待执行的任务调度
+	 *
+	 * @param prefix
+	 * 		名称前缀
+	 *
+	 * @return int 取消数量
+	 */
+	public int cancelByPrefix(String prefix) {
+		if (prefix == null) {
+			throw new IllegalArgumentException("trigger name prefix not allow null");
+		}
+		return cancelAll(trigger -> trigger.getName().startsWith(prefix));
+	}
+
+	/**
+	 * 取消指定分组的等待执行的任务调度
+	 *
+	 * @param group
+	 * 		分组
+	 *
+	 * @return int 取消数量
+	 */
+	public int cancelGroup(String group) {
+		if (group == null) {
+			throw new IllegalArgumentException("trigger group not allow null");
+		}
+		return cancelAll(trigger -> group.equals(trigger.getGroup()));
+	}
+
+	private int cancelAll(Predicate<Trigger> predicate) {
+		List<String> triggerNames = waitingJob.values().stream()
+				.filter(predicate)
+				.map(Trigger::getName)
+				.collect(Collectors.toList());
+		int count = 0;
+		for (String triggerName : triggerNames) {
+			if (cancel(triggerName)) {
+				count++;
+			}
+		}
+		log.info("cancel triggers:[{}]", count);
+		return count;
+	}
+
 	/**
 	 * 获取等待调度运行的触发器
 	 *
@@ -275,35 +1276,187 @@ public enum SchedulerManager {
 	}
 
 	/**
-	 * 获取慢任务执行时间阈值
+	 * 执行完成或者跳过后加入下一次执行,停止调度后被拒绝的交给关闭结果
+	 *
+	 * @param trigger
+	 * 		触发器
+	 *
+	 * @return boolean
+	 */
+	boolean scheduleNext(Trigger trigger) {
+		if (schedule(trigger)) {
+			return true;
+		}
+		if (!isWork) {
+			handOff(trigger);
+		}
+		return false;
+	}
+
+	/**
+	 * 停止调度后无法继续执行的触发器交给关闭结果
+	 *
+	 * @param trigger
+	 * 		触发器
+	 */
+	void handOff(Trigger trigger) {
+		stoppedTriggers.offer(trigger);
+	}
+
+	/**
+	 * 加入调度成功后绑定调度器,{@link Trigger#schedule()} 和 {@link Trigger#scheduleCancel()} 使用
 	 *
-	 * @return long 毫秒
+	 * @param trigger
+	 * 		触发器
+	 */
+	private void bind(Trigger trigger) {
+		if (trigger instanceof AbstractTrigger) {
+			((AbstractTrigger<?>) trigger).scheduler(this);
+		}
+	}
+
+	/**
+	 * 按照退避策略延迟后重试
+	 *
+	 * @param failed
+	 * 		出错的执行
+	 * @param firstFailureTime
+	 * 		第一次出错时间(毫秒时间戳)
+	 *
+	 * @return boolean true:已经放入重试,false:超过最长重试时间或者已经关闭
+	 */
+	boolean scheduleRetry(TaskRunner failed, long firstFailureTime) {
+		return taskDispatcher.retry(failed, firstFailureTime);
+	}
+
+	/**
+	 * 任务执行完成,线程池有空闲时放入过载时暂存的任务
+	 *
+	 * @param taskRunner
+	 * 		执行完成的任务
+	 * @param retrying
+	 * 		是否已经放入重试
 	 */
-	private long getLimitTime() {
-		return Optional.ofNullable(config.getProperty(PROPERTIES_SLOW_MAX_LIMIT_TIME))
-				.map(Long::parseLong)
-				.orElse(MAX_LIMIT_TIME);
+	void afterTaskRun(TaskRunner taskRunner, boolean retrying) {
+		taskDispatcher.afterRun(taskRunner, retrying);
+	}
+
+	/**
+	 * 调度器创建,未指定的配置读取 scheduler.properties
+	 */
+	public static final class Builder {
+		private final Properties properties = new Properties();
+		private String name;
+		private boolean loadDefaults = true;
+
+		private Builder() {
+		}
+
+		/**
+		 * 名称,用于线程名称和 JMX 名称
+		 *
+		 * @param name
+		 * 		名称(字母、数字、.、_、-)
+		 *
+		 * @return Builder
+		 */
+		public Builder name(String name) {
+			if (name == null || !NAME_PATTERN.matcher(name).matches() || DEFAULT_NAME.equals(name)) {
+				throw new IllegalArgumentException("illegal scheduler name:" + name);
+			}
+			this.name = name;
+			return this;
+		}
+
+		/**
+		 * 设置配置,覆盖 scheduler.properties 中的同名配置
+		 *
+		 * @param properties
+		 * 		配置
+		 *
+		 * @return Builder
+		 */
+		public Builder properties(Properties properties) {
+			if (properties == null) {
+				throw new IllegalArgumentException("properties not allow null");
+			}
+			this.properties.putAll(properties);
+			return this;
+		}
+
+		/**
+		 * 设置配置,覆盖 scheduler.properties 中的同名配置
+		 *
+		 * @param key
+		 * 		配置名
+		 * @param value
+		 * 		配置值
+		 *
+		 * @return Builder
+		 */
+		public Builder property(String key, String value) {
+			if (key == null || value == null) {
+				throw new IllegalArgumentException("property key and value not allow null");
+			}
+			properties.setProperty(key, value);
+			return this;
+		}
+
+		/**
+		 * 是否读取 scheduler.properties 作为默认配置
+		 *
+		 * @param loadDefaults
+		 * 		true:读取(默认),false:只使用设置的配置
+		 *
+		 * @return Builder
+		 */
+		public Builder loadDefaults(boolean loadDefaults) {
+			this.loadDefaults = loadDefaults;
+			return this;
+		}
+
+		/**
+		 * 创建调度器,取任务线程在第一次加入调度时启动
+		 *
+		 * @return SchedulerManager
+		 */
+		public SchedulerManager build() {
+			String schedulerName = name != null ? name : "scheduler-" + INSTANCE_COUNTER.incrementAndGet();
+			Properties copy = new Properties();
+			copy.putAll(properties);
+			return new SchedulerManager(schedulerName, copy, loadDefaults);
+		}
 	}
 
 	/**
 	 * 取延迟队列任务
 	 */
 	private class TakeQueueTask implements Runnable {
+		/**
+		 * 当前分片队列
+		 */
+		private final TriggerQueue taskQueue;
+
+		TakeQueueTask(TriggerQueue taskQueue) {
+			this.taskQueue = taskQueue;
+		}
+
 		@Override
 		public void run() {
-			while (SchedulerManager.INSTANCE.isWork()) {
+			List<Trigger> batch = new ArrayList<>(batchSize);
+			while (isWork()) {
 				try {
-					Trigger trigger = taskQueue.take();
-
-					String triggerName = trigger.getName();
-					waitingJob.remove(triggerName);
+					batch.add(taskQueue.take());
+					// 同一时间到期的触发器一次取出
+					if (batchSize > 1) {
+						taskQueue.drainTo(batch, batchSize - 1);
+					}
+					metrics.getDispatchMetrics().recordBurst(batch.size());
 
-					TaskRunner taskRunner = new TaskRunner(trigger);
-					long limitTime = getLimitTime();
-					if (trigger.getCostTime() > limitTime) {
-						slowTaskExecutor.threadPool().execute(taskRunner);
-					} else {
-						taskExecutor.threadPool().execute(taskRunner);
+					// 先放入过载时暂存的任务
+					taskDispatcher.drainCoalesced();
+					for (Trigger trigger : batch) {
+						dispatch(trigger);
 					}
 				} catch (InterruptedException e) {
 					log.error("take queue task thread interrupted,task termination,queue size:[{}]", taskQueue.size());
@@ -313,10 +1466,43 @@ public enum SchedulerManager {
 					break;
 				} catch (Exception e) {
 					log.error("take queue error", e);
+				} finally {
+					batch.clear();
 				}
 			}
 		}
 
+		/**
+		 * 分发触发器到线程池
+		 *
+		 * @param trigger
+		 * 		触发器
+		 */
+		private void dispatch(Trigger trigger) {
+			try {
+				String triggerName = trigger.getName();
+				// 只移除当前实例,避免取消后同名新触发器被误移除
+				waitingJob.remove(triggerName, trigger);
+
+				if (!isWork) {
+					// 取出后刚好停止调度,交给关闭结果
+					stoppedTriggers.offer(trigger);
+					return;
+				}
+				if (trigger.isCancel()) {
+					// 取出时刚好被取消,不再分发
+					metrics.increment(SchedulerMetrics.COUNTER_CANCELLED);
+					if (executionEventSink.isEnabled(ExecutionEventType.CANCEL)) {
+						executionEventSink.onEvent(ExecutionEventType.CANCEL, trigger, 0L);
+					}
+					return;
+				}
+				taskDispatcher.dispatch(trigger);
+			} catch (Exception e) {
+				log.error("dispatch trigger error:[{}]", trigger.getName(), e);
+			}
+		}
+
 		private void interruptListener() {
 			log.info("execute take queue interrupt listener");
 			try {
@@ -0,0 +1,76 @@
+package io.github.hdfg159.scheduler;
+
+import io.github.hdfg159.scheduler.trigger.Trigger;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 关闭调度器结果<br>
+ * 未执行的触发器可以通过 {@link SchedulerManager#scheduleAll(java.util.Collection)} 加入其他调度器继续执行,不会遗漏也不会重复执行
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public final class ShutdownReport {
+	/**
+	 * 已经关闭的调度器再次关闭时的结果
+	 */
+	static final ShutdownReport EMPTY = new ShutdownReport(Collections.emptyList(), Collections.emptyList(), true);
+
+	/**
+	 * 未执行的触发器(调度队列中、线程池中还未开始执行、执行完成后重新加入调度被拒绝的)
+	 */
+	private final List<Trigger> pendingTriggers;
+	/**
+	 * 超过等待时间仍在执行的触发器
+	 */
+	private final List<Trigger> runningTriggers;
+	/**
+	 * 执行中的任务是否全部完成
+	 */
+	private final boolean terminated;
+
+	ShutdownReport(List<Trigger> pendingTriggers, List<Trigger> runningTriggers, boolean terminated) {
+		this.pendingTriggers = Collections.unmodifiableList(pendingTriggers);
+		this.runningTriggers = Collections.unmodifiableList(runningTriggers);
+		this.terminated = terminated;
+	}
+
+	/**
+	 * 未执行的触发器,重新加入调度后按照原执行时间执行
+	 *
+	 * @return {@code List<Trigger>}
+	 */
+	public List<Trigger> getPendingTriggers() {
+		return pendingTriggers;
+	}
+
+	/**
+	 * 超过等待时间仍在执行的触发器:非顺序执行的触发器下一次执行已经在未执行的触发器中;
+	 * 顺序执行的触发器执行完成后才计算下一次执行,需要调用方决定是否重新加入调度
+	 *
+	 * @return {@code List<Trigger>}
+	 */
+	public List<Trigger> getRunningTriggers() {
+		return runningTriggers;
+	}
+
+	/**
+	 * 执行中的任务是否在等待时间内全部完成
+	 *
+	 * @return boolean
+	 */
+	public boolean isTerminated() {
+		return terminated;
+	}
+
+	@Override
+	public String toString() {
+		return "ShutdownReport{" +
+				"pendingTriggers=" + pendingTriggers.size() +
+				", runningTriggers=" + runningTriggers.size() +
+				", terminated=" + terminated +
+				'}';
+	}
+}
@@ -0,0 +1,706 @@
+package io.github.hdfg159.scheduler;
+
+import io.github.hdfg159.scheduler.cluster.ClusterCoordinator;
+import io.github.hdfg159.scheduler.metrics.SchedulerMetrics;
+import io.github.hdfg159.scheduler.thread.OverloadPolicy;
+import io.github.hdfg159.scheduler.thread.TaskRouter;
+import io.github.hdfg159.scheduler.thread.ThreadPool;
+import io.github.hdfg159.scheduler.trigger.ConcurrencyPolicy;
+import io.github.hdfg159.scheduler.trigger.MisfirePolicy;
+import io.github.hdfg159.scheduler.trigger.RetryPolicy;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+import io.github.hdfg159.scheduler.util.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 任务分发:集群模式下跳过其他节点负责的触发器,错过执行的触发器按照错过执行处理策略处理,按照线程池路由选择线程池,线程池队列已满时按照过载策略处理
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+class TaskDispatcher {
+	private static final Logger log = LoggerFactory.getLogger(TaskDispatcher.class);
+	private static final String PROPERTIES_OVERLOAD_POLICY = "scheduler.overloadPolicy";
+	private static final String PROPERTIES_OVERLOAD_REQUEUE_DELAY = "scheduler.overload.requeueDelay";
+	/**
+	 * 默认重新放入调度队列延迟(毫秒)
+	 */
+	private static final long REQUEUE_DELAY = 100L;
+	private static final String PROPERTIES_MISFIRE_THRESHOLD = "scheduler.misfireThreshold";
+	private static final String PROPERTIES_MISFIRE_RATE_LIMIT = "scheduler.misfire.rateLimit";
+	/**
+	 * 默认错过执行阈值(毫秒)
+	 */
+	private static final long MISFIRE_THRESHOLD = 5000L;
+
+	private final SchedulerManager manager;
+	private final SchedulerMetrics metrics;
+	private final TaskRouter taskRouter;
+	/**
+	 * 过载策略
+	 */
+	private final OverloadPolicy overloadPolicy;
+	/**
+	 * 重新放入调度队列延迟(毫秒)
+	 */
+	private final long requeueDelay;
+	/**
+	 * 过载时暂存的任务,同一个触发器只保留最新一次
+	 */
+	private final Map<String, TaskRunner> coalescedRunners = new ConcurrentHashMap<>();
+	/**
+	 * 已经分发还未执行完成的任务(包括线程池中等待的和过载时暂存的)
+	 */
+	private final Set<TaskRunner> dispatchedRunners = ConcurrentHashMap.newKeySet();
+	/**
+	 * 等待限速执行的错过执行触发器
+	 */
+	private final Set<Trigger> pacedTriggers = Collections.newSetFromMap(new ConcurrentHashMap<>());
+	/**
+	 * 达到最大并发执行数时暂存的执行,每个触发器最多一个
+	 */
+	private final Map<Trigger, TaskRunner> parkedRunners = new ConcurrentHashMap<>();
+	/**
+	 * 已经分发还未执行完成的次数,没有执行中的触发器不保留
+	 */
+	private final Map<Trigger, Integer> inFlight = new ConcurrentHashMap<>();
+	/**
+	 * 错过执行阈值(毫秒)
+	 */
+	private final long misfireThreshold;
+	/**
+	 * 错过执行的触发器每次执行间隔(纳秒),0 为不限速
+	 */
+	private final long misfireIntervalNanos;
+	/**
+	 * 下一个可以执行错过执行触发器的时间(纳秒)
+	 */
+	private final AtomicLong nextMisfireSlot = new AtomicLong(System.nanoTime());
+	/**
+	 * 错过执行触发器限速执行
+	 */
+	private final ScheduledThreadPoolExecutor misfirePacer;
+	/**
+	 * 集群协调,未开启集群模式时为 null
+	 */
+	private final ClusterCoordinator clusterCoordinator;
+	/**
+	 * 默认重试退避策略
+	 */
+	private final RetryPolicy retryPolicy;
+	/**
+	 * 重试延迟,线程在第一次重试时创建
+	 */
+	private final ScheduledThreadPoolExecutor retryTimer;
+	/**
+	 * 等待重试的任务
+	 */
+	private final Set<TaskRunner> pendingRetries = ConcurrentHashMap.newKeySet();
+
+	TaskDispatcher(SchedulerManager manager, TaskRouter taskRouter, Properties config) {
+		this.manager = manager;
+		this.metrics = manager.getMetrics();
+		this.taskRouter = taskRouter;
+		this.clusterCoordinator = manager.getClusterCoordinator().orElse(null);
+		this.overloadPolicy = Optional.ofNullable(config.getProperty(PROPERTIES_OVERLOAD_POLICY))
+				.map(policy -> OverloadPolicy.valueOf(policy.trim().toUpperCase()))
+				.orElse(OverloadPolicy.REQUEUE);
+		this.requeueDelay = Optional.ofNullable(config.getProperty(PROPERTIES_OVERLOAD_REQUEUE_DELAY))
+				.map(Long::parseLong)
+				.orElse(REQUEUE_DELAY);
+		this.misfireThreshold = Optional.ofNullable(config.getProperty(PROPERTIES_MISFIRE_THRESHOLD))
+				.map(Long::parseLong)
+				.orElse(MISFIRE_THRESHOLD);
+		if (misfireThreshold < 0) {
+			throw new IllegalArgumentException("misfire threshold must >= 0");
+		}
+		long misfireRateLimit = Optional.ofNullable(config.getProperty(PROPERTIES_MISFIRE_RATE_LIMIT))
+				.map(Long::parseLong)
+				.orElse(0L);
+		if (misfireRateLimit < 0) {
+			throw new IllegalArgumentException("misfire rate limit must >= 0");
+		}
+		this.misfireIntervalNanos = misfireRateLimit == 0 ? 0L : TimeUnit.SECONDS.toNanos(1) / misfireRateLimit;
+
+		if (misfireIntervalNanos > 0) {
+			misfirePacer = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+					.setNameFormat(ThreadPool.threadName(config, "scheduler-misfire-%d"))
+					.setDaemon(true)
+					.setUncaughtExceptionHandler((t, e) -> log.error("thread run error:[{}]", t.getName(), e))
+					.build());
+			metrics.gauge("misfire.pending", () -> misfirePacer.getQueue().size());
+		} else {
+			misfirePacer = null;
+		}
+
+		this.retryPolicy = RetryPolicy.of(config);
+		this.retryTimer = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+				.setNameFormat(ThreadPool.threadName(config, "scheduler-retry-%d"))
+				.setDaemon(true)
+				.setUncaughtExceptionHandler((t, e) -> log.error("thread run error:[{}]", t.getName(), e))
+				.build());
+		metrics.gauge("retry.pending", pendingRetries::size);
+	}
+
+	/**
+	 * 分发触发器到线程池
+	 *
+	 * @param trigger
+	 * 		触发器
+	 */
+	void dispatch(Trigger trigger) {
+		if (clusterCoordinator != null && !clusterCoordinator.isOwner(trigger.getName())) {
+			// 集群中由其他节点执行
+			metrics.increment(SchedulerMetrics.COUNTER_CLUSTER_SKIPPED);
+			skip(trigger);
+			return;
+		}
+
+		long lag = System.currentTimeMillis() - trigger.getDeadline();
+		if (lag > misfireThreshold && !misfire(trigger, lag)) {
+			return;
+		}
+		execute(trigger, true);
+	}
+
+	/**
+	 * 错过执行处理
+	 *
+	 * @param trigger
+	 * 		触发器
+	 * @param lag
+	 * 		距离计划执行时间(毫秒)
+	 *
+	 * @return boolean true:立即执行,false:已经跳过或者延迟执行
+	 */
+	private boolean misfire(Trigger trigger, long lag) {
+		metrics.increment(SchedulerMetrics.COUNTER_MISFIRE);
+		try {
+			trigger.misfire(lag);
+		} catch (Exception e) {
+			log.error("trigger misfire handle error:[{}]", trigger.getName(), e);
+		}
+
+		if (trigger.getMisfirePolicy() == MisfirePolicy.SKIP_TO_NEXT) {
+			skip(trigger);
+			return false;
+		}
+		if (misfirePacer == null) {
+			return true;
+		}
+
+		// 预约执行时间,错过执行的触发器按照限速依次执行,避免同时执行占满线程池
+		long now = System.nanoTime();
+		long slot;
+		long current;
+		do {
+			current = nextMisfireSlot.get();
+			slot = Math.max(now, current);
+		} while (!nextMisfireSlot.compareAndSet(current, slot + misfireIntervalNanos));
+
+		long delay = slot - now;
+		if (delay <= 0) {
+			return true;
+		}
+		pacedTriggers.add(trigger);
+		try {
+			misfirePacer.schedule(() -> {
+				// 关闭时已经交给关闭结果的不再执行
+				if (pacedTriggers.remove(trigger)) {
+					execute(trigger, false);
+				}
+			}, delay, TimeUnit.NANOSECONDS);
+		} catch (RejectedExecutionException e) {
+			log.warn("misfire pacer shutdown,trigger pending:[{}]", trigger.getName());
+		}
+		return false;
+	}
+
+	/**
+	 * 放入线程池执行
+	 *
+	 * @param trigger
+	 * 		触发器
+	 * @param callerRuns
+	 * 		是否取任务线程调用(只有取任务线程可以按照 CALLER_RUNS 直接执行)
+	 */
+	private void execute(Trigger trigger, boolean callerRuns) {
+		if (!acquire(trigger)) {
+			concurrencyLimited(trigger);
+			return;
+		}
+		TaskRunner taskRunner = new TaskRunner(trigger, manager);
+		dispatchedRunners.add(taskRunner);
+		submit(taskRunner, callerRuns);
+	}
+
+	/**
+	 * 最大并发执行数
+	 *
+	 * @param trigger
+	 * 		触发器
+	 *
+	 * @return int
+	 */
+	private static int maxConcurrent(Trigger trigger) {
+		int maxConcurrent = trigger.getMaxConcurrent();
+		if (maxConcurrent > 0) {
+			return maxConcurrent;
+		}
+		return trigger.getConcurrencyPolicy() == ConcurrencyPolicy.ALLOW_OVERLAP ? Integer.MAX_VALUE : 1;
+	}
+
+	/**
+	 * 占用一次并发执行(无锁,未达到最大并发执行数时计数加一)
+	 *
+	 * @param trigger
+	 * 		触发器
+	 *
+	 * @return boolean true:占用成功,false:已经达到最大并发执行数
+	 */
+	private boolean acquire(Trigger trigger) {
+		int maxConcurrent = maxConcurrent(trigger);
+		if (maxConcurrent == Integer.MAX_VALUE) {
+			// 不限制时同样计数,执行中修改策略后计数仍然准确
+			inFlight.merge(trigger, 1, Integer::sum);
+			return true;
+		}
+		while (true) {
+			Integer current = inFlight.get(trigger);
+			if (current == null) {
+				if (inFlight.putIfAbsent(trigger, 1) == null) {
+					return true;
+				}
+			} else if (current >= maxConcurrent) {
+				return false;
+			} else if (inFlight.replace(trigger, current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * 并发执行计数减一,减到 0 时移除
+	 *
+	 * @param trigger
+	 * 		触发器
+	 */
+	private void decrementInFlight(Trigger trigger) {
+		inFlight.computeIfPresent(trigger, (key, count) -> count > 1 ? count - 1 : null);
+	}
+
+	/**
+	 * 释放一次并发执行,有暂存的执行时放入线程池
+	 *
+	 * @param trigger
+	 * 		触发器
+	 */
+	private void release(Trigger trigger) {
+		decrementInFlight(trigger);
+		if (!parkedRunners.isEmpty()) {
+			drainParked(trigger);
+		}
+	}
+
+	/**
+	 * 达到最大并发执行数处理
+	 *
+	 * @param trigger
+	 * 		触发器
+	 */
+	private void concurrencyLimited(Trigger trigger) {
+		switch (trigger.getConcurrencyPolicy()) {
+			case COALESCE:
+				// 不加入下一次执行,暂存的执行完成前同一触发器不会再次取出
+				metrics.increment(SchedulerMetrics.COUNTER_CONCURRENCY_COALESCED);
+				park(new TaskRunner(trigger, manager));
+				break;
+			case QUEUE_ONE:
+				// 暂存的执行不影响原计划;先放入下一次执行,暂存的执行被线程池拒绝时合并到已经在等待的执行,不修改队列中的触发器
+				TaskRunner queued = parkedRunners.containsKey(trigger) ? null : new TaskRunner(trigger, manager, false);
+				skip(trigger);
+				if (queued != null && park(queued)) {
+					metrics.increment(SchedulerMetrics.COUNTER_CONCURRENCY_QUEUED);
+				} else {
+					metrics.increment(SchedulerMetrics.COUNTER_CONCURRENCY_SKIPPED);
+				}
+				break;
+			case ALLOW_OVERLAP:
+			case SKIP_IF_RUNNING:
+			default:
+				metrics.increment(SchedulerMetrics.COUNTER_CONCURRENCY_SKIPPED);
+				skip(trigger);
+				break;
+		}
+	}
+
+	/**
+	 * 暂存执行,暂存后重新检查避免与执行完成同时发生时暂存的执行无人取出
+	 *
+	 * @param taskRunner
+	 * 		任务
+	 *
+	 * @return boolean true:暂存成功,false:已经有暂存的执行
+	 */
+	private boolean park(TaskRunner taskRunner) {
+		Trigger trigger = taskRunner.getTrigger();
+		if (parkedRunners.putIfAbsent(trigger, taskRunner) != null) {
+			return false;
+		}
+		dispatchedRunners.add(taskRunner);
+		drainParked(trigger);
+		return true;
+	}
+
+	/**
+	 * 有空闲并发执行时取出暂存的执行放入线程池
+	 *
+	 * @param trigger
+	 * 		触发器
+	 */
+	private void drainParked(Trigger trigger) {
+		TaskRunner parked;
+		while ((parked = parkedRunners.get(trigger)) != null && acquire(trigger)) {
+			if (parkedRunners.remove(trigger, parked)) {
+				// 可能在执行完成的执行线程中取出,不能直接执行
+				submit(parked, false);
+				return;
+			}
+			// 已经被其他线程取出
+			decrementInFlight(trigger);
+		}
+	}
+
+	/**
+	 * 放入线程池执行
+	 *
+	 * @param taskRunner
+	 * 		已经占用并发执行的任务
+	 * @param callerRuns
+	 * 		是否取任务线程调用
+	 */
+	private void submit(TaskRunner taskRunner, boolean callerRuns) {
+		Trigger trigger = taskRunner.getTrigger();
+		ExecutorService executor = taskRouter.route(trigger).threadPool();
+		try {
+			executor.execute(taskRunner);
+		} catch (RejectedExecutionException e) {
+			if (executor.isShutdown()) {
+				// 保留在已分发任务中,关闭时撤销后交给关闭结果
+				log.warn("thread pool shutdown,trigger pending:[{}]", trigger.getName());
+				return;
+			}
+			overload(taskRunner, executor, callerRuns);
+		}
+	}
+
+	/**
+	 * 线程池已满处理
+	 *
+	 * @param taskRunner
+	 * 		被拒绝的任务
+	 * @param executor
+	 * 		线程池
+	 * @param callerRuns
+	 * 		是否取任务线程调用,其他线程(执行线程、错过执行限速线程)按照 REQUEUE 处理,避免阻塞
+	 */
+	private void overload(TaskRunner taskRunner, ExecutorService executor, boolean callerRuns) {
+		Trigger trigger = taskRunner.getTrigger();
+		OverloadPolicy policy = overloadPolicy == OverloadPolicy.CALLER_RUNS && !callerRuns ? OverloadPolicy.REQUEUE : overloadPolicy;
+		if (policy == OverloadPolicy.REQUEUE || policy == OverloadPolicy.MISFIRE) {
+			discard(taskRunner);
+		}
+		switch (policy) {
+			case COALESCE:
+				TaskRunner replaced = coalescedRunners.put(trigger.getName(), taskRunner);
+				if (replaced != null) {
+					discard(replaced);
+					metrics.increment(SchedulerMetrics.COUNTER_OVERLOAD_COALESCE);
+				}
+				break;
+			case DROP_OLDEST:
+				dropOldest(taskRunner, executor);
+				break;
+			case REQUEUE:
+				requeue(trigger);
+				break;
+			case MISFIRE:
+				metrics.increment(SchedulerMetrics.COUNTER_OVERLOAD_MISFIRE);
+				trigger.misfire(System.currentTimeMillis() - taskRunner.getDeadline());
+				skip(trigger);
+				break;
+			case CALLER_RUNS:
+			default:
+				// 在取任务线程执行,会阻塞调度
+				metrics.increment(SchedulerMetrics.COUNTER_OVERLOAD_CALLER_RUNS);
+				taskRunner.run();
+				break;
+		}
+	}
+
+	/**
+	 * 丢弃线程池队列中最早的任务(跳过本次执行,放入下一次执行时间),再放入当前任务
+	 *
+	 * @param taskRunner
+	 * 		被拒绝的任务
+	 * @param executor
+	 * 		线程池
+	 */
+	private void dropOldest(TaskRunner taskRunner, ExecutorService executor) {
+		if (executor instanceof ThreadPoolExecutor) {
+			Runnable oldest = ((ThreadPoolExecutor) executor).getQueue().poll();
+			if (oldest != null) {
+				metrics.increment(SchedulerMetrics.COUNTER_OVERLOAD_DROP_OLDEST);
+				if (oldest instanceof TaskRunner) {
+					discard((TaskRunner) oldest);
+					skip(((TaskRunner) oldest).getTrigger());
+				}
+				try {
+					executor.execute(taskRunner);
+					return;
+				} catch (RejectedExecutionException e) {
+					// 重新放入调度队列
+				}
+			}
+		}
+		discard(taskRunner);
+		requeue(taskRunner.getTrigger());
+	}
+
+	/**
+	 * 按照退避策略延迟后重试
+	 *
+	 * @param failed
+	 * 		出错的执行
+	 * @param firstFailureTime
+	 * 		第一次出错时间(毫秒时间戳)
+	 *
+	 * @return boolean true:已经放入重试,false:超过最长重试时间或者已经关闭
+	 */
+	boolean retry(TaskRunner failed, long firstFailureTime) {
+		Trigger trigger = failed.getTrigger();
+		RetryPolicy policy = Optional.ofNullable(trigger.getRetryPolicy()).orElse(retryPolicy);
+		long delay = policy.delay(failed.getAttempt() + 1);
+		long retryTime = System.currentTimeMillis() + delay;
+		if (policy.isExpired(firstFailureTime, retryTime)) {
+			log.warn("trigger retry max elapsed exceeded:[{}],attempts:[{}]", trigger.getName(), failed.getAttempt());
+			return false;
+		}
+		return scheduleRetry(new TaskRunner(failed, retryTime, firstFailureTime), delay);
+	}
+
+	/**
+	 * 放入重试延迟
+	 *
+	 * @param taskRunner
+	 * 		重试任务
+	 * @param delay
+	 * 		延迟(毫秒)
+	 *
+	 * @return boolean true:已经放入重试,false:已经关闭
+	 */
+	private boolean scheduleRetry(TaskRunner taskRunner, long delay) {
+		pendingRetries.add(taskRunner);
+		try {
+			retryTimer.schedule(() -> {
+				// 关闭时已经交给关闭结果的不再执行
+				if (pendingRetries.remove(taskRunner)) {
+					submitRetry(taskRunner);
+				}
+			}, delay, TimeUnit.MILLISECONDS);
+			return true;
+		} catch (RejectedExecutionException e) {
+			pendingRetries.remove(taskRunner);
+			log.warn("retry timer shutdown,trigger pending:[{}]", taskRunner.getTrigger().getName());
+			manager.handOff(taskRunner.getTrigger());
+			return false;
+		}
+	}
+
+	/**
+	 * 重试放入线程池,线程池已满时延迟后再次尝试(触发器可能已经在调度队列中,不按照过载策略修改执行时间)<br>
+	 * 出错的执行占用的并发执行一直保留到最后一次重试完成,等待重试期间同一触发器不会按照并发执行控制再次执行
+	 *
+	 * @param taskRunner
+	 * 		重试任务
+	 */
+	private void submitRetry(TaskRunner taskRunner) {
+		Trigger trigger = taskRunner.getTrigger();
+		ExecutorService executor = taskRouter.route(trigger).threadPool();
+		dispatchedRunners.add(taskRunner);
+		try {
+			executor.execute(taskRunner);
+		} catch (RejectedExecutionException e) {
+			if (executor.isShutdown()) {
+				// 保留在已分发任务中,关闭时撤销后交给关闭结果
+				return;
+			}
+			// 不释放并发执行,延迟后再次尝试
+			dispatchedRunners.remove(taskRunner);
+			if (!scheduleRetry(taskRunner, requeueDelay)) {
+				release(trigger);
+			}
+		}
+	}
+
+	/**
+	 * 丢弃已经分发的任务,不再执行
+	 *
+	 * @param taskRunner
+	 * 		任务
+	 */
+	private void discard(TaskRunner taskRunner) {
+		if (dispatchedRunners.remove(taskRunner)) {
+			release(taskRunner.getTrigger());
+		}
+	}
+
+	/**
+	 * 延迟后重新放入调度队列,同名触发器已经在等待时合并
+	 *
+	 * @param trigger
+	 * 		触发器
+	 */
+	private void requeue(Trigger trigger) {
+		if (manager.getWaitingJob().get(trigger.getName()) == trigger) {
+			// 暂存的执行(QUEUE_ONE)被拒绝时触发器已经在调度队列中,修改执行时间会破坏队列顺序,合并到已经在等待的执行
+			metrics.increment(SchedulerMetrics.COUNTER_OVERLOAD_COALESCE);
+			return;
+		}
+		trigger.deadline(System.currentTimeMillis() + requeueDelay);
+		if (manager.scheduleNext(trigger)) {
+			metrics.increment(SchedulerMetrics.COUNTER_OVERLOAD_REQUEUE);
+		} else {
+			metrics.increment(SchedulerMetrics.COUNTER_OVERLOAD_COALESCE);
+		}
+	}
+
+	/**
+	 * 跳过本次执行,放入下一次执行时间
+	 *
+	 * @param trigger
+	 * 		触发器
+	 */
+	private void skip(Trigger trigger) {
+		trigger.nextTrigger().ifPresent(manager::scheduleNext);
+	}
+
+	/**
+	 * 关闭错过执行限速和重试延迟
+	 *
+	 * @return {@code List<Trigger>} 等待限速执行的错过执行触发器和等待重试的触发器
+	 */
+	List<Trigger> shutdown() {
+		retryTimer.shutdownNow();
+		List<Trigger> pending = new ArrayList<>();
+		for (TaskRunner taskRunner : pendingRetries) {
+			if (pendingRetries.remove(taskRunner)) {
+				pending.add(taskRunner.getTrigger());
+			}
+		}
+		if (misfirePacer == null) {
+			return pending;
+		}
+		misfirePacer.shutdownNow();
+		for (Trigger trigger : pacedTriggers) {
+			if (pacedTriggers.remove(trigger)) {
+				pending.add(trigger);
+			}
+		}
+		return pending;
+	}
+
+	/**
+	 * 撤销已经分发还未开始执行的任务
+	 *
+	 * @return {@code List<Trigger>} 撤销的任务的触发器
+	 */
+	List<Trigger> revoke() {
+		coalescedRunners.clear();
+		parkedRunners.clear();
+		List<Trigger> revoked = new ArrayList<>();
+		for (TaskRunner taskRunner : dispatchedRunners) {
+			if (taskRunner.revoke()) {
+				dispatchedRunners.remove(taskRunner);
+				revoked.add(taskRunner.getTrigger());
+			}
+		}
+		return revoked;
+	}
+
+	/**
+	 * 正在执行的任务的触发器
+	 *
+	 * @return {@code List<Trigger>}
+	 */
+	List<Trigger> running() {
+		List<Trigger> running = new ArrayList<>();
+		for (TaskRunner taskRunner : dispatchedRunners) {
+			if (taskRunner.isStarted()) {
+				running.add(taskRunner.getTrigger());
+			}
+		}
+		return running;
+	}
+
+	/**
+	 * 任务执行完成
+	 *
+	 * @param taskRunner
+	 * 		任务
+	 * @param retrying
+	 * 		是否已经放入重试,重试等待期间继续占用并发执行,最后一次执行完成后释放
+	 */
+	void afterRun(TaskRunner taskRunner, boolean retrying) {
+		if (dispatchedRunners.remove(taskRunner) && !retrying) {
+			release(taskRunner.getTrigger());
+		}
+		drainCoalesced();
+	}
+
+	/**
+	 * 线程池有空闲时放入暂存的任务
+	 */
+	void drainCoalesced() {
+		if (coalescedRunners.isEmpty()) {
+			return;
+		}
+
+		Iterator<Map.Entry<String, TaskRunner>> iterator = coalescedRunners.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<String, TaskRunner> entry = iterator.next();
+			TaskRunner taskRunner = entry.getValue();
+			if (!coalescedRunners.remove(entry.getKey(), taskRunner)) {
+				continue;
+			}
+
+			ExecutorService executor = taskRouter.route(taskRunner.getTrigger()).threadPool();
+			try {
+				executor.execute(taskRunner);
+			} catch (RejectedExecutionException e) {
+				if (!executor.isShutdown()) {
+					// 仍然已满,放回等待下次
+					coalescedRunners.putIfAbsent(entry.getKey(), taskRunner);
+				}
+				return;
+			}
+		}
+	}
+}
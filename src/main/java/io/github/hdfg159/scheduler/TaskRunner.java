@@ -1,14 +1,16 @@
 package io.github.hdfg159.scheduler;
 
+import io.github.hdfg159.scheduler.event.ExecutionEventSink;
+import io.github.hdfg159.scheduler.event.ExecutionEventType;
+import io.github.hdfg159.scheduler.metrics.SchedulerMetrics;
+import io.github.hdfg159.scheduler.store.TriggerStore;
 import io.github.hdfg159.scheduler.trigger.Trigger;
 import io.github.hdfg159.scheduler.trigger.TriggerProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.Predicate;
 
 /**
@@ -19,28 +21,164 @@ import java.util.function.Predicate;
  */
 public class TaskRunner implements Runnable {
 	private static final Logger log = LoggerFactory.getLogger(TaskRunner.class);
+	/**
+	 * 等待执行
+	 */
+	private static final int STATE_NEW = 0;
+	/**
+	 * 已经开始执行
+	 */
+	private static final int STATE_STARTED = 1;
+	/**
+	 * 关闭调度器时撤销,不再执行
+	 */
+	private static final int STATE_REVOKED = 2;
+	private static final AtomicIntegerFieldUpdater<TaskRunner> STATE = AtomicIntegerFieldUpdater.newUpdater(TaskRunner.class, "state");
 	private Trigger trigger;
+	/**
+	 * 调度统计
+	 */
+	private final SchedulerMetrics metrics;
+	/**
+	 * 执行事件输出
+	 */
+	private final ExecutionEventSink eventSink;
+	/**
+	 * 本次计划执行时间(毫秒时间戳),非顺序任务执行前会修改触发器执行时间,所以分发时记录
+	 */
+	private final long deadline;
+	/**
+	 * 分发时触发器 ID,非顺序任务执行前会更新触发器 ID
+	 */
+	private final long dispatchId;
+	/**
+	 * 调度管理器
+	 */
+	private final SchedulerManager manager;
+	/**
+	 * 触发器持久化存储
+	 */
+	private final TriggerStore triggerStore;
+	/**
+	 * 执行前后是否加入下一次执行,暂存的执行(下一次执行已经加入调度)为 false
+	 */
+	private final boolean reschedule;
+	/**
+	 * 第几次重试,0 为正常执行
+	 */
+	private final int attempt;
+	/**
+	 * 第一次出错时间(毫秒时间戳),计算最长重试时间
+	 */
+	private final long firstFailureTime;
+	/**
+	 * 执行状态,开始执行和撤销只有一个成功
+	 */
+	private volatile int state = STATE_NEW;
 	
 	public TaskRunner(Trigger trigger) {
+		this(trigger, trigger.getScheduler());
+	}
+	
+	public TaskRunner(Trigger trigger, SchedulerManager manager) {
+		this(trigger, manager, true);
+	}
+	
+	TaskRunner(Trigger trigger, SchedulerManager manager, boolean reschedule) {
 		this.trigger = trigger;
+		this.reschedule = reschedule;
+		this.manager = manager;
+		this.metrics = manager.getMetrics();
+		this.eventSink = manager.getExecutionEventSink();
+		this.deadline = trigger.getDeadline();
+		this.dispatchId = trigger.getId();
+		this.triggerStore = manager.getTriggerStore();
+		this.attempt = 0;
+		this.firstFailureTime = 0L;
+	}
+	
+	/**
+	 * 创建下一次重试
+	 *
+	 * @param failed
+	 * 		出错的执行
+	 * @param deadline
+	 * 		重试时间(毫秒时间戳)
+	 * @param firstFailureTime
+	 * 		第一次出错时间(毫秒时间戳)
+	 */
+	TaskRunner(TaskRunner failed, long deadline, long firstFailureTime) {
+		this.trigger = failed.trigger;
+		this.reschedule = failed.reschedule;
+		this.manager = failed.manager;
+		this.metrics = failed.metrics;
+		this.eventSink = failed.eventSink;
+		this.deadline = deadline;
+		this.dispatchId = failed.dispatchId;
+		this.triggerStore = failed.triggerStore;
+		this.attempt = failed.attempt + 1;
+		this.firstFailureTime = firstFailureTime;
 	}
 	
 	@Override
 	public void run() {
-		long triggerId = trigger.getId();
-		
-		beforeJobRun();
+		if (!STATE.compareAndSet(this, STATE_NEW, STATE_STARTED)) {
+			// 已经撤销,触发器已经交给关闭结果
+			return;
+		}
+		if (attempt == 0) {
+			beforeJobRun();
+		}
 		
+		// 重试已经放入延迟队列时,顺序执行的下一次执行和执行完成记录由最后一次重试处理
+		boolean retrying = false;
 		try {
-			boolean isThrowException = jobRun();
+			boolean isThrowException = attempt == 0 ? jobRun() : retryRun();
 			if (isThrowException) {
-				retry(triggerId, trigger);
+				retrying = retry();
 			}
 		} finally {
-			afterJobRun();
+			if (!retrying) {
+				afterJobRun();
+				if (trigger.getJobKey() != null) {
+					triggerStore.complete(trigger.getName(), dispatchId);
+				}
+			}
+			manager.afterTaskRun(this, retrying);
 		}
 	}
 	
+	/**
+	 * 撤销还未开始执行的任务
+	 *
+	 * @return boolean true:撤销成功,任务不会再执行,false:已经开始执行
+	 */
+	boolean revoke() {
+		return STATE.compareAndSet(this, STATE_NEW, STATE_REVOKED);
+	}
+	
+	/**
+	 * 是否已经开始执行
+	 *
+	 * @return boolean
+	 */
+	boolean isStarted() {
+		return state == STATE_STARTED;
+	}
+	
+	public Trigger getTrigger() {
+		return trigger;
+	}
+	
+	/**
+	 * 获取本次计划执行时间
+	 *
+	 * @return long 毫秒时间戳
+	 */
+	public long getDeadline() {
+		return deadline;
+	}
+	
 	/**
 	 * 任务执行前
 	 */
@@ -55,19 +193,29 @@ public class TaskRunner implements Runnable {
 	 */
 	private boolean jobRun() {
 		if (trigger.isCancel()) {
-			log.warn("[{}] job cancel", trigger.getName());
+			metrics.increment(SchedulerMetrics.COUNTER_CANCELLED);
+			if (eventSink.isEnabled(ExecutionEventType.CANCEL)) {
+				eventSink.onEvent(ExecutionEventType.CANCEL, trigger, 0L);
+			}
 			return false;
 		}
 		
 		boolean isThrowException = false;
 		String triggerName = trigger.getName();
-		log.info("trigger job:[{}]", triggerName);
-		LocalDateTime startTime = LocalDateTime.now();
+		if (trigger.getJobKey() != null) {
+			triggerStore.fire(triggerName, dispatchId);
+		}
+		long startTime = System.currentTimeMillis();
+		if (eventSink.isEnabled(ExecutionEventType.TRIGGER)) {
+			eventSink.onEvent(ExecutionEventType.TRIGGER, trigger, startTime - deadline);
+		}
+		long startNanos = System.nanoTime();
 		
 		try {
 			trigger.getJob().accept(trigger);
 		} catch (Throwable e) {
 			isThrowException = true;
+			metrics.increment(SchedulerMetrics.COUNTER_EXCEPTION);
 			try {
 				trigger.exceptionCaught(e);
 			} catch (Throwable e1) {
@@ -76,52 +224,73 @@ public class TaskRunner implements Runnable {
 		}
 		
 		// 设置任务执行时间
-		long until = startTime.until(LocalDateTime.now(), ChronoUnit.MILLIS);
+		long until = (System.nanoTime() - startNanos) / 1_000_000L;
 		trigger.costTime(until);
+		metrics.recordRun(triggerName, startTime - deadline, until);
 		
-		log.info("job run success:[{}] [{}ms]", triggerName, until);
+		if (eventSink.isEnabled(ExecutionEventType.SUCCESS)) {
+			eventSink.onEvent(ExecutionEventType.SUCCESS, trigger, until);
+		}
 		
 		return isThrowException;
 	}
 	
 	/**
-	 * 重试
+	 * 重试执行
 	 *
-	 * @param triggerId
-	 * 		触发器原 ID
-	 * @param trigger
-	 * 		触发器
-	 */
-	private void retry(long triggerId, Trigger trigger) {
-		Map<Long, Long> retryCountMap = trigger.getRetryCountMap();
-		Long retryTimes = retryCountMap.getOrDefault(triggerId, 0L);
-		
-		String triggerName = trigger.getName();
+	 * @return boolean true:任务执行出现异常返回 ,false:任务正常执行无错误
+	 */
+	private boolean retryRun() {
+		if (trigger.isCancel()) {
+			// 等待重试期间被取消
+			metrics.increment(SchedulerMetrics.COUNTER_CANCELLED);
+			if (eventSink.isEnabled(ExecutionEventType.CANCEL)) {
+				eventSink.onEvent(ExecutionEventType.CANCEL, trigger, 0L);
+			}
+			return false;
+		}
 		
-		// 重复尝试
-		long i = retryTimes;
-		while (i > 0 || i == -1) {
-			log.info("[{}] job remain retry times:[{}/{}]", triggerName, i, retryTimes);
+		long retry = trigger.getRetry();
+		if (eventSink.isEnabled(ExecutionEventType.RETRY)) {
+			// 剩余重试次数(包括本次)
+			eventSink.onEvent(ExecutionEventType.RETRY, trigger, retry == -1 ? -1 : retry - attempt + 1);
+		}
+		metrics.increment(SchedulerMetrics.COUNTER_RETRY);
+		try {
+			trigger.getJob().accept(trigger);
+			return false;
+		} catch (Throwable e) {
+			metrics.increment(SchedulerMetrics.COUNTER_EXCEPTION);
+			// 防止 afterExceptionCaught 方法处理再次出现异常
 			try {
-				trigger.getJob().accept(trigger);
-			} catch (Throwable e) {
-				// 防止 afterExceptionCaught 方法处理再次出现异常
-				try {
-					trigger.exceptionCaught(e);
-				} catch (Throwable e1) {
-					log.error("retry trigger job exception caught error", e1);
-				}
-				
-				if (i != -1) {
-					--i;
-				}
-				continue;
+				trigger.exceptionCaught(e);
+			} catch (Throwable e1) {
+				log.error("retry trigger job exception caught error", e1);
 			}
-			break;
+			return true;
 		}
-		
-		// 移除
-		retryCountMap.remove(triggerId);
+	}
+	
+	/**
+	 * 出错后按照退避策略延迟重试,等待期间不占用执行线程
+	 *
+	 * @return boolean true:已经放入重试,false:没有剩余重试次数或者超过最长重试时间
+	 */
+	private boolean retry() {
+		long retry = trigger.getRetry();
+		if (retry != -1 && attempt >= retry) {
+			return false;
+		}
+		return manager.scheduleRetry(this, attempt == 0 ? System.currentTimeMillis() : firstFailureTime);
+	}
+	
+	/**
+	 * 获取第几次重试
+	 *
+	 * @return int 0 为正常执行
+	 */
+	int getAttempt() {
+		return attempt;
 	}
 	
 	/**
@@ -138,12 +307,17 @@ public class TaskRunner implements Runnable {
 	 * 		条件
 	 */
 	private void nextTriggerEffect(Predicate<Trigger> predicate) {
+		if (!reschedule) {
+			return;
+		}
 		Optional.ofNullable(trigger)
 				.filter(predicate)
 				.flatMap(Trigger::nextTrigger)
 				.ifPresent(t -> {
-					boolean schedule = trigger.schedule();
-					log.debug("next trigger effect:[{}],task cost time:[{}ms],result:[{}]", t.getName(), t.getCostTime(), schedule);
+					boolean schedule = manager.scheduleNext(t);
+					if (log.isDebugEnabled()) {
+						log.debug("next trigger effect:[{}],task cost time:[{}ms],result:[{}]", t.getName(), t.getCostTime(), schedule);
+					}
 				});
 	}
 }
@@ -0,0 +1,344 @@
+package io.github.hdfg159.scheduler.cluster;
+
+import io.github.hdfg159.scheduler.thread.ThreadPool;
+import io.github.hdfg159.scheduler.util.Sequence;
+import io.github.hdfg159.scheduler.util.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 集群协调<br>
+ * 每个节点都加入全部触发器,分发时按照触发器名称一致性哈希只执行本节点负责的触发器,其他节点负责的跳过本次执行<br>
+ * 划分只由租约记录和当前时间决定:新节点延迟生效,生效前所有节点都已经读取到它的租约,同一时刻一起切换;
+ * 节点停止续约后在租约过期时自己停止执行,其他节点在同一时间接管,不会同时执行
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class ClusterCoordinator {
+	private static final Logger log = LoggerFactory.getLogger(ClusterCoordinator.class);
+	private static final String PROPERTIES_NODE_ID = "scheduler.cluster.nodeId";
+	/**
+	 * 调度器名称配置,只有非默认调度器设置
+	 */
+	private static final String PROPERTIES_SCHEDULER_NAME = "scheduler.name";
+	private static final String PROPERTIES_LEASE_TTL = "scheduler.cluster.leaseTtl";
+	private static final String PROPERTIES_HEARTBEAT_INTERVAL = "scheduler.cluster.heartbeatInterval";
+	private static final String PROPERTIES_VIRTUAL_NODES = "scheduler.cluster.virtualNodes";
+	/**
+	 * 默认租约有效期(毫秒)
+	 */
+	private static final long LEASE_TTL = 10000L;
+	/**
+	 * 默认心跳间隔(毫秒)
+	 */
+	private static final long HEARTBEAT_INTERVAL = 3000L;
+	/**
+	 * 默认每个节点虚拟节点数量
+	 */
+	private static final int VIRTUAL_NODES = 64;
+	/**
+	 * 节点标识允许的字符(用于文件名等)
+	 */
+	private static final Pattern NODE_ID_PATTERN = Pattern.compile("[A-Za-z0-9._@-]+");
+
+	private final LeaseStore leaseStore;
+	private final String nodeId;
+	private final long leaseTtl;
+	private final long heartbeatInterval;
+	/**
+	 * 新节点延迟生效时间(毫秒),两个心跳间隔,保证其他节点都已经读取到新节点租约
+	 */
+	private final long activationDelay;
+	private final int virtualNodes;
+	private final ScheduledExecutorService heartbeatExecutor;
+	/**
+	 * 本节点租约,null 为不在集群中
+	 */
+	private volatile Lease lease;
+	/**
+	 * 最近一次读取的全部节点租约
+	 */
+	private volatile List<Lease> leases = Collections.emptyList();
+	/**
+	 * 当前划分
+	 */
+	private volatile Partition partition;
+	/**
+	 * 是否已经加入集群
+	 */
+	private boolean started = false;
+	/**
+	 * 是否已经离开集群
+	 */
+	private boolean closed = false;
+
+	public ClusterCoordinator(LeaseStore leaseStore, Properties config) {
+		if (leaseStore == null) {
+			throw new IllegalArgumentException("lease store not allow null");
+		}
+		this.leaseStore = leaseStore;
+		this.nodeId = Optional.ofNullable(config.getProperty(PROPERTIES_NODE_ID))
+				.map(String::trim)
+				.orElseGet(() -> defaultNodeId(config.getProperty(PROPERTIES_SCHEDULER_NAME)));
+		if (!NODE_ID_PATTERN.matcher(nodeId).matches()) {
+			throw new IllegalArgumentException("illegal cluster node id:" + nodeId);
+		}
+		this.leaseTtl = Optional.ofNullable(config.getProperty(PROPERTIES_LEASE_TTL))
+				.map(Long::parseLong)
+				.orElse(LEASE_TTL);
+		this.heartbeatInterval = Optional.ofNullable(config.getProperty(PROPERTIES_HEARTBEAT_INTERVAL))
+				.map(Long::parseLong)
+				.orElse(HEARTBEAT_INTERVAL);
+		if (heartbeatInterval <= 0) {
+			throw new IllegalArgumentException("cluster heartbeat interval must > 0");
+		}
+		// 续约之间其他节点最多晚一个心跳读取,租约有效期需要覆盖两次心跳
+		if (leaseTtl <= heartbeatInterval * 2) {
+			throw new IllegalArgumentException("cluster lease ttl must > 2 * heartbeat interval");
+		}
+		this.activationDelay = heartbeatInterval * 2;
+		this.virtualNodes = Optional.ofNullable(config.getProperty(PROPERTIES_VIRTUAL_NODES))
+				.map(Integer::parseInt)
+				.orElse(VIRTUAL_NODES);
+		if (virtualNodes <= 0) {
+			throw new IllegalArgumentException("cluster virtual nodes must > 0");
+		}
+
+		this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+				.setNameFormat(ThreadPool.threadName(config, "scheduler-cluster-heartbeat-%d"))
+				.setDaemon(true)
+				.setUncaughtExceptionHandler((t, e) -> log.error("thread run error:[{}]", t.getName(), e))
+				.build());
+	}
+
+	/**
+	 * 默认节点标识:数据中心ID-机器ID-进程号@主机名,非默认调度器加上调度器名称,同一进程的不同调度器分别加入集群
+	 *
+	 * @param schedulerName
+	 * 		调度器名称
+	 *
+	 * @return String
+	 */
+	private static String defaultNodeId(String schedulerName) {
+		String name = Sequence.SEQUENCE.getDataCenterId() + "-" + Sequence.SEQUENCE.getWorkerId() + "-" + ManagementFactory.getRuntimeMXBean().getName();
+		if (schedulerName != null) {
+			name = name + "-" + schedulerName;
+		}
+		return name.replaceAll("[^A-Za-z0-9._@-]", "_");
+	}
+
+	/**
+	 * 加入集群并开始定时续约,重复调用或者已经离开集群时忽略
+	 */
+	public synchronized void start() {
+		if (started || closed) {
+			return;
+		}
+		started = true;
+		lease = leaseStore.join(nodeId, leaseTtl, activationDelay);
+		refresh();
+		heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat, heartbeatInterval, heartbeatInterval, TimeUnit.MILLISECONDS);
+		log.info("cluster node joined:[{}],active nodes:{}", lease, getActiveNodes());
+	}
+
+	/**
+	 * 续约并读取全部节点租约
+	 */
+	private void heartbeat() {
+		try {
+			Lease current = lease;
+			// 续约前的时间计算过期时间,本节点不会晚于其他节点认为的过期时间停止
+			long now = System.currentTimeMillis();
+			if (current == null || now >= current.getExpireTime()) {
+				// 租约已经过期,其他节点可能已经接管,重新加入需要再次延迟生效
+				lease = null;
+				log.warn("cluster node lease expired,rejoin:[{}]", nodeId);
+				lease = leaseStore.join(nodeId, leaseTtl, activationDelay);
+			} else {
+				Lease renewed = current.renew(now + leaseTtl);
+				if (leaseStore.renew(renewed)) {
+					lease = renewed;
+				} else {
+					log.warn("cluster node renew lease failed:[{}]", nodeId);
+				}
+			}
+			refresh();
+		} catch (Exception e) {
+			log.error("cluster heartbeat error:[{}]", nodeId, e);
+		}
+	}
+
+	/**
+	 * 读取全部节点租约
+	 */
+	private void refresh() {
+		List<Lease> all = leaseStore.getLeases();
+		Set<String> before = getActiveNodes();
+		leases = all;
+		Set<String> after = getActiveNodes();
+		if (!before.equals(after)) {
+			log.info("cluster active nodes changed:{} -> {}", before, after);
+		}
+	}
+
+	/**
+	 * 触发器是否由本节点执行
+	 *
+	 * @param triggerName
+	 * 		触发器名称
+	 *
+	 * @return boolean
+	 */
+	public boolean isOwner(String triggerName) {
+		long now = System.currentTimeMillis();
+		Lease current = lease;
+		if (current == null || !current.isActive(now)) {
+			return false;
+		}
+		return nodeId.equals(partition(now).ring.owner(triggerName));
+	}
+
+	/**
+	 * 当前负责触发器的节点
+	 *
+	 * @param triggerName
+	 * 		触发器名称
+	 *
+	 * @return {@code Optional<String>} 节点标识,没有有效节点时为空
+	 */
+	public Optional<String> getOwner(String triggerName) {
+		return Optional.ofNullable(partition(System.currentTimeMillis()).ring.owner(triggerName));
+	}
+
+	/**
+	 * 当前有效节点
+	 *
+	 * @return {@code Set<String>}
+	 */
+	public Set<String> getActiveNodes() {
+		return partition(System.currentTimeMillis()).nodes;
+	}
+
+	/**
+	 * 本节点租约是否有效
+	 *
+	 * @return boolean
+	 */
+	public boolean isActive() {
+		Lease current = lease;
+		return current != null && current.isActive(System.currentTimeMillis());
+	}
+
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	/**
+	 * 本节点租约
+	 *
+	 * @return {@code Optional<Lease>}
+	 */
+	public Optional<Lease> getLease() {
+		return Optional.ofNullable(lease);
+	}
+
+	/**
+	 * 当前时间的划分,租约记录没有变化并且没有节点生效或者过期时复用
+	 *
+	 * @param now
+	 * 		当前毫秒时间戳
+	 *
+	 * @return Partition
+	 */
+	private Partition partition(long now) {
+		List<Lease> all = leases;
+		Lease self = lease;
+		Partition current = partition;
+		if (current != null && current.leases == all && current.self == self && now >= current.validFrom && now < current.validUntil) {
+			return current;
+		}
+
+		Set<String> nodes = new TreeSet<>();
+		long validUntil = Long.MAX_VALUE;
+		List<Lease> effective = new ArrayList<>(all.size() + 1);
+		for (Lease other : all) {
+			// 本节点以内存中的租约为准
+			if (!other.getNodeId().equals(nodeId)) {
+				effective.add(other);
+			}
+		}
+		if (self != null) {
+			effective.add(self);
+		}
+		for (Lease item : effective) {
+			if (item.isActive(now)) {
+				nodes.add(item.getNodeId());
+				validUntil = Math.min(validUntil, item.getExpireTime());
+			} else if (item.getActiveTime() > now) {
+				validUntil = Math.min(validUntil, item.getActiveTime());
+			}
+		}
+
+		Partition next = new Partition(all, self, now, validUntil, Collections.unmodifiableSet(nodes), new ConsistentHashRing(nodes, virtualNodes));
+		partition = next;
+		return next;
+	}
+
+	/**
+	 * 离开集群:先停止执行再删除租约,其他节点下次读取后接管;重复调用时忽略
+	 */
+	public synchronized void shutdown() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		heartbeatExecutor.shutdownNow();
+		if (!started) {
+			// 没有加入集群,不删除同名节点的租约
+			leaseStore.close();
+			return;
+		}
+		lease = null;
+		try {
+			leaseStore.leave(nodeId);
+		} finally {
+			leaseStore.close();
+		}
+		log.info("cluster node left:[{}]", nodeId);
+	}
+
+	/**
+	 * 一段时间内不变的划分
+	 */
+	private static final class Partition {
+		private final List<Lease> leases;
+		private final Lease self;
+		private final long validFrom;
+		private final long validUntil;
+		private final Set<String> nodes;
+		private final ConsistentHashRing ring;
+
+		private Partition(List<Lease> leases, Lease self, long validFrom, long validUntil, Set<String> nodes, ConsistentHashRing ring) {
+			this.leases = leases;
+			this.self = self;
+			this.validFrom = validFrom;
+			this.validUntil = validUntil;
+			this.nodes = nodes;
+			this.ring = ring;
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package io.github.hdfg159.scheduler.cluster;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 一致性哈希环<br>
+ * 每个节点放入多个虚拟节点,节点增减只移动该节点负责的触发器;哈希不依赖运行环境,不同节点计算结果一致
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+final class ConsistentHashRing {
+	/**
+	 * 虚拟节点哈希(升序)
+	 */
+	private final int[] hashes;
+	/**
+	 * 虚拟节点对应节点标识
+	 */
+	private final String[] nodes;
+
+	ConsistentHashRing(Collection<String> nodeIds, int virtualNodes) {
+		TreeMap<Integer, String> ring = new TreeMap<>();
+		// 节点排序后放入,哈希冲突时保留的节点与放入顺序无关
+		for (String nodeId : new TreeSet<>(nodeIds)) {
+			for (int i = 0; i < virtualNodes; i++) {
+				ring.putIfAbsent(hash(nodeId + "#" + i), nodeId);
+			}
+		}
+
+		hashes = new int[ring.size()];
+		nodes = new String[ring.size()];
+		int index = 0;
+		for (Map.Entry<Integer, String> entry : ring.entrySet()) {
+			hashes[index] = entry.getKey();
+			nodes[index] = entry.getValue();
+			index++;
+		}
+	}
+
+	/**
+	 * 负责的节点
+	 *
+	 * @param key
+	 * 		触发器名称
+	 *
+	 * @return String 节点标识,没有节点时为 null
+	 */
+	String owner(String key) {
+		if (hashes.length == 0) {
+			return null;
+		}
+		int index = Arrays.binarySearch(hashes, hash(key));
+		if (index < 0) {
+			index = -index - 1;
+		}
+		return nodes[index == hashes.length ? 0 : index];
+	}
+
+	/**
+	 * FNV-1a 后混合(murmur3 fmix32),相近的字符串分布均匀
+	 *
+	 * @param key
+	 * 		字符串
+	 *
+	 * @return int
+	 */
+	static int hash(String key) {
+		int hash = 0x811c9dc5;
+		for (int i = 0; i < key.length(); i++) {
+			hash ^= key.charAt(i);
+			hash *= 0x01000193;
+		}
+		hash ^= hash >>> 16;
+		hash *= 0x85ebca6b;
+		hash ^= hash >>> 13;
+		hash *= 0xc2b2ae35;
+		hash ^= hash >>> 16;
+		return hash;
+	}
+}
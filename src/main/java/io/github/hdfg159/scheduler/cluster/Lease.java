@@ -0,0 +1,79 @@
+package io.github.hdfg159.scheduler.cluster;
+
+import java.util.StringJoiner;
+
+/**
+ * 集群节点租约<br>
+ * 生效时间之后、过期时间之前节点参与一致性哈希划分触发器,所有节点按照相同的租约记录和当前时间计算,同一时刻划分结果一致
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public final class Lease {
+	/**
+	 * 节点标识
+	 */
+	private final String nodeId;
+	/**
+	 * 生效时间毫秒时间戳
+	 */
+	private final long activeTime;
+	/**
+	 * 过期时间毫秒时间戳
+	 */
+	private final long expireTime;
+
+	public Lease(String nodeId, long activeTime, long expireTime) {
+		if (nodeId == null) {
+			throw new IllegalArgumentException("lease node id not allow null");
+		}
+		this.nodeId = nodeId;
+		this.activeTime = activeTime;
+		this.expireTime = expireTime;
+	}
+
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	public long getActiveTime() {
+		return activeTime;
+	}
+
+	public long getExpireTime() {
+		return expireTime;
+	}
+
+	/**
+	 * 是否有效
+	 *
+	 * @param now
+	 * 		当前毫秒时间戳
+	 *
+	 * @return boolean
+	 */
+	public boolean isActive(long now) {
+		return activeTime <= now && now < expireTime;
+	}
+
+	/**
+	 * 续约
+	 *
+	 * @param expireTime
+	 * 		新的过期时间毫秒时间戳
+	 *
+	 * @return Lease 生效时间不变的新租约
+	 */
+	public Lease renew(long expireTime) {
+		return new Lease(nodeId, activeTime, expireTime);
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", Lease.class.getSimpleName() + "[", "]")
+				.add("nodeId='" + nodeId + "'")
+				.add("activeTime=" + activeTime)
+				.add("expireTime=" + expireTime)
+				.toString();
+	}
+}
@@ -0,0 +1,69 @@
+package io.github.hdfg159.scheduler.cluster;
+
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 集群租约存储 接口<br>
+ * 所有节点共享,每个节点只写自己的租约,读取全部节点的租约计算触发器划分
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public interface LeaseStore {
+	/**
+	 * 初始化
+	 *
+	 * @param properties
+	 * 		配置
+	 */
+	void initialize(Properties properties);
+
+	/**
+	 * 加入集群,检查其他节点租约和写入本节点租约需要原子执行:
+	 * 没有其他有效租约时立即生效,否则延迟生效(等待其他节点都读取到本节点租约,同时切换划分)
+	 *
+	 * @param nodeId
+	 * 		节点标识
+	 * @param leaseTtl
+	 * 		租约有效期(毫秒)
+	 * @param activationDelay
+	 * 		延迟生效时间(毫秒)
+	 *
+	 * @return Lease 本节点租约
+	 *
+	 * @throws IllegalStateException
+	 * 		节点标识已经被其他节点使用
+	 */
+	Lease join(String nodeId, long leaseTtl, long activationDelay);
+
+	/**
+	 * 续约
+	 *
+	 * @param lease
+	 * 		新的租约
+	 *
+	 * @return boolean true:续约成功,false:写入失败
+	 */
+	boolean renew(Lease lease);
+
+	/**
+	 * 读取全部节点租约(包括已经过期的)
+	 *
+	 * @return {@code List<Lease>}
+	 */
+	List<Lease> getLeases();
+
+	/**
+	 * 离开集群,删除本节点租约
+	 *
+	 * @param nodeId
+	 * 		节点标识
+	 */
+	void leave(String nodeId);
+
+	/**
+	 * 关闭
+	 */
+	void close();
+}
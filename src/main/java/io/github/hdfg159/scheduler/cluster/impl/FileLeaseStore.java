@@ -0,0 +1,232 @@
+package io.github.hdfg159.scheduler.cluster.impl;
+
+import io.github.hdfg159.scheduler.cluster.Lease;
+import io.github.hdfg159.scheduler.cluster.LeaseStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 共享目录文件租约存储 实现<br>
+ * 每个节点一个租约文件(写入临时文件后原子替换),加入集群时通过目录锁文件互斥检查其他节点租约;
+ * 节点运行期间持有节点锁文件,同一节点标识不能同时被两个进程使用,进程退出后锁自动释放<br>
+ * 文件:cluster.lock 为加入集群锁,&lt;节点标识&gt;.lease 为租约,&lt;节点标识&gt;.lock 为节点锁
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class FileLeaseStore implements LeaseStore {
+	private static final Logger log = LoggerFactory.getLogger(FileLeaseStore.class);
+	private static final String PROPERTIES_DIR = "scheduler.cluster.dir";
+	/**
+	 * 默认存储目录
+	 */
+	private static final String DIR = "scheduler-cluster";
+	private static final String JOIN_LOCK = "cluster.lock";
+	private static final String LEASE_SUFFIX = ".lease";
+	private static final String LOCK_SUFFIX = ".lock";
+	private static final String TEMP_SUFFIX = ".tmp";
+	/**
+	 * 同一进程内加入集群互斥(文件锁由进程持有,同一进程重复加锁会抛出异常)
+	 */
+	private static final Object JOIN_MUTEX = new Object();
+
+	/**
+	 * 本进程持有的节点锁 [节点标识:锁]
+	 */
+	private final Map<String, FileLock> nodeLocks = new ConcurrentHashMap<>();
+	private Path dir;
+
+	@Override
+	public void initialize(Properties properties) {
+		dir = Paths.get(properties.getProperty(PROPERTIES_DIR, DIR));
+		try {
+			Files.createDirectories(dir);
+		} catch (IOException e) {
+			throw new UncheckedIOException("init file lease store error", e);
+		}
+		log.info("file lease store initialized,dir:[{}]", dir.toAbsolutePath());
+	}
+
+	@Override
+	public Lease join(String nodeId, long leaseTtl, long activationDelay) {
+		synchronized (JOIN_MUTEX) {
+			try (FileChannel channel = FileChannel.open(dir.resolve(JOIN_LOCK), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+				FileLock joinLock = channel.lock();
+				try {
+					lockNode(nodeId);
+					long now = System.currentTimeMillis();
+					boolean alone = true;
+					for (Lease lease : getLeases()) {
+						if (lease.getNodeId().equals(nodeId)) {
+							continue;
+						}
+						if (lease.getExpireTime() > now) {
+							alone = false;
+						} else {
+							removeExpired(lease.getNodeId());
+						}
+					}
+
+					// 没有其他有效节点时立即生效
+					Lease lease = new Lease(nodeId, alone ? now : now + activationDelay, now + leaseTtl);
+					write(lease);
+					return lease;
+				} finally {
+					joinLock.release();
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException("join cluster error:" + nodeId, e);
+			}
+		}
+	}
+
+	/**
+	 * 持有节点锁,节点标识已经被其他进程或者本进程其他实例使用时抛出异常
+	 *
+	 * @param nodeId
+	 * 		节点标识
+	 *
+	 * @throws IOException
+	 * 		IO 异常
+	 */
+	private void lockNode(String nodeId) throws IOException {
+		if (nodeLocks.containsKey(nodeId)) {
+			return;
+		}
+
+		FileChannel channel = FileChannel.open(dir.resolve(nodeId + LOCK_SUFFIX), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		FileLock lock;
+		try {
+			lock = channel.tryLock();
+		} catch (OverlappingFileLockException e) {
+			lock = null;
+		}
+		if (lock == null) {
+			channel.close();
+			throw new IllegalStateException("cluster node id already in use:" + nodeId);
+		}
+		nodeLocks.put(nodeId, lock);
+	}
+
+	/**
+	 * 删除已经退出的节点的过期租约(能获取节点锁说明进程已经退出)
+	 *
+	 * @param nodeId
+	 * 		节点标识
+	 */
+	private void removeExpired(String nodeId) {
+		Path lockPath = dir.resolve(nodeId + LOCK_SUFFIX);
+		try (FileChannel channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			FileLock lock = channel.tryLock();
+			if (lock == null) {
+				return;
+			}
+			try {
+				Files.deleteIfExists(dir.resolve(nodeId + LEASE_SUFFIX));
+			} finally {
+				lock.release();
+			}
+			Files.deleteIfExists(lockPath);
+			log.info("remove expired cluster node lease:[{}]", nodeId);
+		} catch (OverlappingFileLockException e) {
+			// 本进程仍在使用
+		} catch (IOException e) {
+			log.warn("remove expired cluster node lease error:[{}]", nodeId, e);
+		}
+	}
+
+	@Override
+	public boolean renew(Lease lease) {
+		try {
+			write(lease);
+			return true;
+		} catch (IOException e) {
+			log.error("renew cluster lease error:[{}]", lease.getNodeId(), e);
+			return false;
+		}
+	}
+
+	private void write(Lease lease) throws IOException {
+		Path temp = dir.resolve(lease.getNodeId() + LEASE_SUFFIX + TEMP_SUFFIX);
+		try (OutputStream outputStream = Files.newOutputStream(temp);
+			 DataOutputStream output = new DataOutputStream(outputStream)) {
+			output.writeLong(lease.getActiveTime());
+			output.writeLong(lease.getExpireTime());
+		}
+		// 原子替换,读取时不会读到写了一半的租约
+		Files.move(temp, dir.resolve(lease.getNodeId() + LEASE_SUFFIX), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	@Override
+	public List<Lease> getLeases() {
+		List<Lease> leases = new ArrayList<>();
+		try (Stream<Path> paths = Files.list(dir)) {
+			paths.filter(path -> path.getFileName().toString().endsWith(LEASE_SUFFIX))
+					.forEach(path -> {
+						String fileName = path.getFileName().toString();
+						String nodeId = fileName.substring(0, fileName.length() - LEASE_SUFFIX.length());
+						try (InputStream inputStream = Files.newInputStream(path);
+							 DataInputStream input = new DataInputStream(inputStream)) {
+							leases.add(new Lease(nodeId, input.readLong(), input.readLong()));
+						} catch (NoSuchFileException e) {
+							// 读取时节点刚好离开
+						} catch (IOException e) {
+							log.warn("read cluster lease error:[{}]", path, e);
+						}
+					});
+		} catch (IOException e) {
+			throw new UncheckedIOException("list cluster leases error", e);
+		}
+		return leases;
+	}
+
+	@Override
+	public void leave(String nodeId) {
+		try {
+			Files.deleteIfExists(dir.resolve(nodeId + LEASE_SUFFIX));
+		} catch (IOException e) {
+			log.error("delete cluster lease error:[{}]", nodeId, e);
+		}
+		release(nodeId);
+	}
+
+	private void release(String nodeId) {
+		FileLock lock = nodeLocks.remove(nodeId);
+		if (lock == null) {
+			return;
+		}
+		try {
+			lock.release();
+			lock.channel().close();
+		} catch (IOException e) {
+			log.error("release cluster node lock error:[{}]", nodeId, e);
+		}
+	}
+
+	@Override
+	public void close() {
+		nodeLocks.keySet().forEach(this::release);
+	}
+}
@@ -0,0 +1,45 @@
+package io.github.hdfg159.scheduler.event;
+
+import io.github.hdfg159.scheduler.trigger.Trigger;
+
+import java.util.Properties;
+
+/**
+ * 执行事件输出 接口<br>
+ * 调用方先判断 {@link #isEnabled(ExecutionEventType)},关闭时不产生任何字符串拼接和对象分配
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public interface ExecutionEventSink {
+	/**
+	 * 初始化
+	 *
+	 * @param properties
+	 * 		调度配置
+	 */
+	default void initialize(Properties properties) {
+	}
+
+	/**
+	 * 是否输出该类型事件
+	 *
+	 * @param type
+	 * 		事件类型
+	 *
+	 * @return boolean
+	 */
+	boolean isEnabled(ExecutionEventType type);
+
+	/**
+	 * 输出事件
+	 *
+	 * @param type
+	 * 		事件类型
+	 * @param trigger
+	 * 		触发器
+	 * @param value
+	 * 		事件值,含义见 {@link ExecutionEventType}
+	 */
+	void onEvent(ExecutionEventType type, Trigger trigger, long value);
+}
@@ -0,0 +1,34 @@
+package io.github.hdfg159.scheduler.event;
+
+/**
+ * 执行事件类型
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public enum ExecutionEventType {
+	/**
+	 * 放入调度队列,值为计划执行时间(毫秒时间戳)
+	 */
+	SCHEDULE,
+	/**
+	 * 同名触发器已经存在,放入失败,值为 0
+	 */
+	EXIST,
+	/**
+	 * 任务开始执行,值为触发延迟(毫秒)
+	 */
+	TRIGGER,
+	/**
+	 * 任务执行完成,值为执行耗时(毫秒)
+	 */
+	SUCCESS,
+	/**
+	 * 触发器已取消,任务不执行,值为 0
+	 */
+	CANCEL,
+	/**
+	 * 任务出错重试,值为剩余重试次数
+	 */
+	RETRY
+}
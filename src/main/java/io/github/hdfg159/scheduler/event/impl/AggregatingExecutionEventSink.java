@@ -0,0 +1,92 @@
+package io.github.hdfg159.scheduler.event.impl;
+
+import io.github.hdfg159.scheduler.event.ExecutionEventSink;
+import io.github.hdfg159.scheduler.event.ExecutionEventType;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 聚合输出,按固定间隔输出一行各事件数量和平均耗时汇总,不逐条输出
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class AggregatingExecutionEventSink implements ExecutionEventSink {
+	private static final Logger log = LoggerFactory.getLogger(AggregatingExecutionEventSink.class);
+	/**
+	 * 默认汇总间隔(毫秒)
+	 */
+	private static final long AGGREGATE_INTERVAL = 60_000L;
+	private static final String PROPERTIES_AGGREGATE_INTERVAL = "scheduler.executionEvent.aggregateInterval";
+	private static final ExecutionEventType[] TYPES = ExecutionEventType.values();
+
+	private final LongAdder[] counts = new LongAdder[TYPES.length];
+	/**
+	 * 任务执行耗时总和(毫秒)
+	 */
+	private final LongAdder costTime = new LongAdder();
+	/**
+	 * 上次汇总时间(毫秒时间戳)
+	 */
+	private final AtomicLong lastFlushTime = new AtomicLong(System.currentTimeMillis());
+	private long aggregateInterval = AGGREGATE_INTERVAL;
+
+	public AggregatingExecutionEventSink() {
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = new LongAdder();
+		}
+	}
+
+	@Override
+	public void initialize(Properties properties) {
+		aggregateInterval = Optional.ofNullable(properties.getProperty(PROPERTIES_AGGREGATE_INTERVAL))
+				.map(Long::parseLong)
+				.orElse(AGGREGATE_INTERVAL);
+	}
+
+	@Override
+	public boolean isEnabled(ExecutionEventType type) {
+		return log.isInfoEnabled();
+	}
+
+	@Override
+	public void onEvent(ExecutionEventType type, Trigger trigger, long value) {
+		counts[type.ordinal()].increment();
+		if (type == ExecutionEventType.SUCCESS) {
+			costTime.add(value);
+		}
+
+		long now = System.currentTimeMillis();
+		long last = lastFlushTime.get();
+		if (now - last >= aggregateInterval && lastFlushTime.compareAndSet(last, now)) {
+			flush(now - last);
+		}
+	}
+
+	/**
+	 * 输出并清零汇总
+	 *
+	 * @param period
+	 * 		汇总时长(毫秒)
+	 */
+	private void flush(long period) {
+		StringJoiner joiner = new StringJoiner(",", "[", "]");
+		long success = 0L;
+		for (ExecutionEventType type : TYPES) {
+			long count = counts[type.ordinal()].sumThenReset();
+			if (type == ExecutionEventType.SUCCESS) {
+				success = count;
+			}
+			joiner.add(type.name().toLowerCase() + "=" + count);
+		}
+		long cost = costTime.sumThenReset();
+		log.info("execution events in last [{}ms]:{},average cost time:[{}ms]", period, joiner, success == 0 ? 0 : cost / success);
+	}
+}
@@ -0,0 +1,48 @@
+package io.github.hdfg159.scheduler.event.impl;
+
+import io.github.hdfg159.scheduler.event.ExecutionEventSink;
+import io.github.hdfg159.scheduler.event.ExecutionEventType;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 每个事件输出一行日志(默认)
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class LoggingExecutionEventSink implements ExecutionEventSink {
+	private static final Logger log = LoggerFactory.getLogger(LoggingExecutionEventSink.class);
+
+	@Override
+	public boolean isEnabled(ExecutionEventType type) {
+		return type == ExecutionEventType.CANCEL ? log.isWarnEnabled() : log.isInfoEnabled();
+	}
+
+	@Override
+	public void onEvent(ExecutionEventType type, Trigger trigger, long value) {
+		switch (type) {
+			case SCHEDULE:
+				log.info("schedule trigger:[{}][{}],execute time:[{}]", trigger.getName(), trigger.getId(), trigger.getExecuteTime());
+				break;
+			case EXIST:
+				log.info("exist trigger name:[{}]", trigger.getName());
+				break;
+			case TRIGGER:
+				log.info("trigger job:[{}]", trigger.getName());
+				break;
+			case SUCCESS:
+				log.info("job run success:[{}] [{}ms]", trigger.getName(), value);
+				break;
+			case CANCEL:
+				log.warn("[{}] job cancel", trigger.getName());
+				break;
+			case RETRY:
+				log.info("[{}] job remain retry times:[{}/{}]", trigger.getName(), value, trigger.getRetry());
+				break;
+			default:
+				break;
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package io.github.hdfg159.scheduler.event.impl;
+
+import io.github.hdfg159.scheduler.event.ExecutionEventSink;
+import io.github.hdfg159.scheduler.event.ExecutionEventType;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+
+/**
+ * 关闭执行事件输出
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class NoopExecutionEventSink implements ExecutionEventSink {
+	@Override
+	public boolean isEnabled(ExecutionEventType type) {
+		return false;
+	}
+
+	@Override
+	public void onEvent(ExecutionEventType type, Trigger trigger, long value) {
+		// 不输出
+	}
+}
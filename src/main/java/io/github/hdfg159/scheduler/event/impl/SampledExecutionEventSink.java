@@ -0,0 +1,45 @@
+package io.github.hdfg159.scheduler.event.impl;
+
+import io.github.hdfg159.scheduler.event.ExecutionEventType;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 采样输出,每种事件每 N 次输出一次日志
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class SampledExecutionEventSink extends LoggingExecutionEventSink {
+	/**
+	 * 默认采样间隔
+	 */
+	private static final long SAMPLE_RATE = 100L;
+	private static final String PROPERTIES_SAMPLE_RATE = "scheduler.executionEvent.sampleRate";
+
+	/**
+	 * 每种事件计数
+	 */
+	private final AtomicLongArray counts = new AtomicLongArray(ExecutionEventType.values().length);
+	private long sampleRate = SAMPLE_RATE;
+
+	@Override
+	public void initialize(Properties properties) {
+		sampleRate = Optional.ofNullable(properties.getProperty(PROPERTIES_SAMPLE_RATE))
+				.map(Long::parseLong)
+				.orElse(SAMPLE_RATE);
+		if (sampleRate <= 0) {
+			throw new IllegalArgumentException("execution event sample rate must be > 0");
+		}
+	}
+
+	@Override
+	public void onEvent(ExecutionEventType type, Trigger trigger, long value) {
+		if (counts.getAndIncrement(type.ordinal()) % sampleRate == 0) {
+			super.onEvent(type, trigger, value);
+		}
+	}
+}
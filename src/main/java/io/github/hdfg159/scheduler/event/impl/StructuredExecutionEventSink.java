@@ -0,0 +1,51 @@
+package io.github.hdfg159.scheduler.event.impl;
+
+import io.github.hdfg159.scheduler.event.ExecutionEventSink;
+import io.github.hdfg159.scheduler.event.ExecutionEventType;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 结构化输出,每个事件输出一行 JSON,便于日志采集解析
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class StructuredExecutionEventSink implements ExecutionEventSink {
+	private static final Logger log = LoggerFactory.getLogger(StructuredExecutionEventSink.class);
+
+	@Override
+	public boolean isEnabled(ExecutionEventType type) {
+		return log.isInfoEnabled();
+	}
+
+	@Override
+	public void onEvent(ExecutionEventType type, Trigger trigger, long value) {
+		StringBuilder builder = new StringBuilder(128)
+				.append("{\"event\":\"").append(type.name().toLowerCase())
+				.append("\",\"trigger\":\"");
+		appendEscaped(builder, trigger.getName());
+		builder.append("\",\"id\":").append(trigger.getId())
+				.append(",\"value\":").append(value)
+				.append(",\"time\":").append(System.currentTimeMillis())
+				.append('}');
+		log.info(builder.toString());
+	}
+
+	private static void appendEscaped(StringBuilder builder, String value) {
+		if (value == null) {
+			return;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				builder.append('\\').append(c);
+			} else if (c < 0x20) {
+				builder.append(String.format("\\u%04x", (int) c));
+			} else {
+				builder.append(c);
+			}
+		}
+	}
+}
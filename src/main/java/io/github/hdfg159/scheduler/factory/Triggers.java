@@ -2,12 +2,14 @@ package io.github.hdfg159.scheduler.factory;
 
 import io.github.hdfg159.scheduler.function.Consumer;
 import io.github.hdfg159.scheduler.trigger.Trigger;
+import io.github.hdfg159.scheduler.trigger.impl.CronTrigger;
 import io.github.hdfg159.scheduler.trigger.impl.DayTrigger;
 import io.github.hdfg159.scheduler.trigger.impl.SimpleTrigger;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalUnit;
 
@@ -82,6 +84,26 @@ public abstract class Triggers {
 		return new SimpleTrigger(name, 0, interval, intervalUnit, startTime, null, job);
 	}
 
+	/**
+	 * 创建没有结束时间而且固定频率生效 任务触发器,按照 开始生效时间 + k * 执行间隔 执行,执行耗时和调度延迟不会累积
+	 *
+	 * @param name
+	 * 		名称
+	 * @param interval
+	 * 		执行间隔
+	 * @param intervalUnit
+	 * 		执行间隔时间单位
+	 * @param startTime
+	 * 		开始生效时间
+	 * @param job
+	 * 		任务接口
+	 *
+	 * @return SimpleTrigger
+	 */
+	public static SimpleTrigger fixedRate(String name, long interval, TemporalUnit intervalUnit, LocalDateTime startTime, Consumer<Trigger> job) {
+		return new SimpleTrigger(name, 0, interval, intervalUnit, startTime, null, job).fixedRate(true);
+	}
+
 	/**
 	 * 创建每日固定时间 任务触发器
 	 *
@@ -134,4 +156,38 @@ public abstract class Triggers {
 	public static DayTrigger dayTime(String name, int[] days, LocalTime time, Consumer<Trigger> job) {
 		return new DayTrigger(name, days, time, job);
 	}
+
+	/**
+	 * 创建 cron 表达式 任务触发器(系统默认时区)
+	 *
+	 * @param name
+	 * 		名称
+	 * @param expression
+	 * 		cron 表达式
+	 * @param job
+	 * 		任务
+	 *
+	 * @return CronTrigger
+	 */
+	public static CronTrigger cron(String name, String expression, Consumer<Trigger> job) {
+		return new CronTrigger(name, expression, ZoneId.systemDefault(), job);
+	}
+
+	/**
+	 * 创建 cron 表达式 任务触发器
+	 *
+	 * @param name
+	 * 		名称
+	 * @param expression
+	 * 		cron 表达式
+	 * @param zone
+	 * 		时区
+	 * @param job
+	 * 		任务
+	 *
+	 * @return CronTrigger
+	 */
+	public static CronTrigger cron(String name, String expression, ZoneId zone, Consumer<Trigger> job) {
+		return new CronTrigger(name, expression, zone, job);
+	}
 }
@@ -0,0 +1,72 @@
+package io.github.hdfg159.scheduler.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 取任务线程 批量分发统计
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class DispatchMetrics {
+	/**
+	 * 批次数量
+	 */
+	private final LongAdder bursts = new LongAdder();
+	/**
+	 * 分发触发器总数
+	 */
+	private final LongAdder dispatched = new LongAdder();
+	/**
+	 * 最大批次大小
+	 */
+	private final AtomicLong maxBurstSize = new AtomicLong();
+	/**
+	 * 最近一次批次大小
+	 */
+	private volatile long lastBurstSize;
+
+	/**
+	 * 记录一次批量分发
+	 *
+	 * @param burstSize
+	 * 		批次大小
+	 */
+	public void recordBurst(int burstSize) {
+		bursts.increment();
+		dispatched.add(burstSize);
+		lastBurstSize = burstSize;
+
+		long max = maxBurstSize.get();
+		while (burstSize > max && !maxBurstSize.compareAndSet(max, burstSize)) {
+			max = maxBurstSize.get();
+		}
+	}
+
+	public long getBursts() {
+		return bursts.sum();
+	}
+
+	public long getDispatched() {
+		return dispatched.sum();
+	}
+
+	public long getMaxBurstSize() {
+		return maxBurstSize.get();
+	}
+
+	public long getLastBurstSize() {
+		return lastBurstSize;
+	}
+
+	/**
+	 * 平均批次大小
+	 *
+	 * @return double
+	 */
+	public double getAverageBurstSize() {
+		long count = getBursts();
+		return count == 0 ? 0D : (double) getDispatched() / count;
+	}
+}
@@ -0,0 +1,144 @@
+package io.github.hdfg159.scheduler.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定内存直方图(对数线性分桶,类似 HdrHistogram)<br>
+ * 每个 2 的幂次区间等分为 2^subBucketBits 个桶,相对误差不超过 1/2^subBucketBits,记录为无锁操作
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class Histogram {
+	/**
+	 * 默认每个幂次区间桶数量位数(32 个桶,误差约 3%)
+	 */
+	public static final int DEFAULT_SUB_BUCKET_BITS = 5;
+
+	private final int subBucketBits;
+	private final int subBucketCount;
+	private final AtomicLongArray counts;
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	public Histogram() {
+		this(DEFAULT_SUB_BUCKET_BITS);
+	}
+
+	/**
+	 * 创建直方图
+	 *
+	 * @param subBucketBits
+	 * 		每个幂次区间桶数量位数,越大越精确占用内存越多
+	 */
+	public Histogram(int subBucketBits) {
+		if (subBucketBits < 1 || subBucketBits > 10) {
+			throw new IllegalArgumentException("histogram sub bucket bits must between 1 and 10");
+		}
+		this.subBucketBits = subBucketBits;
+		this.subBucketCount = 1 << subBucketBits;
+		// 最大记录值 Long.MAX_VALUE 对应的桶下标 + 1
+		this.counts = new AtomicLongArray(indexOf(Long.MAX_VALUE) + 1);
+	}
+
+	/**
+	 * 记录值,负数按 0 记录
+	 *
+	 * @param value
+	 * 		值
+	 */
+	public void record(long value) {
+		long v = Math.max(value, 0L);
+		counts.incrementAndGet(indexOf(v));
+		count.increment();
+		sum.add(v);
+
+		long currentMax = max.get();
+		while (v > currentMax && !max.compareAndSet(currentMax, v)) {
+			currentMax = max.get();
+		}
+	}
+
+	private int indexOf(long value) {
+		if (value < subBucketCount) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - subBucketBits;
+		int subBucket = (int) (value >>> shift);
+		return (shift + 1) * subBucketCount + (subBucket - subBucketCount);
+	}
+
+	/**
+	 * 桶内最大值
+	 *
+	 * @param index
+	 * 		桶下标
+	 *
+	 * @return long
+	 */
+	private long highestValueOf(int index) {
+		if (index < subBucketCount) {
+			return index;
+		}
+		int shift = index / subBucketCount - 1;
+		long subBucket = index % subBucketCount + subBucketCount;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getSum() {
+		return sum.sum();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		long total = getCount();
+		return total == 0 ? 0D : (double) getSum() / total;
+	}
+
+	/**
+	 * 获取百分位值(桶上界,不超过最大值)
+	 *
+	 * @param percentile
+	 * 		百分位,例如 99.9
+	 *
+	 * @return long
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long total = getCount();
+		if (total == 0) {
+			return 0L;
+		}
+
+		long target = Math.max(1L, (long) Math.ceil(total * Math.min(percentile, 100D) / 100D));
+		long accumulated = 0L;
+		for (int i = 0; i < counts.length(); i++) {
+			accumulated += counts.get(i);
+			if (accumulated >= target) {
+				return Math.min(highestValueOf(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * 重置
+	 */
+	public void reset() {
+		for (int i = 0; i < counts.length(); i++) {
+			counts.set(i, 0L);
+		}
+		count.reset();
+		sum.reset();
+		max.set(0L);
+	}
+}
@@ -0,0 +1,247 @@
+package io.github.hdfg159.scheduler.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 调度统计注册表<br>
+ * 直方图和计数器为固定内存无锁记录,队列长度、线程池状态等通过注册的取值函数在读取时计算
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class SchedulerMetrics implements SchedulerMetricsMXBean {
+	/**
+	 * 重试次数
+	 */
+	public static final String COUNTER_RETRY = "job.retry";
+	/**
+	 * 任务执行异常次数
+	 */
+	public static final String COUNTER_EXCEPTION = "job.exception";
+	/**
+	 * 已取消触发器被取出次数
+	 */
+	public static final String COUNTER_CANCELLED = "job.cancelled";
+	/**
+	 * 错过执行次数
+	 */
+	public static final String COUNTER_MISFIRE = "job.misfire";
+	/**
+	 * 线程池已满在取任务线程执行次数
+	 */
+	public static final String COUNTER_OVERLOAD_CALLER_RUNS = "overload.callerRuns";
+	/**
+	 * 线程池已满合并执行次数
+	 */
+	public static final String COUNTER_OVERLOAD_COALESCE = "overload.coalesced";
+	/**
+	 * 线程池已满丢弃最早任务次数
+	 */
+	public static final String COUNTER_OVERLOAD_DROP_OLDEST = "overload.dropOldest";
+	/**
+	 * 线程池已满重新放入调度队列次数
+	 */
+	public static final String COUNTER_OVERLOAD_REQUEUE = "overload.requeued";
+	/**
+	 * 线程池已满视为错过执行次数
+	 */
+	public static final String COUNTER_OVERLOAD_MISFIRE = "overload.misfired";
+	/**
+	 * 集群中由其他节点执行跳过次数
+	 */
+	public static final String COUNTER_CLUSTER_SKIPPED = "cluster.skipped";
+	/**
+	 * 达到最大并发执行数跳过次数
+	 */
+	public static final String COUNTER_CONCURRENCY_SKIPPED = "concurrency.skipped";
+	/**
+	 * 达到最大并发执行数合并次数
+	 */
+	public static final String COUNTER_CONCURRENCY_COALESCED = "concurrency.coalesced";
+	/**
+	 * 达到最大并发执行数暂存次数
+	 */
+	public static final String COUNTER_CONCURRENCY_QUEUED = "concurrency.queued";
+	/**
+	 * 单个触发器耗时直方图桶数量位数(4 个桶,误差约 25%,单个约 2KB)
+	 */
+	private static final int TRIGGER_SUB_BUCKET_BITS = 2;
+
+	/**
+	 * 触发延迟(毫秒)
+	 */
+	private final Histogram fireLag = new Histogram();
+	/**
+	 * 任务执行耗时(毫秒)
+	 */
+	private final Histogram costTime = new Histogram();
+	/**
+	 * 每个触发器执行耗时(毫秒)
+	 */
+	private final Map<String, Histogram> triggerCostTimes = new ConcurrentHashMap<>();
+	/**
+	 * 计数器
+	 */
+	private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+	/**
+	 * 取值函数
+	 */
+	private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+	/**
+	 * 批量分发统计
+	 */
+	private final DispatchMetrics dispatchMetrics = new DispatchMetrics();
+	/**
+	 * 是否统计每个触发器耗时
+	 */
+	private volatile boolean triggerCostTimeEnabled;
+
+	/**
+	 * 记录一次任务执行
+	 *
+	 * @param triggerName
+	 * 		触发器名称
+	 * @param lag
+	 * 		触发延迟(毫秒)
+	 * @param cost
+	 * 		执行耗时(毫秒)
+	 */
+	public void recordRun(String triggerName, long lag, long cost) {
+		fireLag.record(lag);
+		costTime.record(cost);
+		if (triggerCostTimeEnabled) {
+			triggerCostTimes.computeIfAbsent(triggerName, name -> new Histogram(TRIGGER_SUB_BUCKET_BITS)).record(cost);
+		}
+	}
+
+	/**
+	 * 计数器加一
+	 *
+	 * @param name
+	 * 		计数器名称
+	 */
+	public void increment(String name) {
+		counters.computeIfAbsent(name, key -> new LongAdder()).increment();
+	}
+
+	/**
+	 * 获取计数器值
+	 *
+	 * @param name
+	 * 		计数器名称
+	 *
+	 * @return long
+	 */
+	public long getCounter(String name) {
+		LongAdder adder = counters.get(name);
+		return adder == null ? 0L : adder.sum();
+	}
+
+	/**
+	 * 注册取值函数
+	 *
+	 * @param name
+	 * 		名称
+	 * @param supplier
+	 * 		取值函数
+	 *
+	 * @return SchedulerMetrics
+	 */
+	public SchedulerMetrics gauge(String name, LongSupplier supplier) {
+		gauges.put(name, supplier);
+		return this;
+	}
+
+	/**
+	 * 设置是否统计每个触发器耗时
+	 *
+	 * @param enabled
+	 * 		是否统计
+	 *
+	 * @return SchedulerMetrics
+	 */
+	public SchedulerMetrics triggerCostTimeEnabled(boolean enabled) {
+		this.triggerCostTimeEnabled = enabled;
+		return this;
+	}
+
+	/**
+	 * 移除触发器耗时统计
+	 *
+	 * @param triggerName
+	 * 		触发器名称
+	 */
+	public void removeTriggerCostTime(String triggerName) {
+		triggerCostTimes.remove(triggerName);
+	}
+
+	public Histogram getFireLag() {
+		return fireLag;
+	}
+
+	public Histogram getCostTime() {
+		return costTime;
+	}
+
+	/**
+	 * 获取触发器耗时直方图
+	 *
+	 * @param triggerName
+	 * 		触发器名称
+	 *
+	 * @return Histogram,没有统计时为 null
+	 */
+	public Histogram getTriggerCostTime(String triggerName) {
+		return triggerCostTimes.get(triggerName);
+	}
+
+	public DispatchMetrics getDispatchMetrics() {
+		return dispatchMetrics;
+	}
+
+	@Override
+	public Map<String, Long> getSnapshot() {
+		Map<String, Long> snapshot = new TreeMap<>();
+		putHistogram(snapshot, "fire.lag", fireLag);
+		putHistogram(snapshot, "job.cost", costTime);
+		counters.forEach((name, adder) -> snapshot.put(name, adder.sum()));
+		gauges.forEach((name, supplier) -> snapshot.put(name, supplier.getAsLong()));
+		snapshot.put("dispatch.bursts", dispatchMetrics.getBursts());
+		snapshot.put("dispatch.dispatched", dispatchMetrics.getDispatched());
+		snapshot.put("dispatch.burst.last", dispatchMetrics.getLastBurstSize());
+		snapshot.put("dispatch.burst.max", dispatchMetrics.getMaxBurstSize());
+		return Collections.unmodifiableMap(snapshot);
+	}
+
+	private void putHistogram(Map<String, Long> snapshot, String prefix, Histogram histogram) {
+		snapshot.put(prefix + ".count", histogram.getCount());
+		snapshot.put(prefix + ".mean", Math.round(histogram.getMean()));
+		snapshot.put(prefix + ".p50", histogram.getValueAtPercentile(50D));
+		snapshot.put(prefix + ".p99", histogram.getValueAtPercentile(99D));
+		snapshot.put(prefix + ".p999", histogram.getValueAtPercentile(99.9D));
+		snapshot.put(prefix + ".max", histogram.getMax());
+	}
+
+	@Override
+	public long getFireLagPercentile(double percentile) {
+		return fireLag.getValueAtPercentile(percentile);
+	}
+
+	@Override
+	public long getCostTimePercentile(double percentile) {
+		return costTime.getValueAtPercentile(percentile);
+	}
+
+	@Override
+	public void reset() {
+		fireLag.reset();
+		costTime.reset();
+		triggerCostTimes.clear();
+		counters.values().forEach(LongAdder::reset);
+	}
+}
@@ -0,0 +1,43 @@
+package io.github.hdfg159.scheduler.metrics;
+
+import java.util.Map;
+
+/**
+ * 调度统计 JMX 接口
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public interface SchedulerMetricsMXBean {
+	/**
+	 * 获取所有统计快照
+	 *
+	 * @return {@code Map<String, Long>} [统计名称:值]
+	 */
+	Map<String, Long> getSnapshot();
+
+	/**
+	 * 获取触发延迟(任务开始时间 - 计划执行时间)百分位
+	 *
+	 * @param percentile
+	 * 		百分位,例如 99.9
+	 *
+	 * @return long 毫秒
+	 */
+	long getFireLagPercentile(double percentile);
+
+	/**
+	 * 获取任务执行耗时百分位
+	 *
+	 * @param percentile
+	 * 		百分位,例如 99.9
+	 *
+	 * @return long 毫秒
+	 */
+	long getCostTimePercentile(double percentile);
+
+	/**
+	 * 重置直方图和计数器
+	 */
+	void reset();
+}
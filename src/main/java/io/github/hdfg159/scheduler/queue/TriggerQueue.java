@@ -0,0 +1,129 @@
+package io.github.hdfg159.scheduler.queue;
+
+import io.github.hdfg159.scheduler.trigger.Trigger;
+
+import java.util.Collection;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+/**
+ * 定时任务组件 触发器延迟队列 接口
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public interface TriggerQueue extends Iterable<Trigger> {
+	/**
+	 * 初始化
+	 *
+	 * @param properties
+	 * 		调度配置
+	 */
+	void initialize(Properties properties);
+
+	/**
+	 * 放入触发器
+	 *
+	 * @param trigger
+	 * 		触发器
+	 *
+	 * @return boolean true:放入成功,false:放入失败
+	 */
+	boolean add(Trigger trigger);
+
+	/**
+	 * 批量放入触发器,按照顺序放入,放入失败时停止
+	 *
+	 * @param triggers
+	 * 		触发器
+	 *
+	 * @return int 放入成功数量(前 n 个放入成功)
+	 */
+	default int addAll(Collection<? extends Trigger> triggers) {
+		int count = 0;
+		for (Trigger trigger : triggers) {
+			if (!add(trigger)) {
+				break;
+			}
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * 阻塞获取到期的触发器
+	 *
+	 * @return Trigger
+	 *
+	 * @throws InterruptedException
+	 * 		等待时被中断
+	 */
+	Trigger take() throws InterruptedException;
+
+	/**
+	 * 非阻塞取出所有已到期的触发器
+	 *
+	 * @param collection
+	 * 		存放取出的触发器
+	 * @param maxElements
+	 * 		最多取出数量
+	 *
+	 * @return int 取出数量
+	 */
+	int drainTo(Collection<? super Trigger> collection, int maxElements);
+
+	/**
+	 * 移除触发器
+	 *
+	 * @param trigger
+	 * 		触发器
+	 *
+	 * @return boolean true:移除成功,false:触发器不在队列中
+	 */
+	boolean remove(Trigger trigger);
+
+	/**
+	 * 修改队列中触发器的执行时间并调整位置
+	 *
+	 * @param trigger
+	 * 		触发器
+	 * @param deadline
+	 * 		新的执行时间毫秒时间戳
+	 *
+	 * @return boolean true:修改成功,false:触发器不在队列中
+	 */
+	default boolean reschedule(Trigger trigger, long deadline) {
+		return update(trigger, t -> t.deadline(deadline));
+	}
+
+	/**
+	 * 修改队列中的触发器并按照修改后的执行时间调整位置,修改期间触发器不会被取出<br>
+	 * 默认实现先移除再放入
+	 *
+	 * @param trigger
+	 * 		触发器
+	 * @param mutator
+	 * 		修改操作(不能修改名称)
+	 *
+	 * @return boolean true:修改成功,false:触发器不在队列中
+	 */
+	default boolean update(Trigger trigger, Consumer<? super Trigger> mutator) {
+		if (!remove(trigger)) {
+			return false;
+		}
+		mutator.accept(trigger);
+		return add(trigger);
+	}
+
+	/**
+	 * 队列中触发器数量
+	 *
+	 * @return int
+	 */
+	int size();
+
+	/**
+	 * 清空队列
+	 */
+	void clear();
+}
@@ -0,0 +1,396 @@
+package io.github.hdfg159.scheduler.queue.impl;
+
+import io.github.hdfg159.scheduler.queue.TriggerQueue;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 延迟队列实现(默认)<br>
+ * 数组二叉堆,与 {@link java.util.concurrent.DelayQueue} 相同的取出方式(leader 线程等待队首到期),
+ * 批量放入只加锁一次,数量较多时直接建堆;每个节点记录在堆中的下标,移除和修改执行时间不需要遍历
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class DelayTriggerQueue implements TriggerQueue {
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	/**
+	 * 队首变化或者到期时通知
+	 */
+	private final Condition available = lock.newCondition();
+	/**
+	 * 二叉堆
+	 */
+	private HeapNode[] heap = new HeapNode[INITIAL_CAPACITY];
+	/**
+	 * 队列中的触发器
+	 */
+	private final Map<Trigger, HeapNode> nodes = new HashMap<>();
+	private int size;
+	/**
+	 * 正在等待队首到期的线程
+	 */
+	private Thread leader;
+
+	@Override
+	public void initialize(Properties properties) {
+		// 无需配置
+	}
+
+	@Override
+	public boolean add(Trigger trigger) {
+		if (trigger == null) {
+			throw new IllegalArgumentException("trigger not allow null");
+		}
+
+		lock.lock();
+		try {
+			HeapNode node = new HeapNode(trigger);
+			if (nodes.putIfAbsent(trigger, node) != null) {
+				return false;
+			}
+			grow(size + 1);
+			siftUp(size++, node);
+			if (heap[0] == node) {
+				leader = null;
+				available.signal();
+			}
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int addAll(Collection<? extends Trigger> triggers) {
+		int count = triggers.size();
+		if (count == 0) {
+			return 0;
+		}
+		for (Trigger trigger : triggers) {
+			if (trigger == null) {
+				throw new IllegalArgumentException("trigger not allow null");
+			}
+		}
+
+		lock.lock();
+		try {
+			HeapNode head = size == 0 ? null : heap[0];
+			grow(size + count);
+			boolean heapify = count >= size >>> 2;
+			int added = 0;
+			for (Trigger trigger : triggers) {
+				HeapNode node = new HeapNode(trigger);
+				if (nodes.putIfAbsent(trigger, node) != null) {
+					break;
+				}
+				if (heapify) {
+					// 放入数量较多,追加后整体建堆 O(n)
+					node.index = size;
+					heap[size++] = node;
+				} else {
+					siftUp(size++, node);
+				}
+				added++;
+			}
+			if (heapify) {
+				for (int i = (size >>> 1) - 1; i >= 0; i--) {
+					siftDown(i, heap[i]);
+				}
+			}
+			if (heap[0] != head) {
+				leader = null;
+				available.signal();
+			}
+			return added;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public Trigger take() throws InterruptedException {
+		lock.lockInterruptibly();
+		try {
+			while (true) {
+				HeapNode first = heap[0];
+				if (first == null) {
+					available.await();
+					continue;
+				}
+
+				long delay = first.getDelay();
+				if (delay <= 0) {
+					return poll();
+				}
+				// 等待时不持有引用
+				first = null;
+				if (leader != null) {
+					available.await();
+					continue;
+				}
+
+				Thread thisThread = Thread.currentThread();
+				leader = thisThread;
+				try {
+					available.awaitNanos(TimeUnit.MILLISECONDS.toNanos(delay));
+				} finally {
+					if (leader == thisThread) {
+						leader = null;
+					}
+				}
+			}
+		} finally {
+			if (leader == null && heap[0] != null) {
+				available.signal();
+			}
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int drainTo(Collection<? super Trigger> collection, int maxElements) {
+		lock.lock();
+		try {
+			int count = 0;
+			while (count < maxElements && size > 0 && heap[0].getDelay() <= 0) {
+				collection.add(poll());
+				count++;
+			}
+			return count;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean remove(Trigger trigger) {
+		lock.lock();
+		try {
+			HeapNode node = nodes.remove(trigger);
+			if (node == null) {
+				return false;
+			}
+
+			int index = node.index;
+			removeAt(index);
+			if (index == 0) {
+				// 队首被移除,等待中的 leader 需要重新计算等待时间
+				leader = null;
+				available.signal();
+			}
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean reschedule(Trigger trigger, long deadline) {
+		lock.lock();
+		try {
+			HeapNode node = nodes.get(trigger);
+			if (node == null) {
+				return false;
+			}
+			trigger.deadline(deadline);
+			resift(node);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean update(Trigger trigger, Consumer<? super Trigger> mutator) {
+		lock.lock();
+		try {
+			HeapNode node = nodes.get(trigger);
+			if (node == null) {
+				return false;
+			}
+			mutator.accept(trigger);
+			resift(node);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 按照触发器当前执行时间调整节点位置(持有锁)
+	 *
+	 * @param node
+	 * 		节点
+	 */
+	private void resift(HeapNode node) {
+		HeapNode head = heap[0];
+		node.deadline = node.trigger.getDeadline();
+		int index = node.index;
+		siftUp(index, node);
+		if (node.index == index) {
+			siftDown(index, node);
+		}
+		if (heap[0] != head || head == node) {
+			// 队首变化或者队首执行时间变化,等待中的 leader 需要重新计算等待时间
+			leader = null;
+			available.signal();
+		}
+	}
+
+	@Override
+	public int size() {
+		lock.lock();
+		try {
+			return size;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		lock.lock();
+		try {
+			Arrays.fill(heap, 0, size, null);
+			nodes.clear();
+			size = 0;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public Iterator<Trigger> iterator() {
+		lock.lock();
+		try {
+			// 快照,不受后续修改影响
+			List<Trigger> triggers = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				triggers.add(heap[i].trigger);
+			}
+			return Collections.unmodifiableList(triggers).iterator();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 取出队首(持有锁并且队列不为空)
+	 *
+	 * @return Trigger
+	 */
+	private Trigger poll() {
+		HeapNode first = heap[0];
+		nodes.remove(first.trigger);
+		removeAt(0);
+		return first.trigger;
+	}
+
+	private void removeAt(int index) {
+		int last = --size;
+		HeapNode moved = heap[last];
+		heap[last] = null;
+		if (index == last) {
+			return;
+		}
+
+		siftDown(index, moved);
+		if (heap[index] == moved) {
+			siftUp(index, moved);
+		}
+	}
+
+	private void siftUp(int index, HeapNode node) {
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			HeapNode parentNode = heap[parent];
+			if (node.compareTo(parentNode) >= 0) {
+				break;
+			}
+			heap[index] = parentNode;
+			parentNode.index = index;
+			index = parent;
+		}
+		heap[index] = node;
+		node.index = index;
+	}
+
+	private void siftDown(int index, HeapNode node) {
+		int half = size >>> 1;
+		while (index < half) {
+			int child = (index << 1) + 1;
+			HeapNode childNode = heap[child];
+			int right = child + 1;
+			if (right < size && childNode.compareTo(heap[right]) > 0) {
+				child = right;
+				childNode = heap[child];
+			}
+			if (node.compareTo(childNode) <= 0) {
+				break;
+			}
+			heap[index] = childNode;
+			childNode.index = index;
+			index = child;
+		}
+		heap[index] = node;
+		node.index = index;
+	}
+
+	private void grow(int minCapacity) {
+		if (minCapacity <= heap.length) {
+			return;
+		}
+		int capacity = Math.max(minCapacity, heap.length + (heap.length >>> 1));
+		heap = Arrays.copyOf(heap, capacity);
+	}
+
+	/**
+	 * 堆节点,放入和修改时记录执行时间,排序不受队列中触发器被直接修改影响
+	 */
+	private static final class HeapNode {
+		private final Trigger trigger;
+		private long deadline;
+		private final long id;
+		/**
+		 * 在堆中的下标
+		 */
+		private int index;
+
+		private HeapNode(Trigger trigger) {
+			this.trigger = trigger;
+			this.deadline = trigger.getDeadline();
+			this.id = trigger.getId();
+		}
+
+		/**
+		 * 距离执行时间(毫秒)
+		 *
+		 * @return long
+		 */
+		private long getDelay() {
+			return deadline - System.currentTimeMillis();
+		}
+
+		private int compareTo(HeapNode other) {
+			int compare = Long.compare(deadline, other.deadline);
+			// 执行时间相同,按照放入有序的id比较
+			return compare != 0 ? compare : Long.compare(id, other.id);
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package io.github.hdfg159.scheduler.queue.impl;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 时间轮 槽位(环形双向链表)
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+final class TimerBucket implements Delayed {
+	/**
+	 * 链表哨兵节点
+	 */
+	private final TimerEntry root = new TimerEntry(null, -1L);
+	/**
+	 * 槽位到期时间,-1 表示当前不在延迟队列中
+	 */
+	private final AtomicLong expiration = new AtomicLong(-1L);
+
+	TimerBucket() {
+		root.next = root;
+		root.prev = root;
+	}
+
+	/**
+	 * 设置槽位到期时间
+	 *
+	 * @param expirationMs
+	 * 		到期时间(毫秒时间戳)
+	 *
+	 * @return boolean true:到期时间发生变化,需要重新放入延迟队列
+	 */
+	boolean setExpiration(long expirationMs) {
+		return expiration.getAndSet(expirationMs) != expirationMs;
+	}
+
+	long getExpiration() {
+		return expiration.get();
+	}
+
+	/**
+	 * 加入节点,O(1)
+	 *
+	 * @param entry
+	 * 		节点
+	 */
+	void add(TimerEntry entry) {
+		boolean done = false;
+		while (!done) {
+			// 节点可能还挂在其他槽位,先摘除
+			entry.remove();
+
+			synchronized (this) {
+				synchronized (entry) {
+					if (entry.bucket == null) {
+						TimerEntry tail = root.prev;
+						entry.next = root;
+						entry.prev = tail;
+						entry.bucket = this;
+						tail.next = entry;
+						root.prev = entry;
+						done = true;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * 摘除节点,O(1)
+	 *
+	 * @param entry
+	 * 		节点
+	 */
+	synchronized void remove(TimerEntry entry) {
+		synchronized (entry) {
+			if (entry.bucket == this) {
+				entry.next.prev = entry.prev;
+				entry.prev.next = entry.next;
+				entry.next = null;
+				entry.prev = null;
+				entry.bucket = null;
+			}
+		}
+	}
+
+	/**
+	 * 取出槽位所有节点交给消费者处理,并重置到期时间
+	 *
+	 * @param consumer
+	 * 		节点消费
+	 */
+	synchronized void flush(Consumer<TimerEntry> consumer) {
+		TimerEntry head = root.next;
+		while (head != root) {
+			remove(head);
+			consumer.accept(head);
+			head = root.next;
+		}
+		expiration.set(-1L);
+	}
+
+	@Override
+	public long getDelay(TimeUnit unit) {
+		long delay = getExpiration() - System.currentTimeMillis();
+		return unit.convert(Math.max(delay, 0L), TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public int compareTo(Delayed o) {
+		return Long.compare(getExpiration(), ((TimerBucket) o).getExpiration());
+	}
+}
@@ -0,0 +1,42 @@
+package io.github.hdfg159.scheduler.queue.impl;
+
+import io.github.hdfg159.scheduler.trigger.Trigger;
+
+/**
+ * 时间轮 槽位双向链表节点
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+final class TimerEntry {
+	/**
+	 * 触发器
+	 */
+	final Trigger trigger;
+	/**
+	 * 到期时间(毫秒时间戳)
+	 */
+	final long expiration;
+	/**
+	 * 所在槽位,不在任何槽位时为 null
+	 */
+	volatile TimerBucket bucket;
+	TimerEntry prev;
+	TimerEntry next;
+
+	TimerEntry(Trigger trigger, long expiration) {
+		this.trigger = trigger;
+		this.expiration = expiration;
+	}
+
+	/**
+	 * 从所在槽位摘除,槽位可能在时间轮推进时并发变化,所以需要循环确认
+	 */
+	void remove() {
+		TimerBucket currentBucket = bucket;
+		while (currentBucket != null) {
+			currentBucket.remove(this);
+			currentBucket = bucket;
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package io.github.hdfg159.scheduler.queue.impl;
+
+import java.util.concurrent.DelayQueue;
+
+/**
+ * 分层时间轮,超出当前层范围的节点放入上层(溢出)时间轮,上层按需创建
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+final class TimingWheel {
+	/**
+	 * 每格时间跨度(毫秒)
+	 */
+	private final long tickMs;
+	/**
+	 * 格数
+	 */
+	private final int wheelSize;
+	/**
+	 * 当前层时间跨度
+	 */
+	private final long interval;
+	private final TimerBucket[] buckets;
+	/**
+	 * 有节点的槽位延迟队列,所有层共享
+	 */
+	private final DelayQueue<TimerBucket> bucketQueue;
+	/**
+	 * 是否最底层时间轮
+	 */
+	private final boolean lowest;
+	/**
+	 * 当前时间(tickMs 整数倍),不会超过实际时间
+	 */
+	private long currentTime;
+	/**
+	 * 上层时间轮
+	 */
+	private volatile TimingWheel overflowWheel;
+
+	TimingWheel(long tickMs, int wheelSize, long startMs, DelayQueue<TimerBucket> bucketQueue) {
+		this(tickMs, wheelSize, startMs, bucketQueue, true);
+	}
+
+	private TimingWheel(long tickMs, int wheelSize, long startMs, DelayQueue<TimerBucket> bucketQueue, boolean lowest) {
+		this.tickMs = tickMs;
+		this.lowest = lowest;
+		this.wheelSize = wheelSize;
+		this.interval = tickMs * wheelSize;
+		this.bucketQueue = bucketQueue;
+		this.currentTime = startMs - (startMs % tickMs);
+		this.buckets = new TimerBucket[wheelSize];
+		for (int i = 0; i < wheelSize; i++) {
+			buckets[i] = new TimerBucket();
+		}
+	}
+
+	/**
+	 * 加入节点
+	 *
+	 * @param entry
+	 * 		节点
+	 *
+	 * @return boolean true:放入槽位,false:已经到期
+	 */
+	boolean add(TimerEntry entry) {
+		long expiration = entry.expiration;
+		// 最底层只有不晚于当前时间的才算到期,上层不足一格的交给下层处理(下层范围已覆盖,不会出现)
+		if (lowest ? expiration <= currentTime : expiration < currentTime + tickMs) {
+			return false;
+		}
+
+		if (expiration < currentTime + interval) {
+			long virtualId = expiration / tickMs;
+			TimerBucket bucket = buckets[(int) (virtualId % wheelSize)];
+			bucket.add(entry);
+			// 最底层槽位在格末尾到期,槽位内节点不会提前触发;上层槽位在格开始到期,到期后放入下层继续等待
+			long bucketExpiration = lowest ? (virtualId + 1) * tickMs : virtualId * tickMs;
+			if (bucket.setExpiration(bucketExpiration)) {
+				// 槽位进入新一轮,需要重新放入延迟队列
+				bucketQueue.offer(bucket);
+			}
+			return true;
+		}
+
+		return getOverflowWheel().add(entry);
+	}
+
+	/**
+	 * 推进时间
+	 *
+	 * @param timeMs
+	 * 		到期槽位时间
+	 */
+	void advanceClock(long timeMs) {
+		if (timeMs >= currentTime + tickMs) {
+			currentTime = timeMs - (timeMs % tickMs);
+			TimingWheel overflow = overflowWheel;
+			if (overflow != null) {
+				overflow.advanceClock(currentTime);
+			}
+		}
+	}
+
+	private TimingWheel getOverflowWheel() {
+		TimingWheel overflow = overflowWheel;
+		if (overflow == null) {
+			synchronized (this) {
+				overflow = overflowWheel;
+				if (overflow == null) {
+					overflow = new TimingWheel(interval, wheelSize, currentTime, bucketQueue, false);
+					overflowWheel = overflow;
+				}
+			}
+		}
+		return overflow;
+	}
+}
@@ -0,0 +1,225 @@
+package io.github.hdfg159.scheduler.queue.impl;
+
+import io.github.hdfg159.scheduler.queue.TriggerQueue;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 分层哈希时间轮实现<br>
+ * 放入和移除为 O(1),只有槽位(而不是每个触发器)进入延迟队列排序,触发精度为一格时间跨度(只会延后,不会提前触发)
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class TimingWheelTriggerQueue implements TriggerQueue {
+	/**
+	 * 默认每格时间跨度(毫秒)
+	 */
+	private static final long TICK_DURATION = 1L;
+	/**
+	 * 默认每层格数
+	 */
+	private static final int WHEEL_SIZE = 512;
+	private static final String PROPERTIES_TICK_DURATION = "scheduler.timingWheel.tickDuration";
+	private static final String PROPERTIES_WHEEL_SIZE = "scheduler.timingWheel.wheelSize";
+
+	/**
+	 * 有节点的槽位延迟队列
+	 */
+	private final DelayQueue<TimerBucket> bucketQueue = new DelayQueue<>();
+	/**
+	 * 队列中的触发器
+	 */
+	private final Map<Trigger, TimerEntry> entries = new ConcurrentHashMap<>();
+	/**
+	 * 已到期等待取出的节点
+	 */
+	private final Queue<TimerEntry> expiredEntries = new ConcurrentLinkedQueue<>();
+	/**
+	 * 放入时已经到期的节点槽位,用于唤醒取任务线程
+	 */
+	private final TimerBucket dueBucket = new TimerBucket();
+	/**
+	 * 放入(读锁)和推进时间(写锁)互斥
+	 */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private TimingWheel timingWheel;
+
+	@Override
+	public void initialize(Properties properties) {
+		long tickDuration = Optional.ofNullable(properties.getProperty(PROPERTIES_TICK_DURATION))
+				.map(Long::parseLong)
+				.orElse(TICK_DURATION);
+		int wheelSize = Optional.ofNullable(properties.getProperty(PROPERTIES_WHEEL_SIZE))
+				.map(Integer::parseInt)
+				.orElse(WHEEL_SIZE);
+		if (tickDuration <= 0) {
+			throw new IllegalArgumentException("timing wheel tick duration must be > 0");
+		}
+		if (wheelSize <= 1) {
+			throw new IllegalArgumentException("timing wheel size must be > 1");
+		}
+
+		timingWheel = new TimingWheel(tickDuration, wheelSize, System.currentTimeMillis(), bucketQueue);
+	}
+
+	@Override
+	public boolean add(Trigger trigger) {
+		TimerEntry entry = new TimerEntry(trigger, trigger.getDeadline());
+		if (entries.putIfAbsent(trigger, entry) != null) {
+			return false;
+		}
+
+		lock.readLock().lock();
+		try {
+			addEntry(entry);
+		} finally {
+			lock.readLock().unlock();
+		}
+		return true;
+	}
+
+	@Override
+	public int addAll(Collection<? extends Trigger> triggers) {
+		int count = 0;
+		lock.readLock().lock();
+		try {
+			for (Trigger trigger : triggers) {
+				TimerEntry entry = new TimerEntry(trigger, trigger.getDeadline());
+				if (entries.putIfAbsent(trigger, entry) != null) {
+					break;
+				}
+				addEntry(entry);
+				count++;
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return count;
+	}
+
+	/**
+	 * 节点放入时间轮,已经到期的放入到期槽位(持有读锁)
+	 *
+	 * @param entry
+	 * 		节点
+	 */
+	private void addEntry(TimerEntry entry) {
+		if (!timingWheel.add(entry)) {
+			dueBucket.add(entry);
+			if (dueBucket.setExpiration(0L)) {
+				bucketQueue.offer(dueBucket);
+			}
+		}
+	}
+
+	@Override
+	public Trigger take() throws InterruptedException {
+		while (true) {
+			TimerEntry entry = expiredEntries.poll();
+			if (entry != null) {
+				// 只有仍在队列中(未被移除)的触发器才返回
+				if (entries.remove(entry.trigger, entry)) {
+					return entry.trigger;
+				}
+				continue;
+			}
+
+			advance(bucketQueue.take());
+		}
+	}
+
+	@Override
+	public int drainTo(Collection<? super Trigger> collection, int maxElements) {
+		TimerBucket bucket = bucketQueue.poll();
+		if (bucket != null) {
+			advance(bucket);
+		}
+
+		int count = 0;
+		while (count < maxElements) {
+			TimerEntry entry = expiredEntries.poll();
+			if (entry == null) {
+				break;
+			}
+			if (entries.remove(entry.trigger, entry)) {
+				collection.add(entry.trigger);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 推进时间轮,处理所有到期槽位
+	 *
+	 * @param bucket
+	 * 		第一个到期槽位
+	 */
+	private void advance(TimerBucket bucket) {
+		lock.writeLock().lock();
+		try {
+			while (bucket != null) {
+				timingWheel.advanceClock(bucket.getExpiration());
+				bucket.flush(this::reinsert);
+				bucket = bucketQueue.poll();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 槽位到期后重新放入低层时间轮,已经到期的放入到期队列
+	 *
+	 * @param entry
+	 * 		节点
+	 */
+	private void reinsert(TimerEntry entry) {
+		if (entries.get(entry.trigger) != entry) {
+			return;
+		}
+
+		if (!timingWheel.add(entry)) {
+			expiredEntries.offer(entry);
+		}
+	}
+
+	@Override
+	public boolean remove(Trigger trigger) {
+		TimerEntry entry = entries.remove(trigger);
+		if (entry == null) {
+			return false;
+		}
+
+		entry.remove();
+		return true;
+	}
+
+	@Override
+	public int size() {
+		return entries.size();
+	}
+
+	@Override
+	public void clear() {
+		entries.keySet().forEach(this::remove);
+		expiredEntries.clear();
+	}
+
+	@Override
+	public Iterator<Trigger> iterator() {
+		return new ArrayList<>(entries.keySet()).iterator();
+	}
+}
@@ -0,0 +1,39 @@
+package io.github.hdfg159.scheduler.store;
+
+import io.github.hdfg159.scheduler.trigger.Trigger;
+
+import java.io.IOException;
+
+/**
+ * 触发器编码 接口
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public interface TriggerCodec {
+	/**
+	 * 编码
+	 *
+	 * @param trigger
+	 * 		触发器
+	 *
+	 * @return byte[]
+	 *
+	 * @throws IOException
+	 * 		编码错误
+	 */
+	byte[] encode(Trigger trigger) throws IOException;
+	
+	/**
+	 * 解码
+	 *
+	 * @param bytes
+	 * 		编码后数据
+	 *
+	 * @return Trigger
+	 *
+	 * @throws IOException
+	 * 		解码错误
+	 */
+	Trigger decode(byte[] bytes) throws IOException;
+}
@@ -0,0 +1,84 @@
+package io.github.hdfg159.scheduler.store;
+
+import io.github.hdfg159.scheduler.trigger.Trigger;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 触发器持久化存储 接口<br>
+ * 只保存设置了任务标识({@link Trigger#getJobKey()})的触发器,重启后通过任务标识重新关联任务
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public interface TriggerStore {
+	/**
+	 * 初始化
+	 *
+	 * @param properties
+	 * 		配置
+	 */
+	void initialize(Properties properties);
+	
+	/**
+	 * 加入调度(包括下一次执行重新加入调度)
+	 *
+	 * @param trigger
+	 * 		触发器
+	 */
+	void schedule(Trigger trigger);
+	
+	/**
+	 * 批量加入调度
+	 *
+	 * @param triggers
+	 * 		触发器
+	 */
+	default void scheduleAll(Collection<? extends Trigger> triggers) {
+		for (Trigger trigger : triggers) {
+			schedule(trigger);
+		}
+	}
+	
+	/**
+	 * 取消调度
+	 *
+	 * @param triggerName
+	 * 		触发器名称
+	 */
+	void cancel(String triggerName);
+	
+	/**
+	 * 开始执行,恢复时已经开始执行但是未完成的触发器不会再次执行,直接进入下一次执行时间
+	 *
+	 * @param triggerName
+	 * 		触发器名称
+	 * @param triggerId
+	 * 		开始执行时的触发器 ID
+	 */
+	void fire(String triggerName, long triggerId);
+	
+	/**
+	 * 执行完成,没有再次加入调度的触发器从存储中移除
+	 *
+	 * @param triggerName
+	 * 		触发器名称
+	 * @param triggerId
+	 * 		开始执行时的触发器 ID
+	 */
+	void complete(String triggerName, long triggerId);
+	
+	/**
+	 * 恢复保存的触发器(任务需要重新关联)
+	 *
+	 * @return {@code List<Trigger>}
+	 */
+	List<Trigger> recover();
+	
+	/**
+	 * 关闭,写入所有未刷盘的记录
+	 */
+	void close();
+}
@@ -0,0 +1,246 @@
+package io.github.hdfg159.scheduler.store.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * 内存映射日志文件<br>
+ * 记录格式:长度(4 字节,类型+内容长度) + CRC32(4 字节,类型+内容) + 类型(1 字节) + 内容,文件预分配并以 0 填充,长度为 0 表示结束
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+class JournalFile implements Closeable {
+	/**
+	 * 记录头长度:长度 + CRC32
+	 */
+	static final int HEADER_SIZE = 8;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	/**
+	 * 是否有未刷盘记录
+	 */
+	private volatile boolean dirty = false;
+	private int records = 0;
+
+	private JournalFile(FileChannel channel, MappedByteBuffer buffer) {
+		this.channel = channel;
+		this.buffer = buffer;
+	}
+
+	/**
+	 * 创建日志文件
+	 *
+	 * @param path
+	 * 		路径
+	 * @param size
+	 * 		文件大小
+	 *
+	 * @return JournalFile
+	 *
+	 * @throws IOException
+	 * 		创建错误
+	 */
+	static JournalFile create(Path path, int size) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			return new JournalFile(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * 打开已有日志文件继续追加,读取全部记录后定位到最后一条记录之后
+	 *
+	 * @param path
+	 * 		路径
+	 * @param handler
+	 * 		记录处理
+	 *
+	 * @return JournalFile 遇到损坏记录时返回 null(不能继续追加)
+	 *
+	 * @throws IOException
+	 * 		读取错误
+	 */
+	static JournalFile open(Path path, RecordHandler handler) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+			int records = scan(buffer, handler);
+			if (records < 0) {
+				channel.close();
+				return null;
+			}
+			JournalFile journal = new JournalFile(channel, buffer);
+			journal.records = records;
+			return journal;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * 追加记录,需要外部加锁
+	 *
+	 * @param type
+	 * 		类型
+	 * @param payload
+	 * 		内容
+	 *
+	 * @return boolean false:剩余空间不足
+	 */
+	boolean append(byte type, byte[] payload) {
+		int length = payload.length + 1;
+		// 保留结束标记
+		if (buffer.remaining() < HEADER_SIZE + length + 4) {
+			return false;
+		}
+
+		buffer.putInt(length);
+		buffer.putInt(crc(type, payload));
+		buffer.put(type);
+		buffer.put(payload);
+		records++;
+		dirty = true;
+		return true;
+	}
+
+	/**
+	 * 写入磁盘
+	 */
+	void force() {
+		if (dirty) {
+			dirty = false;
+			buffer.force();
+		}
+	}
+
+	/**
+	 * 记录数量
+	 *
+	 * @return int
+	 */
+	int records() {
+		return records;
+	}
+
+	@Override
+	public void close() throws IOException {
+		force();
+		channel.close();
+	}
+
+	static int crc(byte type, byte[] payload) {
+		CRC32 crc32 = new CRC32();
+		crc32.update(type);
+		crc32.update(payload, 0, payload.length);
+		return (int) crc32.getValue();
+	}
+
+	/**
+	 * 编码单条记录
+	 *
+	 * @param type
+	 * 		类型
+	 * @param payload
+	 * 		内容
+	 *
+	 * @return ByteBuffer
+	 */
+	static ByteBuffer encode(byte type, byte[] payload) {
+		ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + 1 + payload.length);
+		record.putInt(payload.length + 1);
+		record.putInt(crc(type, payload));
+		record.put(type);
+		record.put(payload);
+		record.flip();
+		return record;
+	}
+
+	/**
+	 * 按顺序读取记录,遇到结束标记、不完整或者校验失败的记录停止
+	 *
+	 * @param path
+	 * 		路径
+	 * @param handler
+	 * 		记录处理
+	 *
+	 * @return boolean true:完整读取,false:遇到损坏记录
+	 *
+	 * @throws IOException
+	 * 		读取错误
+	 */
+	static boolean read(Path path, RecordHandler handler) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return scan(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), handler) >= 0;
+		}
+	}
+
+	/**
+	 * 从当前位置按顺序读取记录,完整读取时停在结束标记(最后一条记录之后)
+	 *
+	 * @param buffer
+	 * 		日志内容
+	 * @param handler
+	 * 		记录处理
+	 *
+	 * @return int 读取的记录数量,遇到损坏记录时为 -1
+	 *
+	 * @throws IOException
+	 * 		内容解析错误
+	 */
+	private static int scan(ByteBuffer buffer, RecordHandler handler) throws IOException {
+		int records = 0;
+		while (buffer.remaining() >= HEADER_SIZE) {
+			int position = buffer.position();
+			int length = buffer.getInt();
+			if (length == 0) {
+				buffer.position(position);
+				return records;
+			}
+			if (length < 0 || length > buffer.remaining() - 4) {
+				return -1;
+			}
+
+			int crc = buffer.getInt();
+			byte type = buffer.get();
+			byte[] payload = new byte[length - 1];
+			buffer.get(payload);
+			if (crc != crc(type, payload)) {
+				return -1;
+			}
+			handler.handle(type, payload);
+			records++;
+		}
+		return records;
+	}
+
+	/**
+	 * 记录处理
+	 */
+	@FunctionalInterface
+	interface RecordHandler {
+		/**
+		 * 处理记录
+		 *
+		 * @param type
+		 * 		类型
+		 * @param payload
+		 * 		内容
+		 *
+		 * @throws IOException
+		 * 		内容解析错误
+		 */
+		void handle(byte type, byte[] payload) throws IOException;
+	}
+}
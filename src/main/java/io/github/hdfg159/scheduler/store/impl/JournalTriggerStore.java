@@ -0,0 +1,640 @@
+package io.github.hdfg159.scheduler.store.impl;
+
+import io.github.hdfg159.scheduler.store.TriggerCodec;
+import io.github.hdfg159.scheduler.store.TriggerStore;
+import io.github.hdfg159.scheduler.thread.ThreadPool;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+import io.github.hdfg159.scheduler.util.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * 追加日志持久化存储 实现<br>
+ * 调度、取消、开始执行、执行完成按顺序追加到内存映射日志文件,写入后延迟批量刷盘(group commit),没有写入时刷盘线程不唤醒;
+ * 日志写满或者超过快照间隔时写入快照(当前全部触发器)并切换新日志文件,恢复时读取最新快照再重放之后的日志,最后一个日志完整时继续追加(启动不写入快照)<br>
+ * 文件:snapshot-N.dat 为 journal-N.log 之前的全部状态,journal-N.log 为之后的记录
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class JournalTriggerStore implements TriggerStore {
+	private static final Logger log = LoggerFactory.getLogger(JournalTriggerStore.class);
+	private static final String PROPERTIES_DIR = "scheduler.store.dir";
+	private static final String PROPERTIES_JOURNAL_SIZE = "scheduler.store.journalSize";
+	private static final String PROPERTIES_FLUSH_INTERVAL = "scheduler.store.flushInterval";
+	private static final String PROPERTIES_SNAPSHOT_INTERVAL = "scheduler.store.snapshotInterval";
+	/**
+	 * 触发器编码配置前缀,scheduler.store.codec.&lt;触发器类名&gt;=&lt;编码类名&gt;
+	 */
+	private static final String PROPERTIES_CODEC_PREFIX = "scheduler.store.codec.";
+	/**
+	 * 默认存储目录
+	 */
+	private static final String DIR = "scheduler-store";
+	/**
+	 * 默认日志文件大小(64MB)
+	 */
+	private static final int JOURNAL_SIZE = 64 * 1024 * 1024;
+	/**
+	 * 默认刷盘间隔(毫秒),0 为每次写入刷盘
+	 */
+	private static final long FLUSH_INTERVAL = 10L;
+	/**
+	 * 默认快照间隔(毫秒)
+	 */
+	private static final long SNAPSHOT_INTERVAL = 10 * 60 * 1000L;
+
+	private static final String JOURNAL_PREFIX = "journal-";
+	private static final String JOURNAL_SUFFIX = ".log";
+	private static final String SNAPSHOT_PREFIX = "snapshot-";
+	private static final String SNAPSHOT_SUFFIX = ".dat";
+
+	private static final byte TYPE_SCHEDULE = 1;
+	private static final byte TYPE_CANCEL = 2;
+	private static final byte TYPE_FIRE = 3;
+	private static final byte TYPE_COMPLETE = 4;
+
+	/**
+	 * 触发器编码 [触发器类名:编码]
+	 */
+	private final Map<String, TriggerCodec> codecs = new ConcurrentHashMap<>();
+	private final TriggerCodec defaultCodec = new SerializableTriggerCodec();
+	private final ReentrantLock lock = new ReentrantLock();
+	/**
+	 * 当前保存的触发器 [名称:触发器],读写需要加锁
+	 */
+	private final Map<String, StoredTrigger> triggers = new HashMap<>();
+
+	private Path dir;
+	private int journalSize;
+	private long flushInterval;
+	private long snapshotInterval;
+	/**
+	 * 当前日志文件序号
+	 */
+	private long sequence;
+	private JournalFile journal;
+	private long lastSnapshotTime;
+	private ScheduledExecutorService flushExecutor;
+	/**
+	 * 是否已经安排刷盘
+	 */
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+	private volatile boolean closed = false;
+
+	@Override
+	public void initialize(Properties properties) {
+		dir = Paths.get(properties.getProperty(PROPERTIES_DIR, DIR));
+		journalSize = Optional.ofNullable(properties.getProperty(PROPERTIES_JOURNAL_SIZE))
+				.map(Integer::parseInt)
+				.orElse(JOURNAL_SIZE);
+		flushInterval = Optional.ofNullable(properties.getProperty(PROPERTIES_FLUSH_INTERVAL))
+				.map(Long::parseLong)
+				.orElse(FLUSH_INTERVAL);
+		snapshotInterval = Optional.ofNullable(properties.getProperty(PROPERTIES_SNAPSHOT_INTERVAL))
+				.map(Long::parseLong)
+				.orElse(SNAPSHOT_INTERVAL);
+		if (journalSize <= 1024) {
+			throw new IllegalArgumentException("store journal size must greater than 1024");
+		}
+		if (flushInterval < 0 || snapshotInterval <= 0) {
+			throw new IllegalArgumentException("store flush interval must >= 0 and snapshot interval must > 0");
+		}
+
+		for (String key : properties.stringPropertyNames()) {
+			if (key.startsWith(PROPERTIES_CODEC_PREFIX)) {
+				String triggerClassName = key.substring(PROPERTIES_CODEC_PREFIX.length());
+				try {
+					Object codec = Class.forName(properties.getProperty(key)).getDeclaredConstructor().newInstance();
+					registerCodec(triggerClassName, (TriggerCodec) codec);
+				} catch (Exception e) {
+					log.error("init trigger codec error:[{}]", key, e);
+				}
+			}
+		}
+
+		try {
+			Files.createDirectories(dir);
+			lock.lock();
+			try {
+				load();
+				if (journal == null) {
+					// 没有可以继续追加的日志(首次启动、日志末尾损坏)时才写入快照
+					roll();
+				}
+			} finally {
+				lock.unlock();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("init journal trigger store error", e);
+		}
+
+		flushExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+				.setNameFormat(ThreadPool.threadName(properties, "scheduler-store-flush-%d"))
+				.setDaemon(true)
+				.setUncaughtExceptionHandler((t, e) -> log.error("thread run error:[{}]", t.getName(), e))
+				.build());
+		log.info("journal trigger store initialized,dir:[{}],triggers:[{}]", dir.toAbsolutePath(), triggers.size());
+	}
+
+	/**
+	 * 注册触发器编码,未注册的触发器使用 Java 序列化
+	 *
+	 * @param triggerClass
+	 * 		触发器类型
+	 * @param codec
+	 * 		编码
+	 */
+	public void registerCodec(Class<? extends Trigger> triggerClass, TriggerCodec codec) {
+		registerCodec(triggerClass.getName(), codec);
+	}
+
+	private void registerCodec(String triggerClassName, TriggerCodec codec) {
+		if (codec == null) {
+			throw new IllegalArgumentException("trigger codec not allow null");
+		}
+		codecs.put(triggerClassName, codec);
+	}
+
+	private TriggerCodec codec(String triggerClassName) {
+		return codecs.getOrDefault(triggerClassName, defaultCodec);
+	}
+
+	@Override
+	public void schedule(Trigger trigger) {
+		if (trigger.getJobKey() == null) {
+			return;
+		}
+
+		// 编码和追加在同一把锁内,同一触发器并发重新调度时日志顺序与状态顺序一致
+		lock.lock();
+		try {
+			byte[] payload = encode(trigger);
+			if (payload != null && append(TYPE_SCHEDULE, payload)) {
+				afterWrite();
+			}
+		} catch (IOException e) {
+			log.error("write journal error", e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void scheduleAll(Collection<? extends Trigger> triggers) {
+		if (triggers.stream().allMatch(trigger -> trigger.getJobKey() == null)) {
+			return;
+		}
+
+		lock.lock();
+		try {
+			boolean written = false;
+			for (Trigger trigger : triggers) {
+				byte[] payload = encode(trigger);
+				if (payload != null) {
+					written |= append(TYPE_SCHEDULE, payload);
+				}
+			}
+			if (written) {
+				afterWrite();
+			}
+		} catch (IOException e) {
+			log.error("write journal error", e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 编码加入调度记录(持有锁)
+	 *
+	 * @param trigger
+	 * 		触发器
+	 *
+	 * @return byte[] 不需要保存或者编码失败返回 null
+	 */
+	private byte[] encode(Trigger trigger) {
+		if (trigger.getJobKey() == null) {
+			return null;
+		}
+
+		String className = trigger.getClass().getName();
+		try {
+			byte[] data = codec(className).encode(trigger);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length + 64);
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeUTF(trigger.getName());
+			out.writeLong(trigger.getId());
+			out.writeUTF(className);
+			out.writeInt(data.length);
+			out.write(data);
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			log.error("encode trigger error:[{}]", trigger.getName(), e);
+			return null;
+		}
+	}
+
+	@Override
+	public void cancel(String triggerName) {
+		write(TYPE_CANCEL, encode(triggerName, null));
+	}
+
+	@Override
+	public void fire(String triggerName, long triggerId) {
+		write(TYPE_FIRE, encode(triggerName, triggerId));
+	}
+
+	@Override
+	public void complete(String triggerName, long triggerId) {
+		write(TYPE_COMPLETE, encode(triggerName, triggerId));
+	}
+
+	private static byte[] encode(String triggerName, Long triggerId) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(triggerName.length() + 16);
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeUTF(triggerName);
+			if (triggerId != null) {
+				out.writeLong(triggerId);
+			}
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * 更新状态并追加日志
+	 *
+	 * @param type
+	 * 		类型
+	 * @param payload
+	 * 		内容
+	 */
+	private void write(byte type, byte[] payload) {
+		lock.lock();
+		try {
+			if (append(type, payload)) {
+				afterWrite();
+			}
+		} catch (IOException e) {
+			log.error("write journal error", e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 更新状态并追加日志(持有锁)
+	 *
+	 * @param type
+	 * 		记录类型
+	 * @param payload
+	 * 		记录内容
+	 *
+	 * @return boolean 是否写入日志
+	 *
+	 * @throws IOException
+	 * 		写入失败
+	 */
+	private boolean append(byte type, byte[] payload) throws IOException {
+		if (closed) {
+			return false;
+		}
+		// 与当前状态无关的记录不写入(未保存的触发器、已经重新调度的执行记录)
+		if (!apply(type, payload)) {
+			return false;
+		}
+
+		if (!journal.append(type, payload)) {
+			// 日志已满,快照后写入新日志
+			roll();
+			if (!journal.append(type, payload)) {
+				log.error("journal record too large,size:[{}],journal size:[{}]", payload.length, journalSize);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 记录应用到当前状态
+	 *
+	 * @param type
+	 * 		类型
+	 * @param payload
+	 * 		内容
+	 *
+	 * @return boolean 状态是否变化
+	 *
+	 * @throws IOException
+	 * 		内容解析错误
+	 */
+	private boolean apply(byte type, byte[] payload) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+		String name = in.readUTF();
+		switch (type) {
+			case TYPE_SCHEDULE:
+				long id = in.readLong();
+				String className = in.readUTF();
+				byte[] data = new byte[in.readInt()];
+				in.readFully(data);
+				triggers.put(name, new StoredTrigger(id, className, data));
+				return true;
+			case TYPE_CANCEL:
+				return triggers.remove(name) != null;
+			case TYPE_FIRE: {
+				StoredTrigger stored = triggers.get(name);
+				if (stored == null || stored.id != in.readLong() || stored.fired) {
+					return false;
+				}
+				stored.fired = true;
+				return true;
+			}
+			case TYPE_COMPLETE: {
+				StoredTrigger stored = triggers.get(name);
+				if (stored == null || stored.id != in.readLong()) {
+					return false;
+				}
+				triggers.remove(name);
+				return true;
+			}
+			default:
+				throw new IOException("unknown journal record type:" + type);
+		}
+	}
+
+	/**
+	 * 读取最新快照和之后的日志,最后一个日志完整时打开继续追加(需要加锁)
+	 *
+	 * @throws IOException
+	 * 		读取错误
+	 */
+	private void load() throws IOException {
+		long snapshotSequence = files(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).stream().mapToLong(Long::longValue).max().orElse(0L);
+		sequence = snapshotSequence;
+		lastSnapshotTime = System.currentTimeMillis();
+		if (snapshotSequence > 0) {
+			Path snapshot = dir.resolve(fileName(SNAPSHOT_PREFIX, snapshotSequence, SNAPSHOT_SUFFIX));
+			if (!JournalFile.read(snapshot, this::apply)) {
+				throw new IOException("snapshot corrupted:" + snapshotSequence);
+			}
+			// 重启不重置快照间隔
+			lastSnapshotTime = Files.getLastModifiedTime(snapshot).toMillis();
+		}
+
+		List<Long> journalSequences = files(JOURNAL_PREFIX, JOURNAL_SUFFIX).stream()
+				.filter(journalSequence -> journalSequence >= snapshotSequence)
+				.collect(toList());
+		for (int i = 0; i < journalSequences.size(); i++) {
+			long journalSequence = journalSequences.get(i);
+			Path path = dir.resolve(fileName(JOURNAL_PREFIX, journalSequence, JOURNAL_SUFFIX));
+			sequence = journalSequence;
+			if (i == journalSequences.size() - 1) {
+				journal = JournalFile.open(path, this::apply);
+				if (journal == null) {
+					// 崩溃时最后一条记录可能不完整
+					log.warn("journal tail corrupted,ignore remaining records:[{}]", journalSequence);
+				}
+			} else if (!JournalFile.read(path, this::apply)) {
+				log.warn("journal tail corrupted,ignore remaining records:[{}]", journalSequence);
+			}
+		}
+	}
+
+	/**
+	 * 写入快照并切换到新日志文件,删除旧文件,需要加锁
+	 *
+	 * @throws IOException
+	 * 		写入错误
+	 */
+	private void roll() throws IOException {
+		long next = sequence + 1;
+		Path snapshot = dir.resolve(fileName(SNAPSHOT_PREFIX, next, SNAPSHOT_SUFFIX));
+		Path temp = dir.resolve(fileName(SNAPSHOT_PREFIX, next, SNAPSHOT_SUFFIX + ".tmp"));
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			for (Map.Entry<String, StoredTrigger> entry : triggers.entrySet()) {
+				StoredTrigger stored = entry.getValue();
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream(stored.data.length + 64);
+				DataOutputStream out = new DataOutputStream(bytes);
+				out.writeUTF(entry.getKey());
+				out.writeLong(stored.id);
+				out.writeUTF(stored.className);
+				out.writeInt(stored.data.length);
+				out.write(stored.data);
+				writeFully(channel, TYPE_SCHEDULE, bytes.toByteArray());
+				if (stored.fired) {
+					writeFully(channel, TYPE_FIRE, encode(entry.getKey(), stored.id));
+				}
+			}
+			channel.force(true);
+		}
+		Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		JournalFile previous = journal;
+		Path journalPath = dir.resolve(fileName(JOURNAL_PREFIX, next, JOURNAL_SUFFIX));
+		Files.deleteIfExists(journalPath);
+		journal = JournalFile.create(journalPath, journalSize);
+		sequence = next;
+		lastSnapshotTime = System.currentTimeMillis();
+		if (previous != null) {
+			previous.close();
+		}
+
+		for (long old : files(JOURNAL_PREFIX, JOURNAL_SUFFIX)) {
+			if (old < next) {
+				delete(dir.resolve(fileName(JOURNAL_PREFIX, old, JOURNAL_SUFFIX)));
+			}
+		}
+		for (long old : files(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+			if (old < next) {
+				delete(dir.resolve(fileName(SNAPSHOT_PREFIX, old, SNAPSHOT_SUFFIX)));
+			}
+		}
+	}
+
+	private static void writeFully(FileChannel channel, byte type, byte[] payload) throws IOException {
+		ByteBuffer record = JournalFile.encode(type, payload);
+		while (record.hasRemaining()) {
+			channel.write(record);
+		}
+	}
+
+	private static void delete(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			// 部分系统映射中的文件无法删除,下次切换时再删除
+			log.warn("delete store file error:[{}]", path, e);
+		}
+	}
+
+	private List<Long> files(String prefix, String suffix) throws IOException {
+		try (Stream<Path> stream = Files.list(dir)) {
+			return stream.map(path -> path.getFileName().toString())
+					.filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+					.map(name -> Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())))
+					.sorted()
+					.collect(toList());
+		}
+	}
+
+	private static String fileName(String prefix, long sequence, String suffix) {
+		return String.format("%s%020d%s", prefix, sequence, suffix);
+	}
+
+	/**
+	 * 写入后刷盘(持有锁):刷盘间隔为 0 时立即刷盘,否则安排一次延迟刷盘;同时按照快照间隔安排检查写入快照
+	 *
+	 * @throws IOException
+	 * 		IO 异常
+	 */
+	private void afterWrite() throws IOException {
+		if (flushInterval == 0) {
+			journal.force();
+		}
+		if (flushScheduled.compareAndSet(false, true)) {
+			try {
+				flushExecutor.schedule(this::flush, flushInterval == 0 ? snapshotInterval : flushInterval, TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException e) {
+				flushScheduled.set(false);
+			}
+		}
+	}
+
+	/**
+	 * 延迟刷盘,超过快照间隔写入快照
+	 */
+	private void flush() {
+		// 之后的写入重新安排刷盘
+		flushScheduled.set(false);
+		JournalFile current;
+		lock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			if (journal.records() > 0 && System.currentTimeMillis() - lastSnapshotTime >= snapshotInterval) {
+				roll();
+				return;
+			}
+			current = journal;
+		} catch (IOException e) {
+			log.error("roll journal error", e);
+			return;
+		} finally {
+			lock.unlock();
+		}
+		// 刷盘不阻塞写入
+		current.force();
+	}
+
+	@Override
+	public List<Trigger> recover() {
+		List<StoredTrigger> storedTriggers;
+		lock.lock();
+		try {
+			storedTriggers = new ArrayList<>(triggers.values());
+		} finally {
+			lock.unlock();
+		}
+
+		List<Trigger> recovered = new ArrayList<>(storedTriggers.size());
+		for (StoredTrigger stored : storedTriggers) {
+			Trigger trigger;
+			try {
+				trigger = codec(stored.className).decode(stored.data);
+			} catch (IOException e) {
+				log.error("decode trigger error,class:[{}]", stored.className, e);
+				continue;
+			}
+
+			if (stored.fired) {
+				// 上次已经开始执行,不重复执行,直接进入下一次
+				Optional<Trigger> next = trigger.nextTrigger();
+				if (!next.isPresent()) {
+					continue;
+				}
+				trigger = next.get();
+			}
+			recovered.add(trigger);
+		}
+		return Collections.unmodifiableList(recovered);
+	}
+
+	@Override
+	public void close() {
+		lock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			if (flushExecutor != null) {
+				flushExecutor.shutdown();
+			}
+			if (journal != null) {
+				journal.close();
+			}
+		} catch (IOException e) {
+			log.error("close journal error", e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 保存的触发器
+	 */
+	private static class StoredTrigger {
+		/**
+		 * 加入调度时的触发器 ID
+		 */
+		private final long id;
+		private final String className;
+		private final byte[] data;
+		/**
+		 * 是否已经开始执行
+		 */
+		private boolean fired = false;
+
+		StoredTrigger(long id, String className, byte[] data) {
+			this.id = id;
+			this.className = className;
+			this.data = data;
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package io.github.hdfg159.scheduler.store.impl;
+
+import io.github.hdfg159.scheduler.store.TriggerStore;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 不持久化 实现(默认)
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class NoopTriggerStore implements TriggerStore {
+	@Override
+	public void initialize(Properties properties) {
+		// 无需配置
+	}
+
+	@Override
+	public void schedule(Trigger trigger) {
+	}
+
+	@Override
+	public void cancel(String triggerName) {
+	}
+
+	@Override
+	public void fire(String triggerName, long triggerId) {
+	}
+
+	@Override
+	public void complete(String triggerName, long triggerId) {
+	}
+
+	@Override
+	public List<Trigger> recover() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public void close() {
+	}
+}
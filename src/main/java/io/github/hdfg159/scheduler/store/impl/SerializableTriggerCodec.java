@@ -0,0 +1,37 @@
+package io.github.hdfg159.scheduler.store.impl;
+
+import io.github.hdfg159.scheduler.store.TriggerCodec;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * Java 序列化编码 实现(默认),任务和异常处理等函数字段不序列化<br>
+ * 日志记录头是紧凑二进制格式,触发器内容使用该编码(包含类描述,体积较大);需要更紧凑的内容时按照触发器类型注册 {@link TriggerCodec}
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class SerializableTriggerCodec implements TriggerCodec {
+	@Override
+	public byte[] encode(Trigger trigger) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(trigger);
+		}
+		return bytes.toByteArray();
+	}
+
+	@Override
+	public Trigger decode(byte[] bytes) throws IOException {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return (Trigger) in.readObject();
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new IOException("decode trigger error", e);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package io.github.hdfg159.scheduler.thread;
+
+import io.github.hdfg159.scheduler.trigger.Trigger;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * 按照执行耗时路由 实现(默认)<br>
+ * 设置了分组并且存在同名线程池的触发器使用分组线程池;其他触发器按照执行耗时估计值选择正常或者慢任务线程池,
+ * 估计值超过阈值进入慢任务线程池,低于阈值乘以恢复比例才回到正常线程池,避免偶尔一次耗时波动来回切换
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class CostTaskRouter implements TaskRouter {
+	private static final String PROPERTIES_SLOW_MAX_LIMIT_TIME = "scheduler.maxLimitTime";
+	private static final String PROPERTIES_RECOVER_RATIO = "scheduler.router.recoverRatio";
+	/**
+	 * 慢任务执行时间 阈值(毫秒)
+	 */
+	private static final long MAX_LIMIT_TIME = 100L;
+	/**
+	 * 默认恢复比例
+	 */
+	private static final double RECOVER_RATIO = 0.5D;
+	
+	private Map<String, ThreadPool> threadPools = Collections.emptyMap();
+	private ThreadPool normalThreadPool;
+	private ThreadPool slowThreadPool;
+	/**
+	 * 慢任务执行时间阈值(毫秒)
+	 */
+	private volatile long limitTime = MAX_LIMIT_TIME;
+	/**
+	 * 回到正常线程池的执行时间(毫秒)
+	 */
+	private volatile long recoverTime = (long) (MAX_LIMIT_TIME * RECOVER_RATIO);
+	
+	@Override
+	public void initialize(Properties properties, Map<String, ThreadPool> threadPools) {
+		this.threadPools = new HashMap<>(threadPools);
+		this.normalThreadPool = threadPools.get(POOL_NORMAL);
+		this.slowThreadPool = threadPools.get(POOL_SLOW);
+		if (normalThreadPool == null || slowThreadPool == null) {
+			throw new IllegalArgumentException("normal and slow thread pool required");
+		}
+		reload(properties);
+	}
+	
+	@Override
+	public void reload(Properties properties) {
+		long limit = Optional.ofNullable(properties.getProperty(PROPERTIES_SLOW_MAX_LIMIT_TIME))
+				.map(Long::parseLong)
+				.orElse(MAX_LIMIT_TIME);
+		double recoverRatio = Optional.ofNullable(properties.getProperty(PROPERTIES_RECOVER_RATIO))
+				.map(Double::parseDouble)
+				.orElse(RECOVER_RATIO);
+		if (recoverRatio <= 0D || recoverRatio > 1D) {
+			throw new IllegalArgumentException("router recover ratio must between 0 and 1");
+		}
+		setLimitTime(limit, recoverRatio);
+	}
+	
+	@Override
+	public ThreadPool route(Trigger trigger) {
+		String group = trigger.getGroup();
+		if (group != null) {
+			ThreadPool threadPool = threadPools.get(group);
+			if (threadPool != null) {
+				return threadPool;
+			}
+		}
+		
+		long costEstimate = trigger.getCostEstimate();
+		boolean slow = trigger.isSlow();
+		if (!slow && costEstimate > limitTime) {
+			slow = true;
+			trigger.slow(true);
+		} else if (slow && costEstimate <= recoverTime) {
+			slow = false;
+			trigger.slow(false);
+		}
+		return slow ? slowThreadPool : normalThreadPool;
+	}
+	
+	public long getLimitTime() {
+		return limitTime;
+	}
+	
+	/**
+	 * 设置慢任务执行时间阈值,恢复比例使用默认值
+	 *
+	 * @param limitTime
+	 * 		阈值(毫秒)
+	 */
+	public void setLimitTime(long limitTime) {
+		setLimitTime(limitTime, RECOVER_RATIO);
+	}
+	
+	/**
+	 * 设置慢任务执行时间阈值
+	 *
+	 * @param limitTime
+	 * 		阈值(毫秒)
+	 * @param recoverRatio
+	 * 		恢复比例,执行时间估计值低于 阈值*恢复比例 回到正常线程池
+	 */
+	public void setLimitTime(long limitTime, double recoverRatio) {
+		if (limitTime < 0) {
+			throw new IllegalArgumentException("max limit time must >= 0");
+		}
+		this.recoverTime = (long) (limitTime * recoverRatio);
+		this.limitTime = limitTime;
+	}
+}
@@ -4,6 +4,8 @@ import io.github.hdfg159.scheduler.util.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
+import java.util.Properties;
 import java.util.concurrent.*;
 
 /**
@@ -14,15 +16,32 @@ import java.util.concurrent.*;
  */
 public class NormalThreadPoolExecutor implements ThreadPool {
 	private static final Logger log = LoggerFactory.getLogger(NormalThreadPoolExecutor.class);
+	private static final String PROPERTIES_QUEUE_CAPACITY = "scheduler.threadPool.queueCapacity";
+	/**
+	 * 默认队列长度,队列已满时按照调度器过载策略处理
+	 */
+	private static final int QUEUE_CAPACITY = 10000;
 	
 	/**
 	 * 任务运行线程池
 	 */
-	private static ExecutorService taskService;
+	private ExecutorService taskService;
 	
 	@Override
 	public void initialize() {
-		taskService = taskThreadPoolExecutor();
+		initialize(new Properties());
+	}
+	
+	@Override
+	public void initialize(Properties properties) {
+		// 队列长度,默认有界,避免高峰期队列过长占满内存
+		int queueCapacity = Optional.ofNullable(properties.getProperty(PROPERTIES_QUEUE_CAPACITY))
+				.map(Integer::parseInt)
+				.orElse(QUEUE_CAPACITY);
+		if (queueCapacity <= 0) {
+			throw new IllegalArgumentException("thread pool queue capacity must greater than 0");
+		}
+		taskService = taskThreadPoolExecutor(ThreadPool.threadName(properties, "normal-task-%d"), queueCapacity);
 	}
 	
 	@Override
@@ -38,13 +57,16 @@ public class NormalThreadPoolExecutor implements ThreadPool {
 	/**
 	 * 获取任务执行线程池
 	 *
+	 * @param poolNameFormat
+	 * 		线程池线程命名
+	 * @param queueCapacity
+	 * 		队列长度
+	 *
 	 * @return ThreadPoolExecutor
 	 */
-	private ThreadPoolExecutor taskThreadPoolExecutor() {
-		// 线程池线程命名
-		final String poolNameFormat = "normal-task-%d";
-		// 线程池队列拒绝策略
-		final RejectedExecutionHandler rejectedExecutionHandler = new ThreadPoolExecutor.CallerRunsPolicy();
+	private ThreadPoolExecutor taskThreadPoolExecutor(String poolNameFormat, int queueCapacity) {
+		// 线程池队列拒绝策略(由调度器按照过载策略处理)
+		final RejectedExecutionHandler rejectedExecutionHandler = new ThreadPoolExecutor.AbortPolicy();
 		// 核心线程数，队列未满，默认最多创建线程数量
 		final int corePoolSize = Runtime.getRuntime().availableProcessors() + 1;
 		// 最大线程数，队列满了，允许新增到最大线程数量
@@ -53,8 +75,6 @@ public class NormalThreadPoolExecutor implements ThreadPool {
 		final int keepAliveTime = 60;
 		// 线程池存活时间单位
 		final TimeUnit timeUnit = TimeUnit.SECONDS;
-		// 默认线程池最大队列是 INT 最大值（过大导致内存满），队列长度
-		final int queueCapacity = Integer.MAX_VALUE;
 		// 队列类型
 		final LinkedBlockingQueue<Runnable> workQueue = new LinkedBlockingQueue<>(queueCapacity);
 		// 自定义线程工厂：自定义名字/优先级/线程是否 Daemon （Daemon 是守护进程, JVM 执行完用户线程后退出，Daemon 线程也会退出，非 Daemon 线程的话会当作用户线程一直执行）
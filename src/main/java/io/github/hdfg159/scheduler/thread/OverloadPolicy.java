@@ -0,0 +1,30 @@
+package io.github.hdfg159.scheduler.thread;
+
+/**
+ * 线程池队列已满时的过载策略
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public enum OverloadPolicy {
+	/**
+	 * 在取任务线程直接执行(会阻塞调度,兼容旧版本行为,需要显式配置);在其他线程被拒绝时(执行完成后放入暂存的执行、错过执行限速)按照 {@link #REQUEUE} 处理
+	 */
+	CALLER_RUNS,
+	/**
+	 * 暂存等待线程池空闲,同一触发器多次被拒绝只保留最新一次
+	 */
+	COALESCE,
+	/**
+	 * 丢弃线程池队列中最早的任务(该触发器跳过本次执行)
+	 */
+	DROP_OLDEST,
+	/**
+	 * 延迟后重新放入调度队列(默认)
+	 */
+	REQUEUE,
+	/**
+	 * 视为错过执行,跳过本次执行并调用触发器错过执行处理
+	 */
+	MISFIRE
+}
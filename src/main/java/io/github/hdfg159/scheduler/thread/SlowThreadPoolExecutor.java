@@ -4,6 +4,8 @@ import io.github.hdfg159.scheduler.util.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
+import java.util.Properties;
 import java.util.concurrent.*;
 
 /**
@@ -14,14 +16,31 @@ import java.util.concurrent.*;
  */
 public class SlowThreadPoolExecutor implements ThreadPool {
 	private static final Logger log = LoggerFactory.getLogger(SlowThreadPoolExecutor.class);
+	private static final String PROPERTIES_QUEUE_CAPACITY = "scheduler.slowThreadPool.queueCapacity";
+	/**
+	 * 默认队列长度,队列已满时按照调度器过载策略处理
+	 */
+	private static final int QUEUE_CAPACITY = 10000;
 	/**
 	 * 慢任务运行线程池
 	 */
-	private static ExecutorService slowTaskService;
+	private ExecutorService slowTaskService;
 	
 	@Override
 	public void initialize() {
-		slowTaskService = slowTaskThreadPoolExecutor();
+		initialize(new Properties());
+	}
+	
+	@Override
+	public void initialize(Properties properties) {
+		// 队列长度,默认有界,避免高峰期队列过长占满内存
+		int queueCapacity = Optional.ofNullable(properties.getProperty(PROPERTIES_QUEUE_CAPACITY))
+				.map(Integer::parseInt)
+				.orElse(QUEUE_CAPACITY);
+		if (queueCapacity <= 0) {
+			throw new IllegalArgumentException("thread pool queue capacity must greater than 0");
+		}
+		slowTaskService = slowTaskThreadPoolExecutor(ThreadPool.threadName(properties, "slow-task-%d"), queueCapacity);
 	}
 	
 	@Override
@@ -37,16 +56,19 @@ public class SlowThreadPoolExecutor implements ThreadPool {
 	/**
 	 * 慢任务执行线程池
 	 *
+	 * @param poolNameFormat
+	 * 		线程池线程命名
+	 * @param queueCapacity
+	 * 		队列长度
+	 *
 	 * @return ExecutorService
 	 */
-	private ExecutorService slowTaskThreadPoolExecutor() {
-		final String poolNameFormat = "slow-task-%d";
-		final RejectedExecutionHandler rejectedExecutionHandler = new ThreadPoolExecutor.CallerRunsPolicy();
+	private ExecutorService slowTaskThreadPoolExecutor(String poolNameFormat, int queueCapacity) {
+		final RejectedExecutionHandler rejectedExecutionHandler = new ThreadPoolExecutor.AbortPolicy();
 		final int corePoolSize = Runtime.getRuntime().availableProcessors() * 5;
 		final int maximumPoolSize = Runtime.getRuntime().availableProcessors() * 5;
 		final int keepAliveTime = 60;
 		final TimeUnit timeUnit = TimeUnit.SECONDS;
-		final int queueCapacity = Integer.MAX_VALUE;
 		final LinkedBlockingQueue<Runnable> workQueue = new LinkedBlockingQueue<>(queueCapacity);
 		final ThreadFactory threadFactory = new ThreadFactoryBuilder()
 				.setNameFormat(poolNameFormat)
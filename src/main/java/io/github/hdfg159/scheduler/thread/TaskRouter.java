@@ -0,0 +1,53 @@
+package io.github.hdfg159.scheduler.thread;
+
+import io.github.hdfg159.scheduler.trigger.Trigger;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 定时任务组件 线程池路由 接口<br>
+ * 分发触发器时选择执行线程池
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public interface TaskRouter {
+	/**
+	 * 正常线程池名称
+	 */
+	String POOL_NORMAL = "normal";
+	/**
+	 * 慢任务线程池名称
+	 */
+	String POOL_SLOW = "slow";
+	
+	/**
+	 * 初始化
+	 *
+	 * @param properties
+	 * 		配置
+	 * @param threadPools
+	 * 		线程池 [名称:线程池],包括 {@link #POOL_NORMAL}、{@link #POOL_SLOW} 和 scheduler.pool.&lt;name&gt;.class 配置的线程池
+	 */
+	void initialize(Properties properties, Map<String, ThreadPool> threadPools);
+	
+	/**
+	 * 重新加载配置,默认不处理
+	 *
+	 * @param properties
+	 * 		配置
+	 */
+	default void reload(Properties properties) {
+	}
+	
+	/**
+	 * 选择执行线程池
+	 *
+	 * @param trigger
+	 * 		触发器
+	 *
+	 * @return ThreadPool
+	 */
+	ThreadPool route(Trigger trigger);
+}
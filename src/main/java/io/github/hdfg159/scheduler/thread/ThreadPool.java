@@ -1,6 +1,8 @@
 package io.github.hdfg159.scheduler.thread;
 
+import java.util.Properties;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * 定时任务组件 线程池 接口
@@ -9,11 +11,51 @@ import java.util.concurrent.ExecutorService;
  * @version 1.0
  */
 public interface ThreadPool {
+	/**
+	 * 调度器名称配置,只有非默认调度器设置
+	 */
+	String PROPERTIES_SCHEDULER_NAME = "scheduler.name";
+	
+	/**
+	 * 线程名称,非默认调度器加上调度器名称前缀
+	 *
+	 * @param properties
+	 * 		配置
+	 * @param name
+	 * 		线程名称
+	 *
+	 * @return String
+	 */
+	static String threadName(Properties properties, String name) {
+		String schedulerName = properties.getProperty(PROPERTIES_SCHEDULER_NAME);
+		return schedulerName == null ? name : schedulerName + "-" + name;
+	}
+	
 	/**
 	 * 初始化
 	 */
 	void initialize();
 	
+	/**
+	 * 按照配置初始化,默认忽略配置
+	 *
+	 * @param properties
+	 * 		配置
+	 */
+	default void initialize(Properties properties) {
+		initialize();
+	}
+	
+	/**
+	 * 预先启动核心线程,默认线程池按需创建线程,只有 {@link ThreadPoolExecutor} 需要预先启动
+	 */
+	default void prestart() {
+		ExecutorService executorService = threadPool();
+		if (executorService instanceof ThreadPoolExecutor) {
+			((ThreadPoolExecutor) executorService).prestartAllCoreThreads();
+		}
+	}
+	
 	/**
 	 * 关闭
 	 */
@@ -0,0 +1,204 @@
+package io.github.hdfg159.scheduler.thread;
+
+import io.github.hdfg159.scheduler.util.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 虚拟线程池 实现(Java 21+),适合阻塞 I/O 任务<br>
+ * 每个任务一个虚拟线程,通过信号量限制同时执行数量,等待执行数量超过上限时拒绝(由调度器按照过载策略处理)<br>
+ * 通过反射创建虚拟线程,不需要更高版本编译;运行环境不支持虚拟线程时使用同样限制的普通线程池
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class VirtualThreadPoolExecutor implements ThreadPool {
+	private static final Logger log = LoggerFactory.getLogger(VirtualThreadPoolExecutor.class);
+	private static final String PROPERTIES_MAX_CONCURRENCY = "scheduler.virtualThread.maxConcurrency";
+	private static final String PROPERTIES_MAX_PENDING = "scheduler.virtualThread.maxPending";
+	private static final String PROPERTIES_NAME_PREFIX = "scheduler.virtualThread.namePrefix";
+	/**
+	 * 默认最大同时执行数量
+	 */
+	private static final int MAX_CONCURRENCY = 1000;
+	/**
+	 * 默认最大等待执行数量(包括正在执行)
+	 */
+	private static final int MAX_PENDING = 100000;
+	/**
+	 * 默认线程名称前缀
+	 */
+	private static final String NAME_PREFIX = "virtual-task-";
+
+	private ExecutorService taskService;
+
+	@Override
+	public void initialize() {
+		initialize(new Properties());
+	}
+
+	@Override
+	public void initialize(Properties properties) {
+		int maxConcurrency = Optional.ofNullable(properties.getProperty(PROPERTIES_MAX_CONCURRENCY))
+				.map(Integer::parseInt)
+				.orElse(MAX_CONCURRENCY);
+		int maxPending = Optional.ofNullable(properties.getProperty(PROPERTIES_MAX_PENDING))
+				.map(Integer::parseInt)
+				.orElse(MAX_PENDING);
+		if (maxConcurrency <= 0 || maxPending <= 0) {
+			throw new IllegalArgumentException("virtual thread max concurrency and max pending must greater than 0");
+		}
+		String namePrefix = properties.getProperty(PROPERTIES_NAME_PREFIX, ThreadPool.threadName(properties, NAME_PREFIX));
+
+		ExecutorService virtualThreadExecutor = virtualThreadPerTaskExecutor(namePrefix);
+		if (virtualThreadExecutor == null) {
+			log.warn("virtual thread not supported,java version:[{}],use platform thread pool", System.getProperty("java.version"));
+			taskService = platformThreadPoolExecutor(namePrefix, maxConcurrency, maxPending);
+		} else {
+			taskService = new LimitedExecutorService(virtualThreadExecutor, maxConcurrency, maxPending);
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		log.info("shutdown virtual thread pool");
+		taskService.shutdown();
+		log.info("shutdown virtual thread pool finish");
+	}
+
+	@Override
+	public ExecutorService threadPool() {
+		return taskService;
+	}
+
+	/**
+	 * 通过反射创建虚拟线程执行器 {@code Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 0).factory())}
+	 *
+	 * @param namePrefix
+	 * 		线程名称前缀
+	 *
+	 * @return ExecutorService 不支持虚拟线程返回 null
+	 */
+	private static ExecutorService virtualThreadPerTaskExecutor(String namePrefix) {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+			ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+			Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 不支持虚拟线程时使用的线程池,线程数量为最大同时执行数量,队列长度为最大等待执行数量减去最大同时执行数量
+	 *
+	 * @param namePrefix
+	 * 		线程名称前缀
+	 * @param maxConcurrency
+	 * 		最大同时执行数量
+	 * @param maxPending
+	 * 		最大等待执行数量
+	 *
+	 * @return ExecutorService
+	 */
+	private static ExecutorService platformThreadPoolExecutor(String namePrefix, int maxConcurrency, int maxPending) {
+		final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+				.setNameFormat(namePrefix + "%d")
+				.setDaemon(false)
+				.setUncaughtExceptionHandler((t, e) -> log.error("thread run error:[{}]", t.getName(), e))
+				.build();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(Math.max(1, maxPending - maxConcurrency)), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * 限制同时执行数量和等待执行数量的执行器
+	 */
+	private static class LimitedExecutorService extends AbstractExecutorService {
+		private final ExecutorService delegate;
+		/**
+		 * 执行许可
+		 */
+		private final Semaphore permits;
+		/**
+		 * 最大等待执行数量
+		 */
+		private final int maxPending;
+		/**
+		 * 当前等待执行数量(包括正在执行)
+		 */
+		private final AtomicInteger pending = new AtomicInteger();
+
+		LimitedExecutorService(ExecutorService delegate, int maxConcurrency, int maxPending) {
+			this.delegate = delegate;
+			this.permits = new Semaphore(maxConcurrency);
+			this.maxPending = maxPending;
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			if (pending.incrementAndGet() > maxPending) {
+				pending.decrementAndGet();
+				throw new RejectedExecutionException("virtual thread pending tasks exceed " + maxPending);
+			}
+
+			try {
+				delegate.execute(() -> {
+					try {
+						// 虚拟线程阻塞等待许可开销很小
+						permits.acquire();
+					} catch (InterruptedException e) {
+						pending.decrementAndGet();
+						Thread.currentThread().interrupt();
+						return;
+					}
+					try {
+						command.run();
+					} finally {
+						permits.release();
+						pending.decrementAndGet();
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				pending.decrementAndGet();
+				throw e;
+			}
+		}
+
+		@Override
+		public void shutdown() {
+			delegate.shutdown();
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			return delegate.shutdownNow();
+		}
+
+		@Override
+		public boolean isShutdown() {
+			return delegate.isShutdown();
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return delegate.isTerminated();
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+			return delegate.awaitTermination(timeout, unit);
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package io.github.hdfg159.scheduler.thread;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 工作窃取线程池 实现,适合大量短时间 CPU 任务<br>
+ * 基于 asyncMode 的 {@link ForkJoinPool},每个线程独立任务队列,空闲线程从其他线程队列窃取任务,避免共享队列竞争;
+ * 任务中可以通过 {@link io.github.hdfg159.scheduler.trigger.Trigger#fork(java.util.concurrent.Callable)} 拆分子任务<br>
+ * 队列无界,线程池关闭前不会拒绝任务(过载策略不生效)
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class WorkStealingThreadPoolExecutor implements ThreadPool {
+	private static final Logger log = LoggerFactory.getLogger(WorkStealingThreadPoolExecutor.class);
+	private static final String PROPERTIES_PARALLELISM = "scheduler.workStealing.parallelism";
+	/**
+	 * 线程命名
+	 */
+	private static final String POOL_NAME_FORMAT = "work-stealing-task-%d";
+
+	private ForkJoinPool taskService;
+
+	@Override
+	public void initialize() {
+		initialize(new Properties());
+	}
+
+	@Override
+	public void initialize(Properties properties) {
+		int parallelism = Optional.ofNullable(properties.getProperty(PROPERTIES_PARALLELISM))
+				.map(Integer::parseInt)
+				.orElse(Runtime.getRuntime().availableProcessors());
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("work stealing parallelism must greater than 0");
+		}
+
+		String poolNameFormat = ThreadPool.threadName(properties, POOL_NAME_FORMAT);
+		AtomicInteger threadCount = new AtomicInteger();
+		ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory = pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName(String.format(poolNameFormat, threadCount.getAndIncrement()));
+			return thread;
+		};
+		// asyncMode:本地任务先进先出,适合只提交不等待结果的任务
+		taskService = new ForkJoinPool(parallelism, threadFactory, (t, e) -> log.error("thread run error:[{}]", t.getName(), e), true);
+	}
+
+	@Override
+	public void shutdown() {
+		log.info("shutdown work stealing thread pool,working thread count:[{}],queue size:[{}]", taskService.getActiveThreadCount(), taskService.getQueuedSubmissionCount() + taskService.getQueuedTaskCount());
+		taskService.shutdown();
+		log.info("shutdown work stealing thread pool finish");
+	}
+
+	@Override
+	public ExecutorService threadPool() {
+		return taskService;
+	}
+}
@@ -6,11 +6,12 @@ import io.github.hdfg159.scheduler.util.Sequence;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.Map;
+import java.time.ZoneId;
 import java.util.StringJoiner;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Delayed;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
@@ -25,18 +26,75 @@ public abstract class AbstractTrigger<T extends AbstractTrigger<T>> implements T
 	private static final long serialVersionUID = -8924096205973321207L;
 
 	private static final Logger log = LoggerFactory.getLogger(AbstractTrigger.class);
-	private final Map<Long, Long> retryCount = new ConcurrentHashMap<>();
+	/**
+	 * 执行时间估计值平滑系数,越大越接近最近一次执行时间
+	 */
+	private static final double COST_ESTIMATE_ALPHA = 0.2D;
 	private final LocalDateTime createTime = LocalDateTime.now();
 	private long id = Sequence.SEQUENCE.nextId();
-	private Consumer<Trigger> job;
+	/**
+	 * 任务(不序列化,持久化恢复时通过任务标识获取)
+	 */
+	private transient Consumer<Trigger> job;
+	/**
+	 * 任务标识,对应 {@link SchedulerManager#registerJob(String, Consumer)} 注册的任务
+	 */
+	private String jobKey;
 	private long retry = 0L;
+	/**
+	 * 重试退避策略,null 为使用调度器配置
+	 */
+	private RetryPolicy retryPolicy;
 	private String name;
-	private boolean cancel = false;
+	/**
+	 * 取消标记,取消线程和执行线程都会读取
+	 */
+	private volatile boolean cancel = false;
 	private long costTime;
+	/**
+	 * 执行时间估计值(指数加权移动平均),小于 0 表示未执行过
+	 */
+	private volatile double costEstimate = -1D;
+	private volatile boolean slow = false;
+	private String group;
+	private MisfirePolicy misfirePolicy = MisfirePolicy.FIRE_ONCE_NOW;
+	private ConcurrencyPolicy concurrencyPolicy = ConcurrencyPolicy.ALLOW_OVERLAP;
+	/**
+	 * 最大并发执行数,0 为按照并发执行控制策略默认值
+	 */
+	private int maxConcurrent = 0;
 	private boolean sequence = false;
 	private LocalDateTime previousTime;
+	/**
+	 * 上次执行时间对应毫秒时间戳,通过毫秒时间戳设置时上次执行时间在获取时才创建
+	 */
+	private long previousMillis = Long.MIN_VALUE;
 	private LocalDateTime executeTime;
-	private BiConsumer<Trigger, Throwable> exceptionCaughtConsumer = (trigger, cause) -> log.error("[{}] job run error", getName(), cause);
+	/**
+	 * 执行时间对应毫秒时间戳,设置执行时间时计算,避免队列排序时重复计算;通过毫秒时间戳设置时执行时间在获取时才创建
+	 */
+	private long deadline = Long.MAX_VALUE;
+	private transient BiConsumer<Trigger, Throwable> exceptionCaughtConsumer = defaultExceptionCaughtConsumer();
+	private transient BiConsumer<Trigger, Long> misfireConsumer = defaultMisfireConsumer();
+	/**
+	 * 绑定的调度器,null 为默认实例
+	 */
+	private transient volatile SchedulerManager scheduler;
+
+	private static BiConsumer<Trigger, Throwable> defaultExceptionCaughtConsumer() {
+		return (trigger, cause) -> log.error("[{}] job run error", trigger.getName(), cause);
+	}
+
+	private static BiConsumer<Trigger, Long> defaultMisfireConsumer() {
+		return (trigger, lag) -> log.warn("[{}] job misfire,lag:[{}ms]", trigger.getName(), lag);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		// 反序列化不执行字段初始化,恢复默认处理
+		exceptionCaughtConsumer = defaultExceptionCaughtConsumer();
+		misfireConsumer = defaultMisfireConsumer();
+	}
 
 	/**
 	 * 获取上次执行时间
@@ -44,14 +102,38 @@ public abstract class AbstractTrigger<T extends AbstractTrigger<T>> implements T
 	 * @return LocalDateTime
 	 */
 	public LocalDateTime getPreviousTime() {
-		return previousTime;
+		LocalDateTime time = previousTime;
+		if (time == null && previousMillis != Long.MIN_VALUE) {
+			time = toLocalDateTime(previousMillis);
+			previousTime = time;
+		}
+		return time;
 	}
 
 	public T setPreviousTime(LocalDateTime previousTime) {
 		this.previousTime = previousTime;
+		this.previousMillis = Long.MIN_VALUE;
+		return self();
+	}
+
+	/**
+	 * 通过毫秒时间戳设置上次执行时间
+	 *
+	 * @param previousMillis
+	 * 		上次执行时间毫秒时间戳
+	 *
+	 * @return T
+	 */
+	public T previousTime(long previousMillis) {
+		this.previousTime = null;
+		this.previousMillis = previousMillis;
 		return self();
 	}
 
+	private static LocalDateTime toLocalDateTime(long epochMillis) {
+		return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+	}
+
 	/**
 	 * this 强转 T
 	 *
@@ -70,10 +152,12 @@ public abstract class AbstractTrigger<T extends AbstractTrigger<T>> implements T
 		if (o instanceof Trigger) {
 			Trigger trigger = (Trigger) o;
 
-			if (getExecuteTime() == trigger.getExecuteTime()) {
+			int compare = Long.compare(getDeadline(), trigger.getDeadline());
+			if (compare == 0) {
 				// 执行时间相同,按照放入有序的id比较
 				return Long.compare(getId(), trigger.getId());
 			}
+			return compare;
 		}
 
 		return Long.compare(getDelay(TimeUnit.MILLISECONDS), o.getDelay(TimeUnit.MILLISECONDS));
@@ -81,9 +165,12 @@ public abstract class AbstractTrigger<T extends AbstractTrigger<T>> implements T
 
 	@Override
 	public long getDelay(TimeUnit unit) {
-		LocalDateTime now = LocalDateTime.now();
-		long duration = now.until(getExecuteTime(), ChronoUnit.MILLIS);
-		return unit.convert(duration, TimeUnit.MILLISECONDS);
+		return unit.convert(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public long getDeadline() {
+		return deadline;
 	}
 
 	@Override
@@ -122,6 +209,9 @@ public abstract class AbstractTrigger<T extends AbstractTrigger<T>> implements T
 	@Override
 	public T costTime(long time) {
 		costTime = time;
+		// 非顺序执行时可能并发记录,丢失一次更新不影响估计值
+		double estimate = costEstimate;
+		costEstimate = estimate < 0D ? time : estimate + COST_ESTIMATE_ALPHA * (time - estimate);
 		return self();
 	}
 
@@ -130,6 +220,34 @@ public abstract class AbstractTrigger<T extends AbstractTrigger<T>> implements T
 		return costTime;
 	}
 
+	@Override
+	public long getCostEstimate() {
+		double estimate = costEstimate;
+		return estimate < 0D ? costTime : Math.round(estimate);
+	}
+
+	@Override
+	public boolean isSlow() {
+		return slow;
+	}
+
+	@Override
+	public T slow(boolean slow) {
+		this.slow = slow;
+		return self();
+	}
+
+	@Override
+	public String getGroup() {
+		return group;
+	}
+
+	@Override
+	public T group(String group) {
+		this.group = group;
+		return self();
+	}
+
 	@Override
 	public boolean isSequence() {
 		return sequence;
@@ -143,19 +261,21 @@ public abstract class AbstractTrigger<T extends AbstractTrigger<T>> implements T
 
 	@Override
 	public T retry(long times) {
+		if (times < -1) {
+			throw new IllegalArgumentException("retry times must >= -1");
+		}
 		retry = times;
-		initRetryTimes();
 		return self();
 	}
 
 	@Override
-	public Map<Long, Long> getRetryCountMap() {
-		return retryCount;
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
 	}
 
 	@Override
-	public T retryCountMap(Map<Long, Long> retryCountMap) {
-		// 不支持设置
+	public T retryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
 		return self();
 	}
 
@@ -180,25 +300,112 @@ public abstract class AbstractTrigger<T extends AbstractTrigger<T>> implements T
 		return self();
 	}
 
+	@Override
+	public MisfirePolicy getMisfirePolicy() {
+		// 兼容没有该字段时持久化的触发器
+		return misfirePolicy == null ? MisfirePolicy.FIRE_ONCE_NOW : misfirePolicy;
+	}
+
+	@Override
+	public T misfirePolicy(MisfirePolicy misfirePolicy) {
+		if (misfirePolicy == null) {
+			throw new IllegalArgumentException("misfire policy not allow null");
+		}
+		this.misfirePolicy = misfirePolicy;
+		return self();
+	}
+
+	@Override
+	public ConcurrencyPolicy getConcurrencyPolicy() {
+		// 兼容没有该字段时持久化的触发器
+		return concurrencyPolicy == null ? ConcurrencyPolicy.ALLOW_OVERLAP : concurrencyPolicy;
+	}
+
+	@Override
+	public T concurrencyPolicy(ConcurrencyPolicy concurrencyPolicy) {
+		if (concurrencyPolicy == null) {
+			throw new IllegalArgumentException("concurrency policy not allow null");
+		}
+		this.concurrencyPolicy = concurrencyPolicy;
+		return self();
+	}
+
+	@Override
+	public int getMaxConcurrent() {
+		return maxConcurrent;
+	}
+
+	@Override
+	public T maxConcurrent(int maxConcurrent) {
+		if (maxConcurrent < 0) {
+			throw new IllegalArgumentException("max concurrent must >= 0");
+		}
+		this.maxConcurrent = maxConcurrent;
+		return self();
+	}
+
+	@Override
+	public String getJobKey() {
+		return jobKey;
+	}
+
+	@Override
+	public T jobKey(String jobKey) {
+		this.jobKey = jobKey;
+		return self();
+	}
+
 	@Override
 	public LocalDateTime getExecuteTime() {
-		return executeTime;
+		LocalDateTime time = executeTime;
+		if (time == null && deadline != Long.MAX_VALUE) {
+			time = toLocalDateTime(deadline);
+			executeTime = time;
+		}
+		return time;
 	}
 
 	@Override
 	public T executeTime(LocalDateTime executeTime) {
 		this.executeTime = executeTime;
+		this.deadline = executeTime == null ? Long.MAX_VALUE : executeTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		return self();
+	}
+
+	@Override
+	public T deadline(long deadline) {
+		this.executeTime = null;
+		this.deadline = deadline;
 		return self();
 	}
 
 	@Override
 	public boolean schedule() {
-		return SchedulerManager.INSTANCE.schedule(this);
+		return getScheduler().schedule(this);
 	}
 
 	@Override
 	public boolean scheduleCancel() {
-		return SchedulerManager.INSTANCE.cancel(getName());
+		return getScheduler().cancel(getName());
+	}
+
+	@Override
+	public SchedulerManager getScheduler() {
+		SchedulerManager manager = scheduler;
+		return manager != null ? manager : SchedulerManager.INSTANCE;
+	}
+
+	/**
+	 * 绑定调度器,加入调度器成功时自动绑定
+	 *
+	 * @param scheduler
+	 * 		调度器
+	 *
+	 * @return T
+	 */
+	public T scheduler(SchedulerManager scheduler) {
+		this.scheduler = scheduler;
+		return self();
 	}
 
 	@Override
@@ -212,19 +419,42 @@ public abstract class AbstractTrigger<T extends AbstractTrigger<T>> implements T
 		return self();
 	}
 
+	@Override
+	public BiConsumer<Trigger, Long> getAfterMisfire() {
+		return misfireConsumer;
+	}
+
+	/**
+	 * Trigger 错过执行后操作 消费
+	 *
+	 * @param consumer
+	 * 		操作消费(触发器,距离计划执行时间毫秒)
+	 *
+	 * @return T
+	 */
+	public T afterMisfire(BiConsumer<Trigger, Long> consumer) {
+		misfireConsumer = consumer;
+		return self();
+	}
+
 	@Override
 	public String toString() {
 		return new StringJoiner(", ", AbstractTrigger.class.getSimpleName() + "[", "]")
 				.add("id=" + id)
 				.add("job=" + job)
+				.add("jobKey='" + jobKey + "'")
 				.add("retry=" + retry)
-				.add("retryCount=" + retryCount)
+				.add("retryPolicy=" + retryPolicy)
 				.add("name='" + name + "'")
 				.add("cancel=" + cancel)
 				.add("costTime=" + costTime)
+				.add("group='" + group + "'")
+				.add("misfirePolicy=" + misfirePolicy)
+				.add("concurrencyPolicy=" + concurrencyPolicy)
+				.add("maxConcurrent=" + maxConcurrent)
 				.add("sequence=" + sequence)
-				.add("previousTime=" + previousTime)
-				.add("executeTime=" + executeTime)
+				.add("previousTime=" + getPreviousTime())
+				.add("executeTime=" + getExecuteTime())
 				.add("createTime=" + createTime)
 				.toString();
 	}
@@ -0,0 +1,28 @@
+package io.github.hdfg159.scheduler.trigger;
+
+/**
+ * 并发执行控制策略<br>
+ * 同一个触发器已经分发还未执行完成的次数达到最大并发数({@link TriggerProperties#getMaxConcurrent()})时的处理,
+ * 最大并发数未设置时 {@link #ALLOW_OVERLAP} 不限制,其他策略为 1
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public enum ConcurrencyPolicy {
+	/**
+	 * 允许重叠执行(默认,兼容旧版本行为),设置最大并发数后超过的跳过本次执行
+	 */
+	ALLOW_OVERLAP,
+	/**
+	 * 上一次还在执行时跳过本次执行,进入下一次执行时间
+	 */
+	SKIP_IF_RUNNING,
+	/**
+	 * 上一次还在执行时合并本次执行:执行完成后立即执行一次,下一次执行时间从执行时计算
+	 */
+	COALESCE,
+	/**
+	 * 上一次还在执行时最多暂存一次执行,执行完成后立即执行,按照原计划继续调度,已经暂存时跳过本次执行
+	 */
+	QUEUE_ONE
+}
@@ -0,0 +1,509 @@
+package io.github.hdfg159.scheduler.trigger;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * cron 表达式,创建时解析为每个字段的位图,计算下次执行时间按照字段跳跃查找,不创建对象<br>
+ * 支持 5 个字段(分 时 日 月 星期)或者 6 个字段(秒 分 时 日 月 星期),字段支持 {@code * ? , - /}、月份和星期英文缩写,
+ * 星期 0 和 7 都是星期天;日和星期都不是 {@code *}/{@code ?} 时满足其中一个即可(同 Unix cron)<br>
+ * 支持 {@code @yearly @annually @monthly @weekly @daily @midnight @hourly}<br>
+ * 夏令时:跳过的时间在跳过结束时执行一次,重复的时间只在第一次执行
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public final class CronExpression implements Serializable {
+	private static final long serialVersionUID = 3361232153624497567L;
+	/**
+	 * 没有下次执行时间
+	 */
+	public static final long NONE = -1L;
+	private static final long SECONDS_PER_DAY = 86400L;
+	/**
+	 * 时区偏移量最大差值(秒),本地时间换算时距离偏移量变化超过该值,只有一个有效偏移量
+	 */
+	private static final long MAX_OFFSET_SHIFT = 2 * SECONDS_PER_DAY;
+	/**
+	 * 最多查找年数(公历 400 年一个周期)
+	 */
+	private static final int MAX_YEARS = 400;
+	private static final String[] MONTHS = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+	private static final String[] DAYS_OF_WEEK = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private final String expression;
+	private final ZoneId zone;
+	private final long seconds;
+	private final long minutes;
+	private final long hours;
+	/**
+	 * 日位图,第 1-31 位
+	 */
+	private final long daysOfMonth;
+	/**
+	 * 月位图,第 1-12 位
+	 */
+	private final long months;
+	/**
+	 * 星期位图,第 1-7 位,1 是星期一,7 是星期天
+	 */
+	private final long daysOfWeek;
+	/**
+	 * 日和星期是否满足其中一个即可
+	 */
+	private final boolean dayOr;
+	private transient ZoneRules rules;
+	/**
+	 * 最近使用的时区偏移量区间,只在跨过偏移量变化时重新创建
+	 */
+	private transient volatile OffsetWindow window;
+
+	/**
+	 * 使用系统默认时区创建 cron 表达式
+	 *
+	 * @param expression
+	 * 		cron 表达式
+	 */
+	public CronExpression(String expression) {
+		this(expression, ZoneId.systemDefault());
+	}
+
+	/**
+	 * 创建 cron 表达式
+	 *
+	 * @param expression
+	 * 		cron 表达式
+	 * @param zone
+	 * 		时区
+	 */
+	public CronExpression(String expression, ZoneId zone) {
+		if (expression == null) {
+			throw new IllegalArgumentException("cron expression required not null");
+		}
+		if (zone == null) {
+			throw new IllegalArgumentException("cron zone required not null");
+		}
+		this.expression = expression;
+		this.zone = zone;
+
+		String[] fields = WHITESPACE.split(macro(expression.trim()));
+		if (fields.length == 5) {
+			String[] withSeconds = new String[6];
+			withSeconds[0] = "0";
+			System.arraycopy(fields, 0, withSeconds, 1, 5);
+			fields = withSeconds;
+		}
+		if (fields.length != 6) {
+			throw new IllegalArgumentException("cron expression must have 5 or 6 fields:[" + expression + "]");
+		}
+
+		this.seconds = parseField(fields[0], 0, 59, null);
+		this.minutes = parseField(fields[1], 0, 59, null);
+		this.hours = parseField(fields[2], 0, 23, null);
+		this.daysOfMonth = parseField(fields[3], 1, 31, null);
+		this.months = parseField(fields[4], 1, 12, MONTHS);
+		long dow = parseField(fields[5], 0, 7, DAYS_OF_WEEK);
+		// 0 和 7 都是星期天
+		this.daysOfWeek = (dow & ~1L) | ((dow & 1L) << 7);
+		this.dayOr = !isWildcard(fields[3]) && !isWildcard(fields[5]);
+	}
+
+	private static String macro(String expression) {
+		switch (expression.toLowerCase(Locale.ROOT)) {
+			case "@yearly":
+			case "@annually":
+				return "0 0 0 1 1 *";
+			case "@monthly":
+				return "0 0 0 1 * *";
+			case "@weekly":
+				return "0 0 0 * * 0";
+			case "@daily":
+			case "@midnight":
+				return "0 0 0 * * *";
+			case "@hourly":
+				return "0 0 * * * *";
+			default:
+				return expression;
+		}
+	}
+
+	private static boolean isWildcard(String field) {
+		return "*".equals(field) || "?".equals(field);
+	}
+
+	/**
+	 * 解析字段为位图
+	 *
+	 * @param field
+	 * 		字段
+	 * @param min
+	 * 		最小值
+	 * @param max
+	 * 		最大值
+	 * @param names
+	 * 		名称(从最小值开始),没有为 null
+	 *
+	 * @return long
+	 */
+	private long parseField(String field, int min, int max, String[] names) {
+		long bits = 0L;
+		for (String part : field.split(",")) {
+			int step = 1;
+			String range = part;
+			int slash = part.indexOf('/');
+			if (slash >= 0) {
+				step = parseValue(part.substring(slash + 1), 1, max, null, 0);
+				range = part.substring(0, slash);
+			}
+
+			int start;
+			int end;
+			if ("*".equals(range) || "?".equals(range)) {
+				start = min;
+				end = max;
+			} else {
+				int dash = range.indexOf('-');
+				if (dash >= 0) {
+					start = parseValue(range.substring(0, dash), min, max, names, min);
+					end = parseValue(range.substring(dash + 1), min, max, names, min);
+				} else {
+					start = parseValue(range, min, max, names, min);
+					// 5/15 表示从 5 开始到最大值每 15 一次
+					end = slash >= 0 ? max : start;
+				}
+			}
+			if (start > end) {
+				throw new IllegalArgumentException("cron expression range start > end:[" + part + "],[" + expression + "]");
+			}
+
+			for (int i = start; i <= end; i += step) {
+				bits |= 1L << i;
+			}
+		}
+		return bits;
+	}
+
+	private int parseValue(String value, int min, int max, String[] names, int nameOffset) {
+		if (names != null) {
+			for (int i = 0; i < names.length; i++) {
+				if (names[i].equalsIgnoreCase(value)) {
+					return i + nameOffset;
+				}
+			}
+		}
+
+		int result;
+		try {
+			result = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("cron expression invalid value:[" + value + "],[" + expression + "]");
+		}
+		if (result < min || result > max) {
+			throw new IllegalArgumentException("cron expression value out of range " + min + "-" + max + ":[" + value + "],[" + expression + "]");
+		}
+		return result;
+	}
+
+	public String getExpression() {
+		return expression;
+	}
+
+	public ZoneId getZone() {
+		return zone;
+	}
+
+	/**
+	 * 获取指定时间之后的下次执行时间
+	 *
+	 * @param epochMillis
+	 * 		指定时间毫秒时间戳
+	 *
+	 * @return long 下次执行时间毫秒时间戳(不包括指定时间),没有下次执行时间返回 {@link #NONE}
+	 */
+	public long next(long epochMillis) {
+		long fromSecond = Math.floorDiv(epochMillis, 1000L);
+		long local = fromSecond + window(fromSecond).offset;
+		while (true) {
+			local = nextLocal(local);
+			if (local == NONE) {
+				return NONE;
+			}
+			long epochSecond = toEpochSecond(local, fromSecond);
+			if (epochSecond > fromSecond) {
+				return epochSecond * 1000L;
+			}
+			// 重复的本地时间已经执行过,继续查找
+		}
+	}
+
+	/**
+	 * 查找本地时间之后满足表达式的本地时间
+	 *
+	 * @param localSecond
+	 * 		本地时间秒数(本地时间按照 UTC 计算的秒数)
+	 *
+	 * @return long 满足表达式的本地时间秒数,没有返回 {@link #NONE}
+	 */
+	private long nextLocal(long localSecond) {
+		long t = localSecond + 1;
+		long epochDay = Math.floorDiv(t, SECONDS_PER_DAY);
+		int secondOfDay = (int) Math.floorMod(t, SECONDS_PER_DAY);
+
+		// epochDay 转换为年月日(Howard Hinnant civil_from_days)
+		long z = epochDay + 719468;
+		long era = Math.floorDiv(z, 146097);
+		long doe = z - era * 146097;
+		long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+		long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+		long mp = (5 * doy + 2) / 153;
+		int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+		int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+		int year = (int) (yoe + era * 400 + (month <= 2 ? 1 : 0));
+
+		int hour = secondOfDay / 3600;
+		int minute = secondOfDay / 60 % 60;
+		int second = secondOfDay % 60;
+		int maxYear = year + MAX_YEARS;
+
+		while (year <= maxYear) {
+			int nextMonth = nextBit(months, month);
+			if (nextMonth < 0) {
+				year++;
+				month = 1;
+				day = 1;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextMonth != month) {
+				month = nextMonth;
+				day = 1;
+				hour = minute = second = 0;
+			}
+
+			int nextDay = nextDay(year, month, day);
+			if (nextDay < 0) {
+				month++;
+				day = 1;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextDay != day) {
+				day = nextDay;
+				hour = minute = second = 0;
+			}
+
+			int nextHour = nextBit(hours, hour);
+			if (nextHour < 0) {
+				day++;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextHour != hour) {
+				hour = nextHour;
+				minute = second = 0;
+			}
+
+			int nextMinute = nextBit(minutes, minute);
+			if (nextMinute < 0) {
+				hour++;
+				minute = second = 0;
+				continue;
+			}
+			if (nextMinute != minute) {
+				minute = nextMinute;
+				second = 0;
+			}
+
+			int nextSecond = nextBit(seconds, second);
+			if (nextSecond < 0) {
+				minute++;
+				second = 0;
+				continue;
+			}
+
+			return toEpochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L + nextSecond;
+		}
+		return NONE;
+	}
+
+	/**
+	 * 查找当月指定日期开始满足日和星期的日期
+	 *
+	 * @return int 日期,当月没有返回 -1
+	 */
+	private int nextDay(int year, int month, int day) {
+		int lengthOfMonth = lengthOfMonth(year, month);
+		if (day > lengthOfMonth) {
+			return -1;
+		}
+
+		long epochDay = toEpochDay(year, month, day);
+		for (; day <= lengthOfMonth; day++, epochDay++) {
+			boolean domMatch = (daysOfMonth & (1L << day)) != 0;
+			// 1970-01-01 是星期四
+			int dayOfWeek = (int) Math.floorMod(epochDay + 3, 7L) + 1;
+			boolean dowMatch = (daysOfWeek & (1L << dayOfWeek)) != 0;
+			if (dayOr ? domMatch || dowMatch : domMatch && dowMatch) {
+				return day;
+			}
+		}
+		return -1;
+	}
+
+	private static int nextBit(long bits, int from) {
+		if (from > 63) {
+			return -1;
+		}
+		long remain = bits & (-1L << from);
+		return remain == 0 ? -1 : Long.numberOfTrailingZeros(remain);
+	}
+
+	private static int lengthOfMonth(int year, int month) {
+		switch (month) {
+			case 2:
+				return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+			case 4:
+			case 6:
+			case 9:
+			case 11:
+				return 30;
+			default:
+				return 31;
+		}
+	}
+
+	/**
+	 * 年月日转换为 epochDay(Howard Hinnant days_from_civil)
+	 */
+	private static long toEpochDay(int year, int month, int day) {
+		long y = month <= 2 ? year - 1 : year;
+		long era = Math.floorDiv(y, 400);
+		long yoe = y - era * 400;
+		long doy = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+		return era * 146097 + doe - 719468;
+	}
+
+	/**
+	 * 本地时间转换为时间戳
+	 *
+	 * @param localSecond
+	 * 		本地时间秒数
+	 * @param fromSecond
+	 * 		查找开始时间戳(秒)
+	 *
+	 * @return long 时间戳(秒)
+	 */
+	private long toEpochSecond(long localSecond, long fromSecond) {
+		OffsetWindow current = window;
+		long epochSecond = localSecond - current.offset;
+		if (epochSecond - current.start >= MAX_OFFSET_SHIFT && current.end - epochSecond > MAX_OFFSET_SHIFT) {
+			// 距离偏移量变化足够远,只有一个有效偏移量
+			return epochSecond;
+		}
+
+		ZoneRules zoneRules = rules();
+		LocalDateTime dateTime = LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC);
+		ZoneOffsetTransition transition = zoneRules.getTransition(dateTime);
+		if (transition == null) {
+			epochSecond = localSecond - zoneRules.getOffset(dateTime).getTotalSeconds();
+			window(epochSecond);
+			return epochSecond;
+		}
+		if (transition.isGap()) {
+			// 跳过的本地时间在跳过结束时执行
+			return transition.toEpochSecond();
+		}
+		// 重复的本地时间只在第一次执行
+		epochSecond = localSecond - transition.getOffsetBefore().getTotalSeconds();
+		return epochSecond > fromSecond ? epochSecond : localSecond - transition.getOffsetAfter().getTotalSeconds();
+	}
+
+	/**
+	 * 获取时间戳所在的时区偏移量区间
+	 *
+	 * @param epochSecond
+	 * 		时间戳(秒)
+	 *
+	 * @return OffsetWindow
+	 */
+	private OffsetWindow window(long epochSecond) {
+		OffsetWindow current = window;
+		if (current != null && epochSecond >= current.start && epochSecond < current.end) {
+			return current;
+		}
+
+		ZoneRules zoneRules = rules();
+		Instant instant = Instant.ofEpochSecond(epochSecond);
+		ZoneOffsetTransition previous = zoneRules.previousTransition(instant.plusSeconds(1));
+		ZoneOffsetTransition next = zoneRules.nextTransition(instant);
+		current = new OffsetWindow(previous == null ? Long.MIN_VALUE / 2 : previous.toEpochSecond(),
+				next == null ? Long.MAX_VALUE / 2 : next.toEpochSecond(),
+				zoneRules.getOffset(instant).getTotalSeconds());
+		window = current;
+		return current;
+	}
+
+	private ZoneRules rules() {
+		ZoneRules zoneRules = rules;
+		if (zoneRules == null) {
+			zoneRules = zone.getRules();
+			rules = zoneRules;
+		}
+		return zoneRules;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof CronExpression)) {
+			return false;
+		}
+		CronExpression that = (CronExpression) o;
+		return seconds == that.seconds && minutes == that.minutes && hours == that.hours
+				&& daysOfMonth == that.daysOfMonth && months == that.months && daysOfWeek == that.daysOfWeek
+				&& dayOr == that.dayOr && zone.equals(that.zone);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = Long.hashCode(seconds);
+		result = 31 * result + Long.hashCode(minutes);
+		result = 31 * result + Long.hashCode(hours);
+		result = 31 * result + Long.hashCode(daysOfMonth);
+		result = 31 * result + Long.hashCode(months);
+		result = 31 * result + Long.hashCode(daysOfWeek);
+		result = 31 * result + Boolean.hashCode(dayOr);
+		return 31 * result + zone.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return expression + " " + zone;
+	}
+
+	/**
+	 * 时区偏移量不变的时间区间 [start, end)
+	 */
+	private static final class OffsetWindow {
+		private final long start;
+		private final long end;
+		private final int offset;
+
+		private OffsetWindow(long start, long end, int offset) {
+			this.start = start;
+			this.end = end;
+			this.offset = offset;
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package io.github.hdfg159.scheduler.trigger;
+
+/**
+ * 错过执行处理策略<br>
+ * 取出触发器时距离计划执行时间超过阈值(scheduler.misfireThreshold)视为错过执行,例如调度繁忙、停机恢复、加入调度时执行时间已经过去
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public enum MisfirePolicy {
+	/**
+	 * 立即执行一次,下次执行时间从当前时间计算(默认,兼容旧版本行为)
+	 */
+	FIRE_ONCE_NOW,
+	/**
+	 * 补执行全部错过的执行,下次执行时间从上次计划执行时间计算,补执行按照 scheduler.misfire.rateLimit 限速
+	 */
+	FIRE_ALL_MISSED,
+	/**
+	 * 不执行错过的执行,直接进入当前时间之后的下一次计划执行时间;SimpleTrigger 固定延迟执行时按照上次计划执行时间 + k * 执行间隔计算
+	 */
+	SKIP_TO_NEXT,
+	/**
+	 * 立即执行一次,下次执行时间为当前时间之后的下一次计划执行时间(按照原计划时间间隔,不漂移);SimpleTrigger 使用该策略时按照固定频率执行,等同于 fixedRate(true)
+	 */
+	FIXED_RATE_CATCH_UP
+}
@@ -0,0 +1,173 @@
+package io.github.hdfg159.scheduler.trigger;
+
+import java.io.Serializable;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 任务出错重试退避策略<br>
+ * 第 n 次重试延迟 = min(最大延迟, 初始延迟 * 倍数^(n-1)),再按照抖动比例随机增减;从第一次出错开始超过最长重试时间后不再重试
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public final class RetryPolicy implements Serializable {
+	private static final long serialVersionUID = 4101384925236164013L;
+	private static final String PROPERTIES_INITIAL_DELAY = "scheduler.retry.initialDelay";
+	private static final String PROPERTIES_MAX_DELAY = "scheduler.retry.maxDelay";
+	private static final String PROPERTIES_MULTIPLIER = "scheduler.retry.multiplier";
+	private static final String PROPERTIES_JITTER = "scheduler.retry.jitter";
+	private static final String PROPERTIES_MAX_ELAPSED = "scheduler.retry.maxElapsed";
+	/**
+	 * 默认初始延迟(毫秒)
+	 */
+	private static final long INITIAL_DELAY = 1000L;
+	/**
+	 * 默认最大延迟(毫秒)
+	 */
+	private static final long MAX_DELAY = 60000L;
+	/**
+	 * 默认倍数
+	 */
+	private static final double MULTIPLIER = 2D;
+	/**
+	 * 默认抖动比例
+	 */
+	private static final double JITTER = 0.2D;
+
+	/**
+	 * 初始延迟(毫秒)
+	 */
+	private final long initialDelay;
+	/**
+	 * 最大延迟(毫秒)
+	 */
+	private final long maxDelay;
+	/**
+	 * 每次重试延迟倍数
+	 */
+	private final double multiplier;
+	/**
+	 * 抖动比例(0~1),多个任务同时出错时分散重试时间
+	 */
+	private final double jitter;
+	/**
+	 * 最长重试时间(毫秒),0 为不限制
+	 */
+	private final long maxElapsed;
+
+	/**
+	 * 创建退避策略
+	 *
+	 * @param initialDelay
+	 * 		初始延迟(毫秒)
+	 * @param maxDelay
+	 * 		最大延迟(毫秒)
+	 * @param multiplier
+	 * 		每次重试延迟倍数
+	 * @param jitter
+	 * 		抖动比例(0~1)
+	 * @param maxElapsed
+	 * 		最长重试时间(毫秒),0 为不限制
+	 */
+	public RetryPolicy(long initialDelay, long maxDelay, double multiplier, double jitter, long maxElapsed) {
+		if (initialDelay < 0 || maxDelay < initialDelay) {
+			throw new IllegalArgumentException("retry delay must 0 <= initialDelay <= maxDelay");
+		}
+		if (multiplier < 1D) {
+			throw new IllegalArgumentException("retry multiplier must >= 1");
+		}
+		if (jitter < 0D || jitter > 1D) {
+			throw new IllegalArgumentException("retry jitter must between 0 and 1");
+		}
+		if (maxElapsed < 0) {
+			throw new IllegalArgumentException("retry max elapsed must >= 0");
+		}
+		this.initialDelay = initialDelay;
+		this.maxDelay = maxDelay;
+		this.multiplier = multiplier;
+		this.jitter = jitter;
+		this.maxElapsed = maxElapsed;
+	}
+
+	/**
+	 * 按照配置创建默认退避策略
+	 *
+	 * @param properties
+	 * 		配置
+	 *
+	 * @return RetryPolicy
+	 */
+	public static RetryPolicy of(Properties properties) {
+		return new RetryPolicy(
+				Optional.ofNullable(properties.getProperty(PROPERTIES_INITIAL_DELAY)).map(Long::parseLong).orElse(INITIAL_DELAY),
+				Optional.ofNullable(properties.getProperty(PROPERTIES_MAX_DELAY)).map(Long::parseLong).orElse(MAX_DELAY),
+				Optional.ofNullable(properties.getProperty(PROPERTIES_MULTIPLIER)).map(Double::parseDouble).orElse(MULTIPLIER),
+				Optional.ofNullable(properties.getProperty(PROPERTIES_JITTER)).map(Double::parseDouble).orElse(JITTER),
+				Optional.ofNullable(properties.getProperty(PROPERTIES_MAX_ELAPSED)).map(Long::parseLong).orElse(0L));
+	}
+
+	/**
+	 * 第几次重试的延迟
+	 *
+	 * @param attempt
+	 * 		重试次数(从 1 开始)
+	 *
+	 * @return long 毫秒
+	 */
+	public long delay(int attempt) {
+		double delay = initialDelay * Math.pow(multiplier, Math.max(attempt - 1, 0));
+		delay = Math.min(delay, maxDelay);
+		if (jitter > 0D) {
+			delay *= 1D + jitter * (ThreadLocalRandom.current().nextDouble() * 2D - 1D);
+		}
+		return Math.max((long) delay, 0L);
+	}
+
+	/**
+	 * 是否超过最长重试时间
+	 *
+	 * @param firstFailureTime
+	 * 		第一次出错时间(毫秒时间戳)
+	 * @param retryTime
+	 * 		下一次重试时间(毫秒时间戳)
+	 *
+	 * @return boolean
+	 */
+	public boolean isExpired(long firstFailureTime, long retryTime) {
+		return maxElapsed > 0 && retryTime - firstFailureTime > maxElapsed;
+	}
+
+	public long getInitialDelay() {
+		return initialDelay;
+	}
+
+	public long getMaxDelay() {
+		return maxDelay;
+	}
+
+	public double getMultiplier() {
+		return multiplier;
+	}
+
+	public double getJitter() {
+		return jitter;
+	}
+
+	public long getMaxElapsed() {
+		return maxElapsed;
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", RetryPolicy.class.getSimpleName() + "[", "]")
+				.add("initialDelay=" + initialDelay)
+				.add("maxDelay=" + maxDelay)
+				.add("multiplier=" + multiplier)
+				.add("jitter=" + jitter)
+				.add("maxElapsed=" + maxElapsed)
+				.toString();
+	}
+}
@@ -1,11 +1,16 @@
 package io.github.hdfg159.scheduler.trigger;
 
+import io.github.hdfg159.scheduler.SchedulerManager;
 import io.github.hdfg159.scheduler.function.Consumer;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 import java.util.concurrent.Delayed;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.BiConsumer;
 
 /**
@@ -49,6 +54,27 @@ public interface Trigger extends Serializable, Delayed, TriggerProperties {
 	 */
 	Trigger executeTime(LocalDateTime executeTime);
 
+	/**
+	 * 获取执行时间毫秒时间戳
+	 *
+	 * @return long
+	 */
+	default long getDeadline() {
+		return getExecuteTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+	/**
+	 * 通过毫秒时间戳设置执行时间
+	 *
+	 * @param deadline
+	 * 		执行时间毫秒时间戳
+	 *
+	 * @return Trigger
+	 */
+	default Trigger deadline(long deadline) {
+		return executeTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(deadline), ZoneId.systemDefault()));
+	}
+
 	/**
 	 * 自定义在原来基础上生成一个新的触发器
 	 *
@@ -57,12 +83,21 @@ public interface Trigger extends Serializable, Delayed, TriggerProperties {
 	Optional<Trigger> nextTrigger();
 
 	/**
-	 * 调度
+	 * 调度(加入绑定的调度器)
 	 *
 	 * @return boolean true:放入调度队列成功,false:放入调度队列失败
 	 */
 	boolean schedule();
 
+	/**
+	 * 绑定的调度器,{@link #schedule()} 和 {@link #scheduleCancel()} 使用
+	 *
+	 * @return SchedulerManager 未绑定时为 {@link SchedulerManager#INSTANCE},{@link AbstractTrigger} 加入调度器成功时自动绑定
+	 */
+	default SchedulerManager getScheduler() {
+		return SchedulerManager.INSTANCE;
+	}
+
 	/**
 	 * 取消任务
 	 * 与{@link Trigger#cancel(boolean)}不同，可以在取消后马上加入新的同名定时器
@@ -71,6 +106,22 @@ public interface Trigger extends Serializable, Delayed, TriggerProperties {
 	 */
 	boolean scheduleCancel();
 
+	/**
+	 * 拆分子任务异步执行,通过 {@link ForkJoinTask#join()} 获取结果<br>
+	 * 在 {@link io.github.hdfg159.scheduler.thread.WorkStealingThreadPoolExecutor} 中执行时放入当前线程任务队列,空闲线程可以窃取执行;
+	 * 在其他线程池中执行时使用 {@link java.util.concurrent.ForkJoinPool#commonPool()}
+	 *
+	 * @param task
+	 * 		子任务
+	 * @param <V>
+	 * 		结果类型
+	 *
+	 * @return {@code ForkJoinTask<V>}
+	 */
+	default <V> ForkJoinTask<V> fork(Callable<V> task) {
+		return ForkJoinTask.adapt(task).fork();
+	}
+
 	/**
 	 * 抛出异常后 默认处理方法
 	 *
@@ -108,4 +159,26 @@ public interface Trigger extends Serializable, Delayed, TriggerProperties {
 	 * @return Trigger
 	 */
 	Trigger afterExceptionCaught(BiConsumer<Trigger, Throwable> consumer);
+
+	/**
+	 * 错过执行(线程池过载跳过本次执行)后 默认处理方法
+	 *
+	 * @param lag
+	 * 		距离计划执行时间(毫秒)
+	 */
+	default void misfire(long lag) {
+		BiConsumer<Trigger, Long> consumer = getAfterMisfire();
+		if (consumer != null) {
+			consumer.accept(this, lag);
+		}
+	}
+
+	/**
+	 * 获取 Trigger 错过执行后操作 消费
+	 *
+	 * @return {@code BiConsumer<Trigger, Long>} null 为不处理
+	 */
+	default BiConsumer<Trigger, Long> getAfterMisfire() {
+		return null;
+	}
 }
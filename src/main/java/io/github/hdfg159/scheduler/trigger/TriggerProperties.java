@@ -1,8 +1,8 @@
 package io.github.hdfg159.scheduler.trigger;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 触发器 属性
@@ -80,6 +80,141 @@ public interface TriggerProperties {
 	 */
 	long getCostTime();
 	
+	/**
+	 * 获取任务执行时间估计值(多次执行耗时的指数加权移动平均),默认为上次任务执行时间
+	 *
+	 * @return long 毫秒
+	 */
+	default long getCostEstimate() {
+		return getCostTime();
+	}
+	
+	/**
+	 * 是否处于慢任务状态(由线程池路由维护)
+	 *
+	 * @return boolean
+	 */
+	default boolean isSlow() {
+		return false;
+	}
+	
+	/**
+	 * 设置慢任务状态
+	 *
+	 * @param slow
+	 * 		是否慢任务
+	 *
+	 * @return TriggerProperties
+	 */
+	default TriggerProperties slow(boolean slow) {
+		return this;
+	}
+	
+	/**
+	 * 获取任务分组,存在同名线程池(scheduler.pool.&lt;group&gt;.class)时使用该线程池执行
+	 *
+	 * @return String
+	 */
+	default String getGroup() {
+		return null;
+	}
+	
+	/**
+	 * 设置任务分组
+	 *
+	 * @param group
+	 * 		分组
+	 *
+	 * @return TriggerProperties
+	 */
+	default TriggerProperties group(String group) {
+		return this;
+	}
+	
+	/**
+	 * 获取错过执行处理策略
+	 *
+	 * @return MisfirePolicy
+	 */
+	default MisfirePolicy getMisfirePolicy() {
+		return MisfirePolicy.FIRE_ONCE_NOW;
+	}
+	
+	/**
+	 * 设置错过执行处理策略
+	 *
+	 * @param misfirePolicy
+	 * 		错过执行处理策略
+	 *
+	 * @return TriggerProperties
+	 */
+	default TriggerProperties misfirePolicy(MisfirePolicy misfirePolicy) {
+		return this;
+	}
+	
+	/**
+	 * 获取并发执行控制策略
+	 *
+	 * @return ConcurrencyPolicy
+	 */
+	default ConcurrencyPolicy getConcurrencyPolicy() {
+		return ConcurrencyPolicy.ALLOW_OVERLAP;
+	}
+	
+	/**
+	 * 设置并发执行控制策略
+	 *
+	 * @param concurrencyPolicy
+	 * 		并发执行控制策略
+	 *
+	 * @return TriggerProperties
+	 */
+	default TriggerProperties concurrencyPolicy(ConcurrencyPolicy concurrencyPolicy) {
+		return this;
+	}
+	
+	/**
+	 * 获取最大并发执行数
+	 *
+	 * @return int 0 为按照并发执行控制策略默认值
+	 */
+	default int getMaxConcurrent() {
+		return 0;
+	}
+	
+	/**
+	 * 设置最大并发执行数(已经分发还未执行完成的次数)
+	 *
+	 * @param maxConcurrent
+	 * 		最大并发执行数,0 为按照并发执行控制策略默认值
+	 *
+	 * @return TriggerProperties
+	 */
+	default TriggerProperties maxConcurrent(int maxConcurrent) {
+		return this;
+	}
+	
+	/**
+	 * 获取任务标识,设置后触发器可以持久化,恢复时使用该标识注册的任务
+	 *
+	 * @return String
+	 */
+	default String getJobKey() {
+		return null;
+	}
+	
+	/**
+	 * 设置任务标识
+	 *
+	 * @param jobKey
+	 * 		任务标识
+	 *
+	 * @return TriggerProperties
+	 */
+	default TriggerProperties jobKey(String jobKey) {
+		return this;
+	}
+	
 	/**
 	 * 前后任务是否顺序执行
 	 *
@@ -101,7 +236,8 @@ public interface TriggerProperties {
 	
 	/**
 	 * 设置任务错误 重试次数<br>
-	 * -1为重试直到成功<br>
+	 * -1为重试直到成功(或者超过退避策略最长重试时间)<br>
+	 * 重试按照退避策略延迟后重新放入线程池,等待期间不占用执行线程<br>
 	 *
 	 * @param times
 	 * 		重试次数
@@ -110,24 +246,47 @@ public interface TriggerProperties {
 	 */
 	TriggerProperties retry(long times);
 	
+	/**
+	 * 获取重试退避策略
+	 *
+	 * @return RetryPolicy null 为使用调度器配置(scheduler.retry.*)
+	 */
+	default RetryPolicy getRetryPolicy() {
+		return null;
+	}
+	
+	/**
+	 * 设置重试退避策略
+	 *
+	 * @param retryPolicy
+	 * 		重试退避策略,null 为使用调度器配置
+	 *
+	 * @return TriggerProperties
+	 */
+	default TriggerProperties retryPolicy(RetryPolicy retryPolicy) {
+		return this;
+	}
+	
 	/**
 	 * 初始化重试次数
+	 *
+	 * @deprecated 重试次数由每次重试的任务记录,不再需要初始化
 	 */
+	@Deprecated
 	default void initRetryTimes() {
-		Map<Long, Long> retryCountMap = getRetryCountMap();
-		if (retryCountMap == null) {
-			retryCountMap(new ConcurrentHashMap<>());
-		}
-		
-		getRetryCountMap().put(getId(), getRetry());
 	}
 	
 	/**
 	 * 获取重试剩余次数
 	 *
-	 * @return {@code Map<Long, Long>} [任务ID:重试剩余次数]
+	 * @return {@code Map<Long, Long>} 空
+	 *
+	 * @deprecated 重试次数由每次重试的任务记录,不再保存在触发器
 	 */
-	Map<Long, Long> getRetryCountMap();
+	@Deprecated
+	default Map<Long, Long> getRetryCountMap() {
+		return Collections.emptyMap();
+	}
 	
 	/**
 	 * 设置重试剩余次数
@@ -135,9 +294,14 @@ public interface TriggerProperties {
 	 * @param retryCountMap
 	 * 		设置重试次数map
 	 *
-	 * @return {@code TriggerProperties} [任务ID:重试剩余次数]
+	 * @return {@code TriggerProperties}
+	 *
+	 * @deprecated 重试次数由每次重试的任务记录,设置不生效
 	 */
-	TriggerProperties retryCountMap(Map<Long, Long> retryCountMap);
+	@Deprecated
+	default TriggerProperties retryCountMap(Map<Long, Long> retryCountMap) {
+		return this;
+	}
 	
 	/**
 	 * 获取任务 ID
@@ -0,0 +1,108 @@
+package io.github.hdfg159.scheduler.trigger.impl;
+
+import io.github.hdfg159.scheduler.function.Consumer;
+import io.github.hdfg159.scheduler.trigger.AbstractTrigger;
+import io.github.hdfg159.scheduler.trigger.CronExpression;
+import io.github.hdfg159.scheduler.trigger.MisfirePolicy;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+import io.github.hdfg159.scheduler.util.Sequence;
+
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * cron 表达式调度触发器
+ *
+ * @author hdfg159
+ * @version 1.0
+ * @see CronExpression
+ */
+public class CronTrigger extends AbstractTrigger<CronTrigger> {
+	private static final long serialVersionUID = -2853208327160785429L;
+	private CronExpression cron;
+
+	/**
+	 * 创建 cron 表达式调度触发器
+	 *
+	 * @param name
+	 * 		名称
+	 * @param expression
+	 * 		cron 表达式
+	 * @param zone
+	 * 		时区
+	 * @param job
+	 * 		任务接口
+	 */
+	public CronTrigger(String name, String expression, ZoneId zone, Consumer<Trigger> job) {
+		this(name, new CronExpression(expression, zone), job);
+	}
+
+	/**
+	 * 创建 cron 表达式调度触发器
+	 *
+	 * @param name
+	 * 		名称
+	 * @param cron
+	 * 		cron 表达式(可以多个触发器共用)
+	 * @param job
+	 * 		任务接口
+	 */
+	public CronTrigger(String name, CronExpression cron, Consumer<Trigger> job) {
+		if (name == null) {
+			throw new IllegalArgumentException("trigger must have a name");
+		}
+		name(name);
+
+		if (cron == null) {
+			throw new IllegalArgumentException("trigger cron expression required not null");
+		}
+		this.cron = cron;
+
+		if (job == null) {
+			throw new IllegalArgumentException("trigger job required not null");
+		}
+		job(job);
+
+		long next = cron.next(System.currentTimeMillis());
+		if (next == CronExpression.NONE) {
+			throw new IllegalArgumentException("trigger cron expression never fire:[" + cron.getExpression() + "]");
+		}
+		deadline(next);
+	}
+
+	public CronExpression getCron() {
+		return cron;
+	}
+
+	@Override
+	public Optional<Trigger> nextTrigger() {
+		if (isCancel()) {
+			return Optional.empty();
+		}
+
+		long now = System.currentTimeMillis();
+		long previous = getDeadline();
+		// 补执行全部错过的执行时从上次计划执行时间计算,其他策略都是当前时间之后的下一次计划执行时间
+		long from = getMisfirePolicy() == MisfirePolicy.FIRE_ALL_MISSED ? previous : Math.max(now, previous);
+		long next = cron.next(from);
+		if (next == CronExpression.NONE) {
+			return Optional.empty();
+		}
+		// 设置上次执行时间
+		previousTime(now);
+		// 设置下次执行时间
+		deadline(next);
+		// 更新有序 ID
+		id(Sequence.SEQUENCE.nextId());
+		return Optional.of(this);
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", CronTrigger.class.getSimpleName() + "[", "]")
+				.add("cron=" + cron)
+				.add(super.toString())
+				.toString();
+	}
+}
@@ -2,6 +2,7 @@ package io.github.hdfg159.scheduler.trigger.impl;
 
 import io.github.hdfg159.scheduler.function.Consumer;
 import io.github.hdfg159.scheduler.trigger.AbstractTrigger;
+import io.github.hdfg159.scheduler.trigger.MisfirePolicy;
 import io.github.hdfg159.scheduler.trigger.Trigger;
 import io.github.hdfg159.scheduler.util.Sequence;
 
@@ -60,23 +61,29 @@ public class DayTrigger extends AbstractTrigger<DayTrigger> {
 		}
 		this.days = Arrays.stream(days).sorted().mapToObj(DayOfWeek::of).collect(toList());
 
-		executeTime(getNextExecuteTime());
+		executeTime(getNextExecuteTime(LocalDateTime.now(), true));
 	}
 
 	/**
 	 * 获取下次执行时间
 	 *
+	 * @param from
+	 * 		开始时间
+	 * @param inclusive
+	 * 		是否包括开始时间
+	 *
 	 * @return LocalDateTime
 	 */
-	private LocalDateTime getNextExecuteTime() {
+	private LocalDateTime getNextExecuteTime(LocalDateTime from, boolean inclusive) {
+		LocalDate fromDate = from.toLocalDate();
 		return days.stream()
-				.map(dw -> LocalDate.now().with(dw))
+				.map(fromDate::with)
 				.map(date -> LocalDateTime.of(date, time))
-				.filter(dateTime -> !dateTime.isBefore(LocalDateTime.now()))
+				.filter(dateTime -> inclusive ? !dateTime.isBefore(from) : dateTime.isAfter(from))
 				.findFirst()
 				.orElseGet(() -> {
 					DayOfWeek adjuster = days.get(0);
-					LocalDate date = LocalDate.now().plusWeeks(1).with(adjuster);
+					LocalDate date = fromDate.plusWeeks(1).with(adjuster);
 					return LocalDateTime.of(date, time);
 				});
 	}
@@ -95,14 +102,18 @@ public class DayTrigger extends AbstractTrigger<DayTrigger> {
 			return Optional.empty();
 		}
 
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime previous = getExecuteTime();
+		// 补执行全部错过的执行时从上次计划执行时间计算,其他策略都是当前时间之后的下一次计划执行时间
+		LocalDateTime next = getMisfirePolicy() == MisfirePolicy.FIRE_ALL_MISSED && previous != null
+				? getNextExecuteTime(previous, false)
+				: getNextExecuteTime(now, true);
 		// 设置上次执行时间
-		setPreviousTime(LocalDateTime.now());
+		setPreviousTime(now);
 		// 设置下次执行时间
-		executeTime(getNextExecuteTime());
+		executeTime(next);
 		// 更新有序 ID
 		id(Sequence.SEQUENCE.nextId());
-		// 更新当前任务ID对应的错误重试次数
-		initRetryTimes();
 		return Optional.of(this);
 	}
 
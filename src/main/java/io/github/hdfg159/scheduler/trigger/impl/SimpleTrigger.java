@@ -2,10 +2,15 @@ package io.github.hdfg159.scheduler.trigger.impl;
 
 import io.github.hdfg159.scheduler.function.Consumer;
 import io.github.hdfg159.scheduler.trigger.AbstractTrigger;
+import io.github.hdfg159.scheduler.trigger.MisfirePolicy;
 import io.github.hdfg159.scheduler.trigger.Trigger;
 import io.github.hdfg159.scheduler.util.Sequence;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.temporal.TemporalUnit;
 import java.util.Optional;
 import java.util.StringJoiner;
@@ -41,6 +46,22 @@ public class SimpleTrigger extends AbstractTrigger<SimpleTrigger> {
 	 * 定时器结束生效时间
 	 */
 	private LocalDateTime endTime;
+	/**
+	 * 是否固定频率执行:true 按照 生效时间 + k * 执行间隔 执行,false 按照上次执行时间 + 执行间隔 执行(固定延迟);错过执行处理策略为 {@link MisfirePolicy#FIXED_RATE_CATCH_UP} 时总是固定频率
+	 */
+	private boolean fixedRate = false;
+	/**
+	 * 执行间隔毫秒数,执行间隔单位时长不固定或者不是整毫秒时为 0,按照 LocalDateTime 计算
+	 */
+	private transient long intervalMillis;
+	/**
+	 * 生效时间毫秒时间戳
+	 */
+	private transient long startMillis;
+	/**
+	 * 结束生效时间毫秒时间戳,没有结束时间为 Long.MAX_VALUE
+	 */
+	private transient long endMillis;
 
 	/**
 	 * 创建简单定时器
@@ -93,6 +114,33 @@ public class SimpleTrigger extends AbstractTrigger<SimpleTrigger> {
 			throw new IllegalArgumentException("trigger job required not null");
 		}
 		job(job);
+		initMillis();
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		initMillis();
+	}
+
+	/**
+	 * 计算毫秒时间,每次计算下次执行时间不需要创建 LocalDateTime
+	 */
+	private void initMillis() {
+		this.startMillis = startTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		this.endMillis = endTime == null ? Long.MAX_VALUE : endTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+		long millis = 0L;
+		if (!intervalUnit.isDurationEstimated()) {
+			try {
+				Duration duration = intervalUnit.getDuration().multipliedBy(interval);
+				if (duration.getNano() % 1_000_000 == 0) {
+					millis = duration.toMillis();
+				}
+			} catch (ArithmeticException e) {
+				// 超出毫秒范围,按照 LocalDateTime 计算
+			}
+		}
+		this.intervalMillis = millis;
 	}
 
 	public long getExecuteTimes() {
@@ -107,6 +155,29 @@ public class SimpleTrigger extends AbstractTrigger<SimpleTrigger> {
 		return intervalUnit;
 	}
 
+	/**
+	 * 修改执行间隔,下次计算执行时间时生效;已经在调度队列中的触发器通过 {@link io.github.hdfg159.scheduler.SchedulerManager#update} 修改
+	 *
+	 * @param interval
+	 * 		执行间隔
+	 * @param intervalUnit
+	 * 		执行间隔时间单位
+	 *
+	 * @return SimpleTrigger
+	 */
+	public SimpleTrigger interval(long interval, TemporalUnit intervalUnit) {
+		if (interval < 0) {
+			throw new IllegalArgumentException("trigger interval must be >= 0");
+		}
+		if (intervalUnit == null) {
+			throw new IllegalArgumentException("trigger interval unit required not null");
+		}
+		this.interval = interval;
+		this.intervalUnit = intervalUnit;
+		initMillis();
+		return this;
+	}
+
 	public LocalDateTime getStartTime() {
 		return startTime;
 	}
@@ -115,6 +186,166 @@ public class SimpleTrigger extends AbstractTrigger<SimpleTrigger> {
 		return endTime;
 	}
 
+	/**
+	 * 是否固定频率执行,设置固定频率或者错过执行处理策略为 {@link MisfirePolicy#FIXED_RATE_CATCH_UP} 时为 true
+	 *
+	 * @return boolean
+	 */
+	public boolean isFixedRate() {
+		return fixedRate || getMisfirePolicy() == MisfirePolicy.FIXED_RATE_CATCH_UP;
+	}
+
+	/**
+	 * 设置是否固定频率执行
+	 *
+	 * @param fixedRate
+	 * 		true:按照 生效时间 + k * 执行间隔 执行,执行耗时和调度延迟不会累积;false:按照上次执行时间 + 执行间隔 执行(默认),错过执行处理策略为 {@link MisfirePolicy#FIXED_RATE_CATCH_UP} 时仍然固定频率
+	 *
+	 * @return SimpleTrigger
+	 */
+	public SimpleTrigger fixedRate(boolean fixedRate) {
+		this.fixedRate = fixedRate;
+		return this;
+	}
+
+	/**
+	 * 按照错过执行处理策略获取下次执行时间(毫秒时间戳)
+	 *
+	 * @param now
+	 * 		当前时间毫秒时间戳
+	 * @param step
+	 * 		执行间隔毫秒数
+	 *
+	 * @return long
+	 */
+	private long getNextDeadline(long now, long step) {
+		long previous = getDeadline();
+		if (previous == Long.MAX_VALUE) {
+			return now + step;
+		}
+
+		if (isFixedRate()) {
+			// 固定频率:下一个 生效时间 + k * 执行间隔,除了逐次补执行,错过的执行只补一次
+			long next = getNextDeadlineAfter(previous, step);
+			return next > now || getMisfirePolicy() == MisfirePolicy.FIRE_ALL_MISSED ? next : getNextDeadlineAfter(now, step);
+		}
+
+		switch (getMisfirePolicy()) {
+			case FIRE_ALL_MISSED:
+				return previous + step;
+			case SKIP_TO_NEXT:
+				// 固定延迟:保持上次计划执行时间的间隔,跳过当前时间之前的执行
+				long next = previous + step;
+				return next > now ? next : next + ((now - next) / step + 1) * step;
+			case FIRE_ONCE_NOW:
+			default:
+				return now + step;
+		}
+	}
+
+	/**
+	 * 获取指定时间之后下一个 生效时间 + k * 执行间隔(毫秒时间戳)
+	 *
+	 * @param after
+	 * 		指定时间毫秒时间戳
+	 * @param step
+	 * 		执行间隔毫秒数
+	 *
+	 * @return long
+	 */
+	private long getNextDeadlineAfter(long after, long step) {
+		if (after < startMillis) {
+			return startMillis;
+		}
+		return startMillis + ((after - startMillis) / step + 1) * step;
+	}
+
+	/**
+	 * 固定频率获取下次执行时间,执行间隔单位时长不固定时使用
+	 *
+	 * @param now
+	 * 		当前时间
+	 *
+	 * @return LocalDateTime
+	 */
+	private LocalDateTime getNextFixedRateTime(LocalDateTime now) {
+		LocalDateTime next = getNextFixedRateTimeAfter(getExecuteTime());
+		return next.isAfter(now) || getMisfirePolicy() == MisfirePolicy.FIRE_ALL_MISSED ? next : getNextFixedRateTimeAfter(now);
+	}
+
+	/**
+	 * 获取指定时间之后下一个 生效时间 + k * 执行间隔
+	 *
+	 * @param after
+	 * 		指定时间
+	 *
+	 * @return LocalDateTime
+	 */
+	private LocalDateTime getNextFixedRateTimeAfter(LocalDateTime after) {
+		// 每次从生效时间计算,避免月末等日期被逐次截断
+		long k = Math.max(0L, intervalUnit.between(startTime, after) / interval);
+		LocalDateTime next = startTime.plus(k * interval, intervalUnit);
+		while (!next.isAfter(after)) {
+			next = startTime.plus(++k * interval, intervalUnit);
+		}
+		return next;
+	}
+
+	/**
+	 * 按照错过执行处理策略获取下次执行时间
+	 *
+	 * @param now
+	 * 		当前时间
+	 *
+	 * @return LocalDateTime
+	 */
+	private LocalDateTime getNextExecuteTime(LocalDateTime now) {
+		LocalDateTime previous = getExecuteTime();
+		if (previous == null || interval == 0) {
+			return now.plus(interval, intervalUnit);
+		}
+
+		switch (getMisfirePolicy()) {
+			case FIRE_ALL_MISSED:
+				// 从上次计划执行时间计算,错过的执行逐次补执行
+				return previous.plus(interval, intervalUnit);
+			case SKIP_TO_NEXT:
+				return getNextExecuteTimeAfter(previous, now);
+			case FIRE_ONCE_NOW:
+			default:
+				return now.plus(interval, intervalUnit);
+		}
+	}
+
+	/**
+	 * 按照计划时间间隔获取当前时间之后的下一次执行时间
+	 *
+	 * @param previous
+	 * 		上次计划执行时间
+	 * @param now
+	 * 		当前时间
+	 *
+	 * @return LocalDateTime
+	 */
+	private LocalDateTime getNextExecuteTimeAfter(LocalDateTime previous, LocalDateTime now) {
+		LocalDateTime next = previous.plus(interval, intervalUnit);
+		if (next.isAfter(now)) {
+			return next;
+		}
+
+		if (intervalUnit.isDurationEstimated()) {
+			// 月、年等时长不固定,逐次计算
+			while (!next.isAfter(now)) {
+				next = next.plus(interval, intervalUnit);
+			}
+			return next;
+		}
+
+		long step = intervalUnit.getDuration().multipliedBy(interval).toNanos();
+		long behind = Duration.between(next, now).toNanos();
+		return next.plusNanos((behind / step + 1) * step);
+	}
+
 	@Override
 	public Optional<Trigger> nextTrigger() {
 		if (isCancel()) {
@@ -124,8 +355,8 @@ public class SimpleTrigger extends AbstractTrigger<SimpleTrigger> {
 			return Optional.empty();
 		}
 
-		LocalDateTime now = LocalDateTime.now();
-		if (endTime != null && endTime.isBefore(now)) {
+		long now = System.currentTimeMillis();
+		if (now > endMillis) {
 			return Optional.empty();
 		}
 
@@ -133,14 +364,21 @@ public class SimpleTrigger extends AbstractTrigger<SimpleTrigger> {
 			// 不是无限次执行,才执行次数-1
 			executeTimes -= 1;
 		}
-		// 设置上次执行时间
-		setPreviousTime(now);
-		// 设置下次执行时间
-		executeTime(now.plus(interval, intervalUnit));
+		if (intervalMillis > 0) {
+			// 毫秒时间戳计算,执行时间在获取时才创建
+			long next = getNextDeadline(now, intervalMillis);
+			previousTime(now);
+			deadline(next);
+		} else {
+			LocalDateTime nowTime = LocalDateTime.now();
+			LocalDateTime next = isFixedRate() && interval > 0 ? getNextFixedRateTime(nowTime) : getNextExecuteTime(nowTime);
+			// 设置上次执行时间
+			setPreviousTime(nowTime);
+			// 设置下次执行时间
+			executeTime(next);
+		}
 		// 更新有序 ID
 		id(Sequence.SEQUENCE.nextId());
-		// 更新当前任务ID对应的错误重试次数
-		initRetryTimes();
 		return Optional.of(this);
 	}
 
@@ -152,6 +390,7 @@ public class SimpleTrigger extends AbstractTrigger<SimpleTrigger> {
 				.add("intervalUnit=" + intervalUnit)
 				.add("startTime=" + startTime)
 				.add("endTime=" + endTime)
+				.add("fixedRate=" + isFixedRate())
 				.add(super.toString())
 				.toString();
 	}
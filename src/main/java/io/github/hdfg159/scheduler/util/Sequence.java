@@ -3,7 +3,7 @@ package io.github.hdfg159.scheduler.util;
 import java.lang.management.ManagementFactory;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 有序ID生成器(雪花算法)
@@ -24,23 +24,30 @@ public class Sequence {
 	 */
 	private final long dataCenterId;
 	/**
-	 * 并发控制
+	 * 序列号位数
 	 */
-	private long sequence = 0L;
+	private final long sequenceBits = 12L;
+	private final long sequenceMask = ~(-1L << sequenceBits);
+	private final long timeStampLeftShift = sequenceBits + workerIdBits + dataCenterIdBits;
+	private final long dataCenterIdShift = sequenceBits + workerIdBits;
 	/**
-	 * 上次生产 ID 时间戳
+	 * 时间起始标记点，作为基准，一般取系统的最近时间（一旦确定不能变动）
 	 */
-	private long lastTimestamp = -1L;
+	private final long twepoch = 1288834974657L;
+	/**
+	 * 上次生产 ID (时间戳 - 起始标记点) << 序列号位数 | 序列号
+	 */
+	private final AtomicLong state = new AtomicLong();
 	
 	private Sequence() {
-		dataCenterId = getDataCenterId();
+		dataCenterId = initDataCenterId();
 		workerId = getMaxWorkerId(dataCenterId);
 	}
 	
 	/**
 	 * 数据标识id部分
 	 */
-	private static long getDataCenterId() {
+	private static long initDataCenterId() {
 		long id = 0L;
 		try {
 			InetAddress ip = InetAddress.getLocalHost();
@@ -75,6 +82,24 @@ public class Sequence {
 		return (mpid.toString().hashCode() & 0xffff) % ((long) 31 + 1);
 	}
 	
+	/**
+	 * 数据中心 ID(由 MAC 地址计算)
+	 *
+	 * @return long
+	 */
+	public long getDataCenterId() {
+		return dataCenterId;
+	}
+	
+	/**
+	 * 机器 ID(由数据中心 ID 和进程号计算)
+	 *
+	 * @return long
+	 */
+	public long getWorkerId() {
+		return workerId;
+	}
+	
 	/**
 	 * 判断字符串是否为空
 	 *
@@ -97,63 +122,32 @@ public class Sequence {
 	}
 	
 	/**
-	 * 获取下一个 ID
+	 * 获取下一个 ID<br>
+	 * CAS 更新(时间戳|序列号),不加锁;同一毫秒序列号用尽或者时钟回拨时沿用上次时间戳继续自增(借用后续毫秒),不自旋等待也不抛出异常,保证 ID 单调递增
 	 *
 	 * @return 下一个 ID
 	 */
-	public synchronized long nextId() {
-		long timestamp = timeGen();
-		// 闰秒
-		if (timestamp < lastTimestamp) {
-			long offset = lastTimestamp - timestamp;
-			if (offset <= 5) {
-				try {
-					wait(offset << 1);
-					timestamp = timeGen();
-					if (timestamp < lastTimestamp) {
-						throw new RuntimeException(String.format("Clock moved backwards.  Refusing to generate id for %d milliseconds", offset));
-					}
-				} catch (Exception e) {
-					throw new RuntimeException(e);
-				}
+	public long nextId() {
+		while (true) {
+			long current = state.get();
+			long timestamp = timeGen() - twepoch;
+			long next;
+			if (timestamp > (current >>> sequenceBits)) {
+				// 不同毫秒内，序列号置为 0
+				next = timestamp << sequenceBits;
 			} else {
-				throw new RuntimeException(String.format("Clock moved backwards.  Refusing to generate id for %d milliseconds", offset));
+				// 相同毫秒内(或时钟回拨)，序列号自增，溢出时进位到时间戳部分
+				next = current + 1;
 			}
-		}
-		
-		long sequenceBits = 12L;
-		if (lastTimestamp == timestamp) {
-			// 相同毫秒内，序列号自增
-			long sequenceMask = ~(-1L << sequenceBits);
-			sequence = (sequence + 1) & sequenceMask;
-			if (sequence == 0) {
-				// 同一毫秒的序列数已经达到最大
-				timestamp = tilNextMillis(lastTimestamp);
+
+			if (state.compareAndSet(current, next)) {
+				// 时间戳部分 | 数据中心部分 | 机器标识部分 | 序列号部分
+				return ((next >>> sequenceBits) << timeStampLeftShift) | (dataCenterId << dataCenterIdShift) | (workerId << sequenceBits) | (next & sequenceMask);
 			}
-		} else {
-			// 不同毫秒内，序列号置为 1 - 3 随机数
-			sequence = ThreadLocalRandom.current().nextLong(1, 3);
 		}
-		
-		lastTimestamp = timestamp;
-		
-		// 时间戳部分 | 数据中心部分 | 机器标识部分 | 序列号部分
-		long timeStampLeftShift = sequenceBits + workerIdBits + dataCenterIdBits;
-		long dataCenterIdShift = sequenceBits + workerIdBits;
-		// 时间起始标记点，作为基准，一般取系统的最近时间（一旦确定不能变动）
-		long twepoch = 1288834974657L;
-		return ((timestamp - twepoch) << timeStampLeftShift) | (dataCenterId << dataCenterIdShift) | (workerId << sequenceBits) | sequence;
 	}
 	
 	private long timeGen() {
 		return System.currentTimeMillis();
 	}
-	
-	private long tilNextMillis(long lastTimestamp) {
-		long timestamp = timeGen();
-		while (timestamp <= lastTimestamp) {
-			timestamp = timeGen();
-		}
-		return timestamp;
-	}
 }
@@ -0,0 +1,107 @@
+package io.github.hdfg159.scheduler;
+
+import io.github.hdfg159.scheduler.factory.Triggers;
+import io.github.hdfg159.scheduler.metrics.SchedulerMetrics;
+import io.github.hdfg159.scheduler.trigger.ConcurrencyPolicy;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并发执行控制策略测试
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class ConcurrencyPolicyTest {
+	private SchedulerManager manager;
+	private final AtomicInteger running = new AtomicInteger();
+	private final AtomicInteger maxRunning = new AtomicInteger();
+	private final AtomicInteger runs = new AtomicInteger();
+
+	@Before
+	public void setUp() {
+		manager = SchedulerManager.builder()
+				.property("scheduler.metrics.jmx", "false")
+				.build();
+	}
+
+	@After
+	public void tearDown() {
+		manager.shutdown(Duration.ofSeconds(1));
+	}
+
+	@Test
+	public void allowOverlap() throws InterruptedException {
+		run(ConcurrencyPolicy.ALLOW_OVERLAP, 0);
+		Assert.assertTrue(maxRunning.get() > 1);
+
+		// 限制最大并发执行数后超过的跳过
+		manager.shutdown(Duration.ofSeconds(1));
+		manager = SchedulerManager.builder().property("scheduler.metrics.jmx", "false").build();
+		maxRunning.set(0);
+		run(ConcurrencyPolicy.ALLOW_OVERLAP, 2);
+		Assert.assertEquals(2, maxRunning.get());
+		Assert.assertTrue(counter(SchedulerMetrics.COUNTER_CONCURRENCY_SKIPPED) > 0);
+	}
+
+	@Test
+	public void skipIfRunning() throws InterruptedException {
+		run(ConcurrencyPolicy.SKIP_IF_RUNNING, 0);
+		Assert.assertEquals(1, maxRunning.get());
+		Assert.assertTrue(counter(SchedulerMetrics.COUNTER_CONCURRENCY_SKIPPED) > 0);
+	}
+
+	@Test
+	public void coalesce() throws InterruptedException {
+		run(ConcurrencyPolicy.COALESCE, 0);
+		Assert.assertEquals(1, maxRunning.get());
+		Assert.assertTrue(counter(SchedulerMetrics.COUNTER_CONCURRENCY_COALESCED) > 0);
+		// 合并的执行在上一次完成后立即执行
+		Assert.assertTrue(runs.get() >= 4);
+	}
+
+	@Test
+	public void queueOne() throws InterruptedException {
+		run(ConcurrencyPolicy.QUEUE_ONE, 0);
+		Assert.assertEquals(1, maxRunning.get());
+		Assert.assertTrue(counter(SchedulerMetrics.COUNTER_CONCURRENCY_QUEUED) > 0);
+		Assert.assertTrue(counter(SchedulerMetrics.COUNTER_CONCURRENCY_SKIPPED) > 0);
+		Assert.assertTrue(runs.get() >= 4);
+	}
+
+	/**
+	 * 每 20 毫秒触发一次,每次执行 100 毫秒
+	 *
+	 * @param policy
+	 * 		并发执行控制策略
+	 * @param maxConcurrent
+	 * 		最大并发执行数
+	 *
+	 * @throws InterruptedException
+	 * 		中断
+	 */
+	private void run(ConcurrencyPolicy policy, int maxConcurrent) throws InterruptedException {
+		Assert.assertTrue(manager.schedule(Triggers.forever("concurrency", 20, ChronoUnit.MILLIS, LocalDateTime.now(), t -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			runs.incrementAndGet();
+			try {
+				Thread.sleep(100);
+			} finally {
+				running.decrementAndGet();
+			}
+		}).concurrencyPolicy(policy).maxConcurrent(maxConcurrent)));
+		Thread.sleep(600);
+		manager.cancel("concurrency");
+	}
+
+	private long counter(String name) {
+		return manager.getMetrics().getCounter(name);
+	}
+}
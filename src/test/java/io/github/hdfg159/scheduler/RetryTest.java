@@ -0,0 +1,108 @@
+package io.github.hdfg159.scheduler;
+
+import io.github.hdfg159.scheduler.factory.Triggers;
+import io.github.hdfg159.scheduler.trigger.ConcurrencyPolicy;
+import io.github.hdfg159.scheduler.trigger.RetryPolicy;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 任务出错重试测试
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class RetryTest {
+	private SchedulerManager manager;
+
+	@Before
+	public void setUp() {
+		manager = SchedulerManager.builder()
+				.property("scheduler.metrics.jmx", "false")
+				.property("scheduler.executionEvent.class", "io.github.hdfg159.scheduler.event.impl.NoopExecutionEventSink")
+				.build();
+	}
+
+	@After
+	public void tearDown() {
+		manager.shutdown(Duration.ofSeconds(1));
+	}
+
+	@Test
+	public void backoff() throws InterruptedException {
+		List<Long> times = new CopyOnWriteArrayList<>();
+		CountDownLatch latch = new CountDownLatch(4);
+		Assert.assertTrue(manager.schedule(Triggers.once("backoff", LocalDateTime.now(), t -> {
+			times.add(System.nanoTime());
+			latch.countDown();
+			throw new IllegalStateException("fail");
+		}).retry(3).retryPolicy(new RetryPolicy(50, 150, 2, 0, 0)).afterExceptionCaught((t, e) -> {})));
+
+		Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+		Thread.sleep(300);
+		// 1 次执行 + 3 次重试
+		Assert.assertEquals(4, times.size());
+		long[] expected = {50, 100, 150};
+		for (int i = 0; i < expected.length; i++) {
+			Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(times.get(i + 1) - times.get(i)) >= expected[i]);
+		}
+		Assert.assertEquals(3, manager.getMetrics().getCounter("job.retry"));
+	}
+
+	@Test
+	public void maxElapsed() throws InterruptedException {
+		AtomicInteger attempts = new AtomicInteger();
+		Assert.assertTrue(manager.schedule(Triggers.once("maxElapsed", LocalDateTime.now(), t -> {
+			attempts.incrementAndGet();
+			throw new IllegalStateException("fail");
+		}).retry(-1).retryPolicy(new RetryPolicy(20, 20, 1, 0, 100)).afterExceptionCaught((t, e) -> {})));
+
+		Thread.sleep(500);
+		// 重试直到超过最长重试时间
+		int count = attempts.get();
+		Assert.assertTrue(count > 1 && count <= 6);
+		Thread.sleep(100);
+		Assert.assertEquals(count, attempts.get());
+	}
+
+	@Test
+	public void retryHoldsConcurrency() throws InterruptedException {
+		List<Long> times = new CopyOnWriteArrayList<>();
+		Assert.assertTrue(manager.schedule(Triggers.forever("holds", 20, ChronoUnit.MILLIS, LocalDateTime.now(), t -> {
+			times.add(System.nanoTime());
+			if (times.size() == 1) {
+				throw new IllegalStateException("fail");
+			}
+		}).concurrencyPolicy(ConcurrencyPolicy.SKIP_IF_RUNNING)
+				.retry(1)
+				.retryPolicy(new RetryPolicy(300, 300, 1, 0, 0))
+				.afterExceptionCaught((t, e) -> {})));
+
+		Thread.sleep(600);
+		// 等待重试期间仍然占用并发执行,下一次执行就是重试
+		Assert.assertTrue(times.size() > 2);
+		Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(times.get(1) - times.get(0)) >= 300);
+		Assert.assertEquals(1, manager.getMetrics().getCounter("job.retry"));
+	}
+
+	@Test
+	public void jitterWithinBounds() {
+		RetryPolicy policy = new RetryPolicy(100, 1000, 2, 0.5, 0);
+		for (int i = 0; i < 100; i++) {
+			long delay = policy.delay(3);
+			Assert.assertTrue(delay >= 200 && delay <= 600);
+		}
+		Assert.assertEquals(1000, new RetryPolicy(100, 1000, 2, 0, 0).delay(10));
+	}
+}
@@ -9,10 +9,15 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.LongAdder;
 
 /**
@@ -25,7 +30,8 @@ public class SchedulerManagerTest {
 
 	@Test
 	public void simple() throws InterruptedException {
-		SchedulerManager instance = SchedulerManager.INSTANCE
+		// 关闭后不能再加入调度,使用独立的调度器避免影响使用默认调度器的其他测试
+		SchedulerManager instance = SchedulerManager.builder().name("simple").build()
 				.setTakeQueueInterruptListener(triggers -> {
 					log.info("interrupt!queue size:[{}]", triggers.size());
 					triggers.forEach(trigger -> log.info("{}", trigger));
@@ -37,7 +43,7 @@ public class SchedulerManagerTest {
 				LocalDateTime.now(),
 				trigger -> Files.lines(Paths.get(UUID.randomUUID().toString())))
 				.afterExceptionCaught((trigger, throwable) -> log.error("单独实现异常捕获，异常信息:{}", throwable.getMessage(), throwable));
-		forever.schedule();
+		instance.schedule(forever);
 
 		Thread.sleep(5_000);
 
@@ -129,6 +135,123 @@ public class SchedulerManagerTest {
 		log.debug("execute time:[{}]", adder.sum());
 	}
 
+	@Test
+	public void isolatedInstances() throws InterruptedException {
+		SchedulerManager first = SchedulerManager.builder().name("first").build();
+		SchedulerManager second = SchedulerManager.builder()
+				.name("second")
+				.property("scheduler.dispatcher.shards", "2")
+				.build();
+		try {
+			Assert.assertEquals(1, first.getTaskQueues().size());
+			Assert.assertEquals(2, second.getTaskQueues().size());
+
+			CountDownLatch latch = new CountDownLatch(1);
+			SimpleTrigger trigger = Triggers.once("isolated", LocalDateTime.now(), t -> latch.countDown());
+			Assert.assertTrue(first.schedule(trigger));
+			// 加入调度后绑定调度器,同名触发器可以在其他调度器加入
+			Assert.assertSame(first, trigger.getScheduler());
+			Assert.assertTrue(second.schedule(Triggers.once("isolated", LocalDateTime.now().plusMinutes(1), t -> {})));
+			Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+			Assert.assertTrue(second.getWaitingJob("isolated").isPresent());
+			Assert.assertTrue(second.getWaitingJob("isolated").get().scheduleCancel());
+			Assert.assertFalse(second.getWaitingJob("isolated").isPresent());
+		} finally {
+			first.shutdown();
+			second.shutdown();
+		}
+	}
+
+	@Test
+	public void lazyStart() throws InterruptedException {
+		// 开启错过执行限速,限速线程同样按需创建并带有调度器名称
+		SchedulerManager manager = SchedulerManager.builder()
+				.name("lazy")
+				.property("scheduler.misfire.rateLimit", "100")
+				.build();
+		try {
+			// 创建调度器不启动线程
+			Assert.assertFalse(Thread.getAllStackTraces().keySet().stream().anyMatch(thread -> thread.getName().contains("lazy")));
+
+			CountDownLatch latch = new CountDownLatch(1);
+			Assert.assertTrue(manager.schedule(Triggers.once("lazy", LocalDateTime.now(), t -> latch.countDown())));
+			Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+			Thread takeTaskThread = Thread.getAllStackTraces().keySet().stream()
+					.filter(thread -> thread.getName().equals("scheduler-lazy-take-task"))
+					.findFirst()
+					.orElseThrow(AssertionError::new);
+
+			// 队列为空时无限期等待,不定时唤醒
+			long end = System.currentTimeMillis() + 5_000;
+			while (takeTaskThread.getState() != Thread.State.WAITING && System.currentTimeMillis() < end) {
+				Thread.sleep(10);
+			}
+			Assert.assertEquals(Thread.State.WAITING, takeTaskThread.getState());
+
+			// 错过执行限速线程名称带有调度器名称,多个调度器可以区分
+			CountDownLatch misfired = new CountDownLatch(2);
+			// 第二个错过执行的触发器按照限速延迟执行
+			Assert.assertTrue(manager.schedule(Triggers.once("lazy-misfire-1", LocalDateTime.now().minusMinutes(1), t -> misfired.countDown())));
+			Assert.assertTrue(manager.schedule(Triggers.once("lazy-misfire-2", LocalDateTime.now().minusMinutes(1), t -> misfired.countDown())));
+			Assert.assertTrue(misfired.await(5, TimeUnit.SECONDS));
+			Assert.assertTrue(Thread.getAllStackTraces().keySet().stream().anyMatch(thread -> thread.getName().matches(".*lazy.*-misfire-\\d+")));
+		} finally {
+			manager.shutdown();
+		}
+	}
+
+	@Test
+	public void gracefulShutdown() throws InterruptedException {
+		SchedulerManager manager = SchedulerManager.builder().name("graceful").build();
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicBoolean finished = new AtomicBoolean();
+		Assert.assertTrue(manager.schedule(Triggers.once("running", LocalDateTime.now(), t -> {
+			started.countDown();
+			Thread.sleep(200);
+			finished.set(true);
+		})));
+		SimpleTrigger pending = Triggers.once("pending", LocalDateTime.now().plusMinutes(1), t -> {});
+		Assert.assertTrue(manager.schedule(pending));
+		Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		ShutdownReport report = manager.shutdown(Duration.ofSeconds(5));
+		// 等待执行中的任务完成,未执行的触发器导出
+		Assert.assertTrue(report.isTerminated());
+		Assert.assertTrue(finished.get());
+		Assert.assertEquals(Collections.singletonList(pending), report.getPendingTriggers());
+		Assert.assertTrue(report.getRunningTriggers().isEmpty());
+		Assert.assertFalse(manager.schedule(Triggers.once("late", LocalDateTime.now(), t -> {})));
+
+		// 导出的触发器加入其他调度器继续执行
+		SchedulerManager next = SchedulerManager.builder().name("graceful-next").build();
+		try {
+			Assert.assertEquals(Collections.singletonList(true), next.scheduleAll(report.getPendingTriggers()));
+			Assert.assertTrue(next.getWaitingJob("pending").isPresent());
+		} finally {
+			next.shutdownNow();
+		}
+	}
+
+	@Test
+	public void shutdownTimeout() throws InterruptedException {
+		SchedulerManager manager = SchedulerManager.builder().name("timeout").build();
+		CountDownLatch started = new CountDownLatch(1);
+		SimpleTrigger running = Triggers.once("running", LocalDateTime.now(), t -> {
+			started.countDown();
+			Thread.sleep(10_000);
+		});
+		Assert.assertTrue(manager.schedule(running));
+		Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		ShutdownReport report = manager.shutdown(Duration.ofMillis(100));
+		Assert.assertFalse(report.isTerminated());
+		Assert.assertEquals(Collections.singletonList(running), report.getRunningTriggers());
+		// 已经关闭时中断仍在执行的任务
+		Assert.assertSame(ShutdownReport.EMPTY, manager.shutdownNow());
+		Assert.assertTrue(manager.getThreadPool("normal").get().threadPool().awaitTermination(5, TimeUnit.SECONDS));
+	}
+
 	@Test
 	public void repeatTask() throws InterruptedException {
 		boolean result1 = Triggers.once("test", LocalDateTime.now().plusMinutes(3), trigger -> {}).schedule();
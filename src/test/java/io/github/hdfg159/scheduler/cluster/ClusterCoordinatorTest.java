@@ -0,0 +1,193 @@
+package io.github.hdfg159.scheduler.cluster;
+
+import io.github.hdfg159.scheduler.SchedulerManager;
+import io.github.hdfg159.scheduler.cluster.impl.FileLeaseStore;
+import io.github.hdfg159.scheduler.factory.Triggers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 集群协调测试
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class ClusterCoordinatorTest {
+	private static final long HEARTBEAT_INTERVAL = 100L;
+	private static final long LEASE_TTL = 300L;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Properties config;
+	private final List<ClusterCoordinator> coordinators = new ArrayList<>();
+
+	@Before
+	public void setUp() throws Exception {
+		config = new Properties();
+		config.setProperty("scheduler.cluster.dir", folder.newFolder().getAbsolutePath());
+		config.setProperty("scheduler.cluster.heartbeatInterval", String.valueOf(HEARTBEAT_INTERVAL));
+		config.setProperty("scheduler.cluster.leaseTtl", String.valueOf(LEASE_TTL));
+	}
+
+	@After
+	public void tearDown() {
+		coordinators.forEach(ClusterCoordinator::shutdown);
+	}
+
+	@Test
+	public void partitionAfterJoin() throws Exception {
+		ClusterCoordinator a = start("a", new FileLeaseStore());
+		// 第一个节点立即生效
+		Assert.assertTrue(a.isActive());
+		ClusterCoordinator b = start("b", new FileLeaseStore());
+		// 其他节点已经生效时延迟生效
+		Assert.assertFalse(b.isActive());
+		for (int i = 0; i < 100; i++) {
+			Assert.assertTrue(a.isOwner("trigger-" + i));
+			Assert.assertFalse(b.isOwner("trigger-" + i));
+		}
+
+		Thread.sleep(HEARTBEAT_INTERVAL * 3);
+		Assert.assertEquals(Arrays.asList("a", "b"), new ArrayList<>(a.getActiveNodes()));
+		int ownedByA = 0;
+		for (int i = 0; i < 100; i++) {
+			String name = "trigger-" + i;
+			Assert.assertNotEquals(a.isOwner(name), b.isOwner(name));
+			Assert.assertEquals(a.getOwner(name), b.getOwner(name));
+			if (a.isOwner(name)) {
+				ownedByA++;
+			}
+		}
+		Assert.assertTrue(ownedByA > 0 && ownedByA < 100);
+	}
+
+	@Test
+	public void takeOverWithoutOverlap() throws Exception {
+		ClusterCoordinator a = start("a", new FileLeaseStore());
+		FailingLeaseStore failing = new FailingLeaseStore();
+		ClusterCoordinator b = start("b", failing);
+		Thread.sleep(HEARTBEAT_INTERVAL * 3);
+		Assert.assertTrue(b.isActive());
+
+		// b 无法续约,租约过期前后都不会和 a 同时负责同一个触发器
+		failing.failed = true;
+		long end = System.currentTimeMillis() + LEASE_TTL * 2;
+		while (System.currentTimeMillis() < end) {
+			for (int i = 0; i < 100; i++) {
+				String name = "trigger-" + i;
+				Assert.assertFalse(a.isOwner(name) && b.isOwner(name));
+			}
+			Thread.sleep(5L);
+		}
+
+		Assert.assertFalse(b.isActive());
+		Assert.assertEquals(Arrays.asList("a"), new ArrayList<>(a.getActiveNodes()));
+		for (int i = 0; i < 100; i++) {
+			Assert.assertTrue(a.isOwner("trigger-" + i));
+		}
+	}
+
+	@Test
+	public void startIsIdempotent() {
+		start("a", new FileLeaseStore());
+		ClusterCoordinator b = start("b", new FileLeaseStore());
+		Lease lease = b.getLease().get();
+		// 重复加入不会重新计算延迟生效时间
+		b.start();
+		Assert.assertSame(lease, b.getLease().get());
+	}
+
+	@Test
+	public void lazyJoinWithScheduler() throws Exception {
+		Properties properties = new Properties();
+		properties.putAll(config);
+		properties.setProperty("scheduler.cluster.enabled", "true");
+		properties.setProperty("scheduler.metrics.jmx", "false");
+		SchedulerManager manager = SchedulerManager.builder().properties(properties).build();
+		File dir = new File(config.getProperty("scheduler.cluster.dir"));
+		try {
+			// 创建调度器不加入集群
+			Assert.assertEquals(0, leaseFiles(dir));
+			manager.schedule(Triggers.once("cluster", LocalDateTime.now().plusMinutes(1), t -> {}));
+			Assert.assertEquals(1, leaseFiles(dir));
+		} finally {
+			manager.shutdown();
+		}
+		Assert.assertEquals(0, leaseFiles(dir));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void duplicateNodeId() {
+		start("a", new FileLeaseStore());
+		start("a", new FileLeaseStore());
+	}
+
+	@Test
+	public void ringMovesOnlyRemovedNodeKeys() {
+		ConsistentHashRing three = new ConsistentHashRing(Arrays.asList("a", "b", "c"), 64);
+		ConsistentHashRing two = new ConsistentHashRing(Arrays.asList("b", "a"), 64);
+		Map<String, Integer> counts = new HashMap<>();
+		for (int i = 0; i < 3000; i++) {
+			String name = "trigger-" + i;
+			String owner = three.owner(name);
+			counts.merge(owner, 1, Integer::sum);
+			if (!"c".equals(owner)) {
+				Assert.assertEquals(owner, two.owner(name));
+			}
+		}
+		// 虚拟节点分布大致均匀
+		counts.values().forEach(count -> Assert.assertTrue(count > 500));
+	}
+
+	private static int leaseFiles(File dir) {
+		File[] files = dir.listFiles((d, name) -> name.endsWith(".lease"));
+		return files == null ? 0 : files.length;
+	}
+
+	private ClusterCoordinator start(String nodeId, LeaseStore leaseStore) {
+		Properties properties = new Properties();
+		properties.putAll(config);
+		properties.setProperty("scheduler.cluster.nodeId", nodeId);
+		leaseStore.initialize(properties);
+		ClusterCoordinator coordinator = new ClusterCoordinator(leaseStore, properties);
+		coordinator.start();
+		coordinators.add(coordinator);
+		return coordinator;
+	}
+
+	/**
+	 * 模拟节点无法访问共享存储
+	 */
+	private static class FailingLeaseStore extends FileLeaseStore {
+		private volatile boolean failed;
+
+		@Override
+		public Lease join(String nodeId, long leaseTtl, long activationDelay) {
+			if (failed) {
+				throw new UncheckedIOException(new IOException("store unavailable"));
+			}
+			return super.join(nodeId, leaseTtl, activationDelay);
+		}
+
+		@Override
+		public boolean renew(Lease lease) {
+			return !failed && super.renew(lease);
+		}
+	}
+}
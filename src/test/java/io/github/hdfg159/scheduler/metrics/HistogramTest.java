@@ -0,0 +1,48 @@
+package io.github.hdfg159.scheduler.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 固定内存直方图测试
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class HistogramTest {
+	@Test
+	public void percentileWithinPrecision() {
+		Histogram histogram = new Histogram();
+		for (long i = 1; i <= 100_000; i++) {
+			histogram.record(i);
+		}
+
+		Assert.assertEquals(100_000, histogram.getCount());
+		Assert.assertEquals(100_000, histogram.getMax());
+		Assert.assertEquals(50_000.5D, histogram.getMean(), 0.001D);
+		assertWithin(50_000, histogram.getValueAtPercentile(50D));
+		assertWithin(99_000, histogram.getValueAtPercentile(99D));
+		Assert.assertEquals(100_000, histogram.getValueAtPercentile(100D));
+	}
+
+	@Test
+	public void smallValuesAreExact() {
+		Histogram histogram = new Histogram();
+		histogram.record(-5);
+		histogram.record(3);
+		histogram.record(7);
+
+		Assert.assertEquals(0, histogram.getValueAtPercentile(1D));
+		Assert.assertEquals(3, histogram.getValueAtPercentile(50D));
+		Assert.assertEquals(7, histogram.getValueAtPercentile(100D));
+
+		histogram.reset();
+		Assert.assertEquals(0, histogram.getCount());
+		Assert.assertEquals(0, histogram.getValueAtPercentile(99D));
+	}
+
+	private void assertWithin(long expected, long actual) {
+		// 32 个桶的相对误差约 3%
+		Assert.assertTrue("expected ~" + expected + " but was " + actual, Math.abs(actual - expected) <= expected * 0.04D);
+	}
+}
@@ -0,0 +1,120 @@
+package io.github.hdfg159.scheduler.queue.impl;
+
+import io.github.hdfg159.scheduler.factory.Triggers;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+import io.github.hdfg159.scheduler.trigger.impl.SimpleTrigger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * 二叉堆延迟队列测试
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class DelayTriggerQueueTest {
+	private DelayTriggerQueue queue;
+
+	@Before
+	public void setUp() {
+		queue = new DelayTriggerQueue();
+		queue.initialize(new Properties());
+	}
+
+	@Test
+	public void addAllKeepsOrder() {
+		LocalDateTime past = LocalDateTime.now().minusHours(1);
+		List<Trigger> triggers = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			triggers.add(once("t-" + i, past.plusSeconds(i)));
+		}
+		Collections.shuffle(triggers, new Random(17L));
+
+		// 第一次批量建堆,第二次逐个上浮
+		Assert.assertEquals(900, queue.addAll(triggers.subList(0, 900)));
+		Assert.assertEquals(100, queue.addAll(triggers.subList(900, 1000)));
+		Assert.assertEquals(1000, queue.size());
+
+		List<Trigger> drained = new ArrayList<>();
+		Assert.assertEquals(1000, queue.drainTo(drained, Integer.MAX_VALUE));
+		for (int i = 0; i < 1000; i++) {
+			Assert.assertEquals("t-" + i, drained.get(i).getName());
+		}
+	}
+
+	@Test
+	public void removeAndTake() throws InterruptedException {
+		LocalDateTime now = LocalDateTime.now();
+		SimpleTrigger removed = once("removed", now.plus(50, ChronoUnit.MILLIS));
+		queue.add(once("later", now.plus(150, ChronoUnit.MILLIS)));
+		queue.add(removed);
+		queue.add(once("first", now.plus(100, ChronoUnit.MILLIS)));
+
+		Assert.assertFalse(queue.add(removed));
+		Assert.assertTrue(queue.remove(removed));
+		Assert.assertFalse(queue.remove(removed));
+		Assert.assertEquals(2, queue.size());
+
+		Trigger first = queue.take();
+		Assert.assertEquals("first", first.getName());
+		Assert.assertFalse(LocalDateTime.now().isBefore(first.getExecuteTime()));
+		Assert.assertEquals("later", queue.take().getName());
+		Assert.assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void addEarlierWakesTaker() throws InterruptedException {
+		queue.add(once("late", LocalDateTime.now().plusSeconds(30)));
+		Thread adder = new Thread(() -> {
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				return;
+			}
+			queue.addAll(Collections.singletonList(once("early", LocalDateTime.now())));
+		});
+		adder.start();
+
+		long start = System.currentTimeMillis();
+		Assert.assertEquals("early", queue.take().getName());
+		Assert.assertTrue(System.currentTimeMillis() - start < 5_000);
+		adder.join();
+	}
+
+	@Test
+	public void rescheduleInPlace() throws InterruptedException {
+		LocalDateTime now = LocalDateTime.now();
+		SimpleTrigger moved = once("moved", now.plusSeconds(30));
+		SimpleTrigger other = once("other", now.plusSeconds(2));
+		queue.add(moved);
+		queue.add(other);
+		long id = moved.getId();
+
+		// 提前到队首
+		Assert.assertTrue(queue.reschedule(moved, System.currentTimeMillis() + 50));
+		Assert.assertEquals(id, moved.getId());
+		Assert.assertEquals("moved", queue.take().getName());
+		Assert.assertFalse(queue.reschedule(moved, System.currentTimeMillis()));
+
+		// 队首推迟
+		queue.add(moved);
+		Assert.assertTrue(queue.update(other, trigger -> trigger.deadline(System.currentTimeMillis() + 30_000)));
+		Assert.assertTrue(queue.reschedule(moved, System.currentTimeMillis() + 100));
+		Assert.assertEquals("moved", queue.take().getName());
+		Assert.assertEquals(1, queue.size());
+	}
+
+	private static SimpleTrigger once(String name, LocalDateTime time) {
+		// 队列按照毫秒排序
+		return Triggers.once(name, time.truncatedTo(ChronoUnit.MILLIS), trigger -> {});
+	}
+}
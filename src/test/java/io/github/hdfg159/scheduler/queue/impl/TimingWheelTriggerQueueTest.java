@@ -0,0 +1,106 @@
+package io.github.hdfg159.scheduler.queue.impl;
+
+import io.github.hdfg159.scheduler.factory.Triggers;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+import io.github.hdfg159.scheduler.trigger.impl.SimpleTrigger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 分层时间轮队列测试
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class TimingWheelTriggerQueueTest {
+	private TimingWheelTriggerQueue queue;
+
+	@Before
+	public void setUp() {
+		Properties properties = new Properties();
+		properties.setProperty("scheduler.timingWheel.tickDuration", "10");
+		properties.setProperty("scheduler.timingWheel.wheelSize", "8");
+		queue = new TimingWheelTriggerQueue();
+		queue.initialize(properties);
+	}
+
+	@Test
+	public void takeInExpirationOrder() throws InterruptedException {
+		LocalDateTime now = LocalDateTime.now();
+		// 跨越多层时间轮(第一层 80ms,第二层 640ms)
+		queue.add(once("c", now.plus(700, ChronoUnit.MILLIS)));
+		queue.add(once("a", now.minusSeconds(1)));
+		queue.add(once("b", now.plus(150, ChronoUnit.MILLIS)));
+		Assert.assertEquals(3, queue.size());
+
+		Assert.assertEquals("a", queue.take().getName());
+		Assert.assertEquals("b", queue.take().getName());
+		Trigger last = queue.take();
+		Assert.assertEquals("c", last.getName());
+		Assert.assertFalse(LocalDateTime.now().isBefore(last.getExecuteTime().minus(10, ChronoUnit.MILLIS)));
+		Assert.assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void removeBeforeExpiration() throws InterruptedException {
+		LocalDateTime now = LocalDateTime.now();
+		SimpleTrigger removed = once("removed", now.plus(100, ChronoUnit.MILLIS));
+		queue.add(removed);
+		queue.add(once("kept", now.plus(200, ChronoUnit.MILLIS)));
+
+		Assert.assertFalse(queue.add(removed));
+		Assert.assertTrue(queue.remove(removed));
+		Assert.assertFalse(queue.remove(removed));
+		Assert.assertEquals(1, queue.size());
+		Assert.assertEquals("kept", queue.take().getName());
+	}
+
+	@Test
+	public void drainDueTriggers() throws InterruptedException {
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < 10; i++) {
+			queue.add(once("due-" + i, now.plus(50, ChronoUnit.MILLIS)));
+		}
+		queue.add(once("later", now.plusSeconds(5)));
+
+		List<Trigger> batch = new ArrayList<>();
+		batch.add(queue.take());
+		Assert.assertEquals(9, queue.drainTo(batch, 100));
+		Assert.assertEquals(10, batch.size());
+		Assert.assertEquals(0, queue.drainTo(batch, 100));
+		Assert.assertEquals(1, queue.size());
+	}
+
+	@Test
+	public void neverTakeBeforeDeadline() throws InterruptedException {
+		LocalDateTime now = LocalDateTime.now();
+		int[] days = {1, 2, 3, 4, 5, 6, 7};
+		// 执行时间落在一格内的不同位置
+		for (int i = 0; i < 10; i++) {
+			LocalTime time = now.plus(100 + i * 7, ChronoUnit.MILLIS).toLocalTime();
+			queue.add(Triggers.dayTime("day-" + i, days, time, trigger -> {}));
+		}
+
+		for (int i = 0; i < 10; i++) {
+			Trigger trigger = queue.take();
+			long deadline = trigger.getDeadline();
+			Assert.assertTrue(System.currentTimeMillis() >= deadline);
+			// 包括当前时间计算下一次执行时间,提前取出会重复执行同一时间点
+			Trigger next = trigger.nextTrigger().get();
+			Assert.assertTrue(next.getDeadline() > deadline);
+		}
+		Assert.assertEquals(0, queue.size());
+	}
+
+	private SimpleTrigger once(String name, LocalDateTime time) {
+		return Triggers.once(name, time, trigger -> {});
+	}
+}
@@ -0,0 +1,194 @@
+package io.github.hdfg159.scheduler.store.impl;
+
+import io.github.hdfg159.scheduler.SchedulerManager;
+import io.github.hdfg159.scheduler.ShutdownReport;
+import io.github.hdfg159.scheduler.factory.Triggers;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * 追加日志持久化存储测试
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class JournalTriggerStoreTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private JournalTriggerStore store;
+
+	@After
+	public void tearDown() {
+		if (store != null) {
+			store.close();
+		}
+	}
+
+	@Test
+	public void recoverScheduledAndCancelled() throws Exception {
+		File dir = folder.newFolder();
+		LocalDateTime time = LocalDateTime.now().plusHours(1).withNano(0);
+		store = open(dir, 64 * 1024);
+		store.schedule(trigger("a", time));
+		store.schedule(trigger("b", time.plusMinutes(1)));
+		store.schedule(trigger("c", time.plusMinutes(2)));
+		store.cancel("b");
+		// 没有任务标识不保存
+		store.schedule(Triggers.once("d", time, t -> {}));
+		store.close();
+
+		store = open(dir, 64 * 1024);
+		Map<String, Trigger> recovered = byName(store.recover());
+		Assert.assertEquals(2, recovered.size());
+		Assert.assertEquals(time, recovered.get("a").getExecuteTime());
+		Assert.assertEquals(time.plusMinutes(2), recovered.get("c").getExecuteTime());
+		Assert.assertEquals("job", recovered.get("a").getJobKey());
+		Assert.assertNull(recovered.get("a").getJob());
+	}
+
+	@Test
+	public void firedTriggerNotFiredAgain() throws Exception {
+		File dir = folder.newFolder();
+		LocalDateTime time = LocalDateTime.now().minusSeconds(1);
+		store = open(dir, 64 * 1024);
+
+		// 执行完成的单次触发器移除
+		Trigger once = trigger("once", time);
+		store.schedule(once);
+		store.fire("once", once.getId());
+		store.complete("once", once.getId());
+
+		// 执行中崩溃的循环触发器进入下一次执行
+		Trigger repeat = Triggers.forever("repeat", 1, ChronoUnit.HOURS, time, t -> {}).jobKey("job").sequence(true);
+		store.schedule(repeat);
+		store.fire("repeat", repeat.getId());
+
+		// 执行中崩溃的单次触发器不再执行
+		Trigger crashed = trigger("crashed", time);
+		store.schedule(crashed);
+		store.fire("crashed", crashed.getId());
+
+		// 过期的执行记录忽略
+		Trigger rescheduled = trigger("rescheduled", time);
+		long previousId = rescheduled.getId();
+		rescheduled.id(previousId + 1);
+		store.schedule(rescheduled);
+		store.fire("rescheduled", previousId);
+		store.close();
+
+		store = open(dir, 64 * 1024);
+		Map<String, Trigger> recovered = byName(store.recover());
+		Assert.assertEquals(2, recovered.size());
+		Assert.assertTrue(recovered.get("repeat").getExecuteTime().isAfter(LocalDateTime.now().plusMinutes(59)));
+		Assert.assertNotEquals(repeat.getId(), recovered.get("repeat").getId());
+		Assert.assertEquals(previousId + 1, recovered.get("rescheduled").getId());
+	}
+
+	@Test
+	public void rollJournalWhenFull() throws Exception {
+		File dir = folder.newFolder();
+		LocalDateTime time = LocalDateTime.now().plusHours(1);
+		store = open(dir, 4 * 1024);
+		for (int i = 0; i < 500; i++) {
+			store.schedule(trigger("t-" + (i % 50), time.plusSeconds(i)));
+		}
+		store.close();
+
+		File[] files = dir.listFiles();
+		Assert.assertNotNull(files);
+		Assert.assertEquals(2, files.length);
+
+		store = open(dir, 4 * 1024);
+		Map<String, Trigger> recovered = byName(store.recover());
+		Assert.assertEquals(50, recovered.size());
+		Assert.assertEquals(time.plusSeconds(499), recovered.get("t-49").getExecuteTime());
+	}
+
+	@Test
+	public void reopenAppendsToJournal() throws Exception {
+		File dir = folder.newFolder();
+		LocalDateTime time = LocalDateTime.now().plusHours(1).withNano(0);
+		store = open(dir, 64 * 1024);
+		store.schedule(trigger("a", time));
+		store.close();
+		Set<String> files = new HashSet<>(Arrays.asList(dir.list()));
+
+		// 重启不写入新快照,继续追加到原日志
+		store = open(dir, 64 * 1024);
+		store.schedule(trigger("b", time));
+		store.close();
+		Assert.assertEquals(files, new HashSet<>(Arrays.asList(dir.list())));
+
+		store = open(dir, 64 * 1024);
+		Assert.assertEquals(2, store.recover().size());
+	}
+
+	@Test
+	public void handedOffTriggersRemoved() throws Exception {
+		File dir = folder.newFolder();
+		SchedulerManager manager = SchedulerManager.builder()
+				.name("store-handoff")
+				.property("scheduler.store.class", JournalTriggerStore.class.getName())
+				.property("scheduler.store.dir", dir.getAbsolutePath())
+				.build();
+		manager.registerJob("job", t -> {});
+		Assert.assertTrue(manager.schedule(trigger("kept", LocalDateTime.now().plusHours(1))));
+		ShutdownReport report = manager.shutdown(Duration.ofSeconds(1));
+		Assert.assertEquals(1, report.getPendingTriggers().size());
+
+		// 默认保留在存储中,重启后恢复
+		store = open(dir, 64 * 1024);
+		Assert.assertEquals(1, store.recover().size());
+		store.close();
+
+		manager = SchedulerManager.builder()
+				.name("store-handoff-next")
+				.property("scheduler.store.class", JournalTriggerStore.class.getName())
+				.property("scheduler.store.dir", dir.getAbsolutePath())
+				.build();
+		manager.registerJob("job", t -> {});
+		Assert.assertTrue(manager.schedule(trigger("handoff", LocalDateTime.now().plusHours(1))));
+		report = manager.shutdown(Duration.ofSeconds(1), true);
+		Assert.assertEquals(2, report.getPendingTriggers().size());
+
+		// 交给其他调度器的触发器不再恢复
+		store = open(dir, 64 * 1024);
+		Assert.assertTrue(store.recover().isEmpty());
+	}
+
+	private static JournalTriggerStore open(File dir, int journalSize) {
+		Properties properties = new Properties();
+		properties.setProperty("scheduler.store.dir", dir.getAbsolutePath());
+		properties.setProperty("scheduler.store.journalSize", String.valueOf(journalSize));
+		JournalTriggerStore store = new JournalTriggerStore();
+		store.initialize(properties);
+		return store;
+	}
+
+	private static Trigger trigger(String name, LocalDateTime time) {
+		return Triggers.once(name, time, t -> {}).jobKey("job");
+	}
+
+	private static Map<String, Trigger> byName(List<Trigger> triggers) {
+		return triggers.stream().collect(toMap(Trigger::getName, Function.identity()));
+	}
+}
@@ -0,0 +1,110 @@
+package io.github.hdfg159.scheduler.thread;
+
+import io.github.hdfg159.scheduler.factory.Triggers;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 按照执行耗时路由测试
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class CostTaskRouterTest {
+	private final ThreadPool normal = new StubThreadPool();
+	private final ThreadPool slow = new StubThreadPool();
+	private final ThreadPool io = new StubThreadPool();
+	private CostTaskRouter router;
+
+	@Before
+	public void setUp() {
+		Map<String, ThreadPool> threadPools = new HashMap<>();
+		threadPools.put(TaskRouter.POOL_NORMAL, normal);
+		threadPools.put(TaskRouter.POOL_SLOW, slow);
+		threadPools.put("io", io);
+
+		Properties properties = new Properties();
+		properties.setProperty("scheduler.maxLimitTime", "100");
+		router = new CostTaskRouter();
+		router.initialize(properties, threadPools);
+	}
+
+	@Test
+	public void singleSpikeDoesNotMoveToSlowPool() {
+		Trigger trigger = trigger();
+		for (int i = 0; i < 10; i++) {
+			trigger.costTime(10);
+		}
+		// 一次 GC 停顿
+		trigger.costTime(300);
+		Assert.assertSame(normal, router.route(trigger));
+	}
+
+	@Test
+	public void slowPoolWithHysteresis() {
+		Trigger trigger = trigger();
+		trigger.costTime(500);
+		Assert.assertSame(slow, router.route(trigger));
+
+		// 估计值回落到阈值以下但是未低于恢复时间,仍然使用慢任务线程池
+		while (trigger.getCostEstimate() > 80) {
+			trigger.costTime(10);
+		}
+		Assert.assertSame(slow, router.route(trigger));
+
+		while (trigger.getCostEstimate() > 50) {
+			trigger.costTime(10);
+		}
+		Assert.assertSame(normal, router.route(trigger));
+	}
+
+	@Test
+	public void groupRouting() {
+		Trigger trigger = trigger();
+		trigger.group("io");
+		trigger.costTime(500);
+		Assert.assertSame(io, router.route(trigger));
+
+		trigger.group("unknown");
+		Assert.assertSame(slow, router.route(trigger));
+	}
+
+	@Test
+	public void setLimitTime() {
+		Trigger trigger = trigger();
+		trigger.costTime(150);
+		Assert.assertSame(slow, router.route(trigger));
+
+		router.setLimitTime(1000);
+		Assert.assertSame(normal, router.route(trigger));
+	}
+
+	private static Trigger trigger() {
+		return Triggers.times("router-test", 1, 1, ChronoUnit.SECONDS, LocalDateTime.now(), t -> {
+		});
+	}
+
+	private static class StubThreadPool implements ThreadPool {
+		@Override
+		public void initialize() {
+		}
+
+		@Override
+		public void shutdown() {
+		}
+
+		@Override
+		public ExecutorService threadPool() {
+			return null;
+		}
+	}
+}
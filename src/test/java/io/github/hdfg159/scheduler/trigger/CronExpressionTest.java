@@ -0,0 +1,155 @@
+package io.github.hdfg159.scheduler.trigger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+
+/**
+ * cron 表达式下次执行时间测试
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class CronExpressionTest {
+	private static final ZoneId SHANGHAI = ZoneId.of("Asia/Shanghai");
+	private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+	@Test
+	public void fields() {
+		assertNext("0 0 12 * * MON-FRI", SHANGHAI, "2024-06-01T08:00", "2024-06-03T12:00");
+		assertNext("*/15 * * * * *", SHANGHAI, "2024-06-01T08:00:07", "2024-06-01T08:00:15");
+		assertNext("30 9 * * *", SHANGHAI, "2024-06-01T09:30", "2024-06-02T09:30");
+		assertNext("0 0 0 29 FEB ?", SHANGHAI, "2024-03-01T00:00", "2028-02-29T00:00");
+		assertNext("0 0 0 31 * *", SHANGHAI, "2024-04-01T00:00", "2024-05-31T00:00");
+		assertNext("0 0 8 * * 0", SHANGHAI, "2024-06-01T08:00", "2024-06-02T08:00");
+		assertNext("0 0 8 * * 7", SHANGHAI, "2024-06-01T08:00", "2024-06-02T08:00");
+		assertNext("5/20 * * * * *", SHANGHAI, "2024-06-01T08:00:45", "2024-06-01T08:01:05");
+		assertNext("@yearly", SHANGHAI, "2024-06-01T08:00", "2025-01-01T00:00");
+	}
+
+	@Test
+	public void dayOfMonthOrDayOfWeek() {
+		// 2024-09-13 是星期五,2024-09-06 也是星期五
+		assertNext("0 0 0 13 * FRI", SHANGHAI, "2024-09-01T00:00", "2024-09-06T00:00");
+		assertNext("0 0 0 13 * *", SHANGHAI, "2024-09-01T00:00", "2024-09-13T00:00");
+	}
+
+	@Test
+	public void daylightSavingGap() {
+		// 2021-03-14 02:00 跳到 03:00
+		CronExpression cron = new CronExpression("0 30 2 * * *", NEW_YORK);
+		long next = cron.next(millis("2021-03-13T03:00", NEW_YORK));
+		Assert.assertEquals(ZonedDateTime.of(LocalDateTime.parse("2021-03-14T03:00"), NEW_YORK).toInstant().toEpochMilli(), next);
+		Assert.assertEquals(millis("2021-03-15T02:30", NEW_YORK), cron.next(next));
+	}
+
+	@Test
+	public void daylightSavingOverlap() {
+		// 2021-11-07 02:00 回到 01:00,01:30 只执行一次
+		CronExpression cron = new CronExpression("0 30 1 * * *", NEW_YORK);
+		long next = cron.next(millis("2021-11-06T12:00", NEW_YORK));
+		Assert.assertEquals(ZonedDateTime.ofLocal(LocalDateTime.parse("2021-11-07T01:30"), NEW_YORK, null).withEarlierOffsetAtOverlap().toInstant().toEpochMilli(), next);
+		Assert.assertEquals(millis("2021-11-08T01:30", NEW_YORK), cron.next(next));
+
+		CronExpression everyMinute = new CronExpression("0 * * * * *", NEW_YORK);
+		long later = ZonedDateTime.ofLocal(LocalDateTime.parse("2021-11-07T01:10"), NEW_YORK, null).withLaterOffsetAtOverlap().toInstant().toEpochMilli();
+		Assert.assertEquals(later + 60_000L, everyMinute.next(later));
+	}
+
+	@Test
+	public void matchesBruteForce() {
+		String[] expressions = {"0 */7 * * * *", "0 0 9-17/2 * * MON-FRI", "0 15,45 3 1,15 * *", "0 0 0 * 2,8 SUN", "0 59 23 31 * *"};
+		Random random = new Random(20241017L);
+		for (String expression : expressions) {
+			CronExpression cron = new CronExpression(expression, SHANGHAI);
+			for (int i = 0; i < 20; i++) {
+				LocalDateTime from = LocalDateTime.of(2020, 1, 1, 0, 0).plusMinutes(random.nextInt(3 * 365 * 24 * 60));
+				Assert.assertEquals(expression + " from " + from, bruteForce(expression, from), cron.next(millis(from.toString(), SHANGHAI)));
+			}
+		}
+	}
+
+	@Test
+	public void invalid() {
+		String[] expressions = {"* * * *", "61 * * * * *", "* * 24 * * *", "* * * 0 * *", "* * * * 13 *", "* * * * * 8", "* * * * * FOO", "10-5 * * * * *", "*/0 * * * * *"};
+		for (String expression : expressions) {
+			try {
+				new CronExpression(expression, SHANGHAI);
+				Assert.fail(expression);
+			} catch (IllegalArgumentException e) {
+				// 预期
+			}
+		}
+		Assert.assertEquals(CronExpression.NONE, new CronExpression("0 0 0 30 2 *", SHANGHAI).next(System.currentTimeMillis()));
+	}
+
+	private static void assertNext(String expression, ZoneId zone, String from, String expected) {
+		Assert.assertEquals(expression, millis(expected, zone), new CronExpression(expression, zone).next(millis(from, zone)));
+	}
+
+	private static long millis(String time, ZoneId zone) {
+		return LocalDateTime.parse(time).atZone(zone).toInstant().toEpochMilli();
+	}
+
+	/**
+	 * 按分钟逐次匹配(表达式秒字段都是 0)
+	 */
+	private static long bruteForce(String expression, LocalDateTime from) {
+		String[] fields = expression.split(" ");
+		LocalDateTime time = from.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+		while (true) {
+			int dayOfWeek = time.getDayOfWeek().getValue();
+			boolean dom = matches(fields[3], time.getDayOfMonth(), null);
+			boolean dow = matches(fields[5], dayOfWeek, new String[]{"MON", "TUE", "WED", "THU", "FRI", "SAT", "SUN"});
+			boolean day = "*".equals(fields[3]) || "*".equals(fields[5]) ? dom && dow : dom || dow;
+			if (matches(fields[1], time.getMinute(), null) && matches(fields[2], time.getHour(), null)
+					&& day && matches(fields[4], time.getMonthValue(), null)) {
+				return time.atZone(SHANGHAI).toInstant().toEpochMilli();
+			}
+			time = time.plusMinutes(1);
+		}
+	}
+
+	private static boolean matches(String field, int value, String[] names) {
+		for (String part : field.split(",")) {
+			int step = 1;
+			int slash = part.indexOf('/');
+			if (slash >= 0) {
+				step = Integer.parseInt(part.substring(slash + 1));
+				part = part.substring(0, slash);
+			}
+			int start;
+			int end;
+			if ("*".equals(part)) {
+				start = 0;
+				end = 59;
+			} else if (part.contains("-")) {
+				start = value(part.split("-")[0], names);
+				end = value(part.split("-")[1], names);
+			} else {
+				start = value(part, names);
+				end = start;
+			}
+			if (value >= start && value <= end && (value - start) % step == 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int value(String value, String[] names) {
+		if (names != null) {
+			for (int i = 0; i < names.length; i++) {
+				if (names[i].equals(value)) {
+					return i + 1;
+				}
+			}
+		}
+		return Integer.parseInt(value);
+	}
+}
@@ -0,0 +1,82 @@
+package io.github.hdfg159.scheduler.trigger.impl;
+
+import io.github.hdfg159.scheduler.factory.Triggers;
+import io.github.hdfg159.scheduler.trigger.MisfirePolicy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 固定频率执行下次执行时间测试
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class FixedRateTest {
+	@Test
+	public void fixedRateAnchoredToStartTime() {
+		LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS).plusSeconds(10);
+		SimpleTrigger trigger = Triggers.fixedRate("fixed-rate", 1, ChronoUnit.SECONDS, start, t -> {});
+		for (int i = 1; i <= 5; i++) {
+			trigger.nextTrigger();
+			Assert.assertEquals(start.plusSeconds(i), trigger.getExecuteTime());
+			Assert.assertEquals(millis(start) + i * 1000L, trigger.getDeadline());
+		}
+	}
+
+	@Test
+	public void fixedDelayFromCurrentTime() {
+		LocalDateTime start = LocalDateTime.now().plusSeconds(10);
+		SimpleTrigger trigger = Triggers.forever("fixed-delay", 1, ChronoUnit.SECONDS, start, t -> {});
+		long before = System.currentTimeMillis();
+		trigger.nextTrigger();
+		Assert.assertTrue(trigger.getDeadline() >= before + 1000L);
+		Assert.assertTrue(trigger.getDeadline() < millis(start));
+	}
+
+	@Test
+	public void fixedRateMisfireFiresOnceOnGrid() {
+		LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS).minusNanos(10_500_000_000L);
+		SimpleTrigger trigger = Triggers.fixedRate("fixed-rate-misfire", 1, ChronoUnit.SECONDS, start, t -> {});
+		long before = System.currentTimeMillis();
+		trigger.nextTrigger();
+
+		long next = trigger.getDeadline();
+		Assert.assertTrue(next > before);
+		Assert.assertTrue(next <= before + 1000L);
+		Assert.assertEquals(0, (next - millis(start)) % 1000L);
+	}
+
+	@Test
+	public void fixedRateFireAllMissed() {
+		LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS).minusSeconds(10);
+		SimpleTrigger trigger = Triggers.fixedRate("fixed-rate-all", 1, ChronoUnit.SECONDS, start, t -> {});
+		trigger.misfirePolicy(MisfirePolicy.FIRE_ALL_MISSED);
+		// 重新放入调度队列等偏离计划执行时间后仍然回到原计划
+		trigger.deadline(millis(start) + 300L);
+		trigger.nextTrigger();
+		Assert.assertEquals(start.plusSeconds(1), trigger.getExecuteTime());
+		trigger.nextTrigger();
+		Assert.assertEquals(start.plusSeconds(2), trigger.getExecuteTime());
+	}
+
+	@Test
+	public void fixedRateEstimatedUnit() {
+		LocalDateTime start = LocalDateTime.of(2020, 1, 31, 0, 0);
+		SimpleTrigger trigger = Triggers.fixedRate("fixed-rate-month", 1, ChronoUnit.MONTHS, start, t -> {});
+		trigger.misfirePolicy(MisfirePolicy.FIRE_ALL_MISSED);
+		trigger.nextTrigger();
+		Assert.assertEquals(LocalDateTime.of(2020, 2, 29, 0, 0), trigger.getExecuteTime());
+		trigger.nextTrigger();
+		Assert.assertEquals(LocalDateTime.of(2020, 3, 31, 0, 0), trigger.getExecuteTime());
+		Assert.assertEquals(0, Duration.between(trigger.getPreviousTime(), LocalDateTime.now()).getSeconds());
+	}
+
+	private static long millis(LocalDateTime time) {
+		return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+}
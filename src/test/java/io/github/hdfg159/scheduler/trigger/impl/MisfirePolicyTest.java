@@ -0,0 +1,107 @@
+package io.github.hdfg159.scheduler.trigger.impl;
+
+import io.github.hdfg159.scheduler.factory.Triggers;
+import io.github.hdfg159.scheduler.trigger.MisfirePolicy;
+import io.github.hdfg159.scheduler.trigger.Trigger;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 错过执行处理策略下次执行时间测试
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class MisfirePolicyTest {
+	@Test
+	public void fireOnceNowFromCurrentTime() {
+		LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS).minusNanos(10_500_000_000L);
+		Trigger trigger = simple(start, MisfirePolicy.FIRE_ONCE_NOW);
+		LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+		trigger.nextTrigger();
+		Assert.assertFalse(trigger.getExecuteTime().isBefore(before.plusSeconds(1)));
+	}
+
+	@Test
+	public void fireAllMissedFromPreviousDeadline() {
+		LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS).minusNanos(10_500_000_000L);
+		Trigger trigger = simple(start, MisfirePolicy.FIRE_ALL_MISSED);
+		trigger.nextTrigger();
+		Assert.assertEquals(start.plusSeconds(1), trigger.getExecuteTime());
+		trigger.nextTrigger();
+		Assert.assertEquals(start.plusSeconds(2), trigger.getExecuteTime());
+	}
+
+	@Test
+	public void catchUpKeepsGrid() {
+		for (MisfirePolicy policy : new MisfirePolicy[]{MisfirePolicy.FIXED_RATE_CATCH_UP, MisfirePolicy.SKIP_TO_NEXT}) {
+			LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS).minusNanos(10_500_000_000L);
+			Trigger trigger = simple(start, policy);
+			LocalDateTime before = LocalDateTime.now();
+			trigger.nextTrigger();
+
+			LocalDateTime next = trigger.getExecuteTime();
+			Assert.assertTrue(next.isAfter(before));
+			Assert.assertFalse(next.isAfter(before.plusSeconds(1)));
+			Assert.assertEquals(0, Duration.between(start, next).toNanos() % 1_000_000_000L);
+		}
+	}
+
+	@Test
+	public void fixedDelaySkipDiffersFromCatchUp() {
+		LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS).minusNanos(10_500_000_000L);
+		// 固定延迟执行后上次计划执行时间偏离生效时间 + k * 执行间隔
+		LocalDateTime previous = start.plusNanos(250_000_000L);
+
+		SimpleTrigger skip = Triggers.forever("skip", 1, ChronoUnit.SECONDS, start, t -> {})
+				.misfirePolicy(MisfirePolicy.SKIP_TO_NEXT)
+				.executeTime(previous);
+		SimpleTrigger catchUp = Triggers.forever("catchUp", 1, ChronoUnit.SECONDS, start, t -> {})
+				.fixedRate(false)
+				.misfirePolicy(MisfirePolicy.FIXED_RATE_CATCH_UP)
+				.executeTime(previous);
+		Assert.assertFalse(skip.isFixedRate());
+		Assert.assertTrue(catchUp.isFixedRate());
+
+		LocalDateTime before = LocalDateTime.now();
+		skip.nextTrigger();
+		catchUp.nextTrigger();
+		Assert.assertTrue(skip.getExecuteTime().isAfter(before));
+		Assert.assertTrue(catchUp.getExecuteTime().isAfter(before));
+		// 跳过保持上次计划执行时间的间隔,补执行回到生效时间的间隔
+		Assert.assertEquals(250_000_000L, Duration.between(start, skip.getExecuteTime()).toNanos() % 1_000_000_000L);
+		Assert.assertEquals(0, Duration.between(start, catchUp.getExecuteTime()).toNanos() % 1_000_000_000L);
+	}
+
+	@Test
+	public void catchUpEstimatedUnit() {
+		LocalDateTime start = LocalDateTime.now().minusMonths(5).minusDays(1);
+		Trigger trigger = Triggers.forever("month", 1, ChronoUnit.MONTHS, start, t -> {})
+				.misfirePolicy(MisfirePolicy.FIXED_RATE_CATCH_UP);
+		trigger.nextTrigger();
+		Assert.assertEquals(start.plusMonths(6), trigger.getExecuteTime());
+	}
+
+	@Test
+	public void dayTriggerFireAllMissed() {
+		LocalTime time = LocalTime.of(3, 0);
+		DayTrigger trigger = new DayTrigger("day", new int[]{1, 2, 3, 4, 5, 6, 7}, time, t -> {});
+		LocalDateTime missed = LocalDateTime.now().minusDays(3).with(time);
+		trigger.misfirePolicy(MisfirePolicy.FIRE_ALL_MISSED).executeTime(missed);
+		trigger.nextTrigger();
+		Assert.assertEquals(missed.plusDays(1), trigger.getExecuteTime());
+
+		trigger.misfirePolicy(MisfirePolicy.SKIP_TO_NEXT);
+		trigger.nextTrigger();
+		Assert.assertTrue(trigger.getExecuteTime().isAfter(LocalDateTime.now()));
+	}
+
+	private static Trigger simple(LocalDateTime start, MisfirePolicy policy) {
+		return Triggers.forever("simple-" + policy, 1, ChronoUnit.SECONDS, start, t -> {}).misfirePolicy(policy);
+	}
+}
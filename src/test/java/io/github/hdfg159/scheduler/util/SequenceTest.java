@@ -0,0 +1,54 @@
+package io.github.hdfg159.scheduler.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 有序ID生成器测试
+ *
+ * @author hdfg159
+ * @version 1.0
+ */
+public class SequenceTest {
+	@Test
+	public void monotonicInSingleThread() {
+		long previous = Sequence.SEQUENCE.nextId();
+		// 超过单毫秒序列号上限(4096)
+		for (int i = 0; i < 100_000; i++) {
+			long id = Sequence.SEQUENCE.nextId();
+			Assert.assertTrue(id > previous);
+			previous = id;
+		}
+	}
+
+	@Test
+	public void uniqueAcrossThreads() throws InterruptedException {
+		int threads = 8;
+		int perThread = 50_000;
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		AtomicBoolean monotonic = new AtomicBoolean(true);
+		CountDownLatch latch = new CountDownLatch(threads);
+		for (int t = 0; t < threads; t++) {
+			new Thread(() -> {
+				long previous = 0L;
+				for (int i = 0; i < perThread; i++) {
+					long id = Sequence.SEQUENCE.nextId();
+					if (id <= previous) {
+						monotonic.set(false);
+					}
+					ids.add(id);
+					previous = id;
+				}
+				latch.countDown();
+			}).start();
+		}
+		latch.await();
+		Assert.assertTrue(monotonic.get());
+		Assert.assertEquals(threads * perThread, ids.size());
+	}
+}